@@ -59,11 +59,14 @@ public abstract class AbstractTest {
         }
     }
 
-    protected Response invoke(String action, JSONObject params) {
+    /**
+     * params 为 JSONObject 或 SerializeObject.
+     */
+    protected Response invoke(String action, Object params) {
         return invoke(action, params, true);
     }
 
-    protected Response invoke(String action, JSONObject params, boolean tryWait) {
+    protected Response invoke(String action, Object params, boolean tryWait) {
         Request request = buildRequest(action, null, null);
         FeatureExtension.Mode mode = mFeature.getInvocationMode(request);
         Response[] holder;
@@ -95,13 +98,15 @@ public abstract class AbstractTest {
         }
     }
 
-    private Request buildRequest(String action, JSONObject params, final Response[] holder) {
+    private Request buildRequest(String action, Object params, final Response[] holder) {
         Request request = new Request();
         request.setAction(action);
         if (params == null) {
             request.setRawParams("");
-        } else {
+        } else if (params instanceof JSONObject) {
             request.setRawParams(params.toString());
+        } else {
+            request.setRawParams(params);
         }
         RuntimeActivity activity = mActivityRule.getActivity();
         HybridView hybridView = activity.getHybridView();
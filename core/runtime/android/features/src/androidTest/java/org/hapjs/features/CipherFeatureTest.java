@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features;
+
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.eclipsesource.v8.utils.typedarrays.ArrayBuffer;
+import com.eclipsesource.v8.utils.typedarrays.TypedArray;
+import com.eclipsesource.v8.utils.typedarrays.UInt8Array;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import junit.framework.Assert;
+import org.hapjs.bridge.ApplicationContext;
+import org.hapjs.bridge.Response;
+import org.hapjs.common.utils.FileUtils;
+import org.hapjs.render.jsruntime.serialize.JavaSerializeObject;
+import org.hapjs.render.jsruntime.serialize.SerializeObject;
+import org.hapjs.runtime.HapEngine;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class CipherFeatureTest extends AbstractTest {
+    private static final String TAG = "CipherFeatureTest";
+    private static final String KEY = "MDEyMzQ1Njc4OWFiY2RlZg==";
+    private static final String TEXT = "hello quickapp";
+    private static final String TRANSFORMATION_ECB = "AES/ECB/PKCS5Padding";
+
+    public CipherFeatureTest() {
+        super(new CipherFeature());
+    }
+
+    @Test
+    public void testAes() throws JSONException {
+        String encrypted = aes(CipherFeature.ACTION_ENCRYPT, TEXT);
+        Assert.assertEquals(TEXT, aes(CipherFeature.ACTION_DECRYPT, encrypted));
+        // 复用缓存的 Cipher 时结果不变
+        Assert.assertEquals(encrypted, aes(CipherFeature.ACTION_ENCRYPT, TEXT));
+    }
+
+    @Test
+    public void testAesEcb() throws JSONException {
+        // ECB 没有 IV, 缓存的 Cipher 不重新初始化
+        String encrypted = aes(CipherFeature.ACTION_ENCRYPT, TEXT, TRANSFORMATION_ECB);
+        Assert.assertEquals(encrypted, aes(CipherFeature.ACTION_ENCRYPT, TEXT, TRANSFORMATION_ECB));
+        Assert.assertEquals(TEXT, aes(CipherFeature.ACTION_DECRYPT, encrypted, TRANSFORMATION_ECB));
+        Assert.assertEquals(TEXT, aes(CipherFeature.ACTION_DECRYPT, encrypted, TRANSFORMATION_ECB));
+    }
+
+    @Test
+    public void testAesArrayBuffer() {
+        byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        byte[] encrypted = aesArrayBuffer(CipherFeature.ACTION_ENCRYPT, data);
+        Assert.assertFalse(Arrays.equals(data, encrypted));
+        Assert.assertTrue(Arrays.equals(encrypted,
+                aesArrayBuffer(CipherFeature.ACTION_ENCRYPT, data)));
+        Assert.assertTrue(Arrays.equals(data,
+                aesArrayBuffer(CipherFeature.ACTION_DECRYPT, encrypted)));
+    }
+
+    @Test
+    public void testAesFile() throws IOException, JSONException {
+        ApplicationContext context =
+                HapEngine.getInstance("features_test").getApplicationContext();
+        File dir = context.getFilesDir();
+        File src = new File(dir, "cipher_src");
+        File encrypted = new File(dir, "cipher_encrypted");
+        File decrypted = new File(dir, "cipher_decrypted");
+        // 跨越多个读取块
+        byte[] data = new byte[200 * 1024 + 7];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        writeFile(src, data);
+        try {
+            Response response = aesFile(CipherFeature.ACTION_ENCRYPT,
+                    context.getInternalUri(src), context.getInternalUri(encrypted));
+            Assert.assertEquals(Response.CODE_SUCCESS, response.getCode());
+            response = aesFile(CipherFeature.ACTION_DECRYPT,
+                    context.getInternalUri(encrypted), context.getInternalUri(decrypted));
+            Assert.assertEquals(Response.CODE_SUCCESS, response.getCode());
+            Assert.assertTrue(Arrays.equals(data, FileUtils.readFileAsBytes(decrypted.getPath())));
+
+            // 解密失败时不保留目标文件
+            decrypted.delete();
+            response = aesFile(CipherFeature.ACTION_DECRYPT,
+                    context.getInternalUri(src), context.getInternalUri(decrypted));
+            Assert.assertFalse(Response.CODE_SUCCESS == response.getCode());
+            Assert.assertFalse(decrypted.exists());
+
+            // 源文件和目标文件相同时拒绝, 源文件保持不变
+            response = aesFile(CipherFeature.ACTION_ENCRYPT,
+                    context.getInternalUri(src), context.getInternalUri(src));
+            Assert.assertEquals(Response.CODE_ILLEGAL_ARGUMENT, response.getCode());
+            Assert.assertTrue(Arrays.equals(data, FileUtils.readFileAsBytes(src.getPath())));
+        } finally {
+            src.delete();
+            encrypted.delete();
+            decrypted.delete();
+        }
+    }
+
+    @Test
+    public void benchmarkAes() throws JSONException {
+        int count = 500;
+        long start = SystemClock.elapsedRealtime();
+        for (int i = 0; i < count; i++) {
+            aes(CipherFeature.ACTION_ENCRYPT, TEXT);
+        }
+        long cost = SystemClock.elapsedRealtime() - start;
+        Log.d(TAG, "encrypt " + count + " messages, cost: " + cost);
+    }
+
+    private String aes(String action, String text) throws JSONException {
+        return aes(action, text, null);
+    }
+
+    private String aes(String action, String text, String transformation) throws JSONException {
+        JSONObject params = new JSONObject();
+        params.put(CipherFeature.PARAM_ACTION, action);
+        params.put(CipherFeature.PARAM_TEXT, text);
+        params.put(CipherFeature.PARAM_KEY, KEY);
+        if (transformation != null) {
+            params.put(CipherFeature.PARAM_TRANSFORMATION, transformation);
+        }
+        Response response = invoke(CipherFeature.ACTION_AES, params);
+        Assert.assertEquals(Response.CODE_SUCCESS, response.getCode());
+        return ((JSONObject) response.getContent()).getString(CipherFeature.RESULT_TEXT);
+    }
+
+    private byte[] aesArrayBuffer(String action, byte[] data) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data);
+        buffer.flip();
+        SerializeObject params = new JavaSerializeObject();
+        params.put(CipherFeature.PARAM_ACTION, action);
+        params.put(CipherFeature.PARAM_KEY, KEY);
+        params.put(CipherFeature.PARAM_BUFFER, new UInt8Array(new ArrayBuffer(buffer)));
+        Response response = invoke(CipherFeature.ACTION_AES_ARRAY_BUFFER, params);
+        Assert.assertEquals(Response.CODE_SUCCESS, response.getCode());
+        TypedArray result = ((SerializeObject) response.getContent())
+                .optTypedArray(CipherFeature.RESULT_BUFFER);
+        ByteBuffer output = result.getByteBuffer();
+        byte[] bytes = new byte[output.remaining()];
+        output.get(bytes);
+        return bytes;
+    }
+
+    private Response aesFile(String action, String srcUri, String dstUri) throws JSONException {
+        JSONObject params = new JSONObject();
+        params.put(CipherFeature.PARAM_ACTION, action);
+        params.put(CipherFeature.PARAM_KEY, KEY);
+        params.put(CipherFeature.PARAM_SRC_URI, srcUri);
+        params.put(CipherFeature.PARAM_DST_URI, dstUri);
+        return invoke(CipherFeature.ACTION_AES_FILE, params);
+    }
+
+    private static void writeFile(File file, byte[] data) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data);
+        } finally {
+            out.close();
+        }
+    }
+}
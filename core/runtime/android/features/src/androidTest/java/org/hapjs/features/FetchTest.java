@@ -5,8 +5,25 @@
 
 package org.hapjs.features;
 
+import android.os.SystemClock;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.hapjs.bridge.Response;
+import org.hapjs.render.jsruntime.serialize.SerializeObject;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Assert;
@@ -52,4 +69,81 @@ public class FetchTest extends AbstractTest {
         JSONObject result = new JSONObject(data);
         Assert.assertEquals(data, 0, result.getInt("status"));
     }
+
+    @Test
+    public void testFetchCoalesce() throws Exception {
+        final AtomicInteger requestCount = new AtomicInteger();
+        final ServerSocket server = new ServerSocket(0, 10, InetAddress.getByName("127.0.0.1"));
+        Thread serverThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                serve(server, requestCount);
+            }
+        });
+        serverThread.start();
+
+        final JSONObject params = new JSONObject();
+        params.put(Fetch.PARAMS_KEY_URL, "http://127.0.0.1:" + server.getLocalPort() + "/data");
+        params.put(Fetch.PARAMS_KEY_RESPONSE_TYPE, Fetch.RESPONSE_TYPE_JSON);
+        params.put(Fetch.PARAMS_KEY_COALESCE, true);
+        Callable<Response> fetch = new Callable<Response>() {
+            @Override
+            public Response call() {
+                return invoke(Fetch.ACTION_FETCH, params);
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Response> firstFuture = executor.submit(fetch);
+            Future<Response> secondFuture = executor.submit(fetch);
+            Response first = firstFuture.get(10, TimeUnit.SECONDS);
+            Response second = secondFuture.get(10, TimeUnit.SECONDS);
+
+            Assert.assertEquals(1, requestCount.get());
+            Assert.assertEquals(Response.CODE_SUCCESS, first.getCode());
+            Assert.assertEquals(Response.CODE_SUCCESS, second.getCode());
+            Map<String, Object> firstData = ((SerializeObject) first.getContent())
+                    .optSerializeObject(Fetch.RESULT_KEY_DATA).toMap();
+            Map<String, Object> secondData = ((SerializeObject) second.getContent())
+                    .optSerializeObject(Fetch.RESULT_KEY_DATA).toMap();
+            Assert.assertEquals(firstData, secondData);
+            Assert.assertEquals(1, firstData.get("value"));
+            // 修改一个回调的结果不影响另一个
+            firstData.put("value", 2);
+            Assert.assertEquals(1, secondData.get("value"));
+        } finally {
+            executor.shutdownNow();
+            server.close();
+            serverThread.join();
+        }
+    }
+
+    /**
+     * 延迟返回响应, 保证第二个请求在第一个完成前发起.
+     */
+    private static void serve(ServerSocket server, AtomicInteger requestCount) {
+        byte[] body = "{\"value\":1,\"list\":[1,2]}".getBytes(StandardCharsets.UTF_8);
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                    // 跳过请求头
+                }
+                requestCount.incrementAndGet();
+                SystemClock.sleep(1000);
+                OutputStream out = socket.getOutputStream();
+                out.write(("HTTP/1.1 200 OK\r\n"
+                        + "Content-Type: application/json\r\n"
+                        + "Cache-Control: no-store\r\n"
+                        + "Content-Length: " + body.length + "\r\n"
+                        + "Connection: close\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                out.write(body);
+                out.flush();
+            } catch (IOException e) {
+                // server 关闭
+            }
+        }
+    }
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features.net.task;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import org.hapjs.common.utils.FileUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class RangeDownloaderTest {
+    private static final String ETAG = "\"v1\"";
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d*)");
+
+    private final List<String> mRanges = Collections.synchronizedList(new ArrayList<String>());
+    private byte[] mData;
+    private volatile int mStatus = 206;
+    private ServerSocket mServer;
+    private Thread mServerThread;
+    private String mUrl;
+    private File mPartFile;
+    private File mStateFile;
+
+    @Before
+    public void setup() throws IOException {
+        mData = new byte[300 * 1024];
+        for (int i = 0; i < mData.length; i++) {
+            mData[i] = (byte) (i * 7);
+        }
+        mServer = new ServerSocket(0, 10, InetAddress.getByName("127.0.0.1"));
+        mServerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                serve();
+            }
+        });
+        mServerThread.start();
+        mUrl = "http://127.0.0.1:" + mServer.getLocalPort() + "/file.bin";
+        File dir = InstrumentationRegistry.getInstrumentation().getTargetContext().getCacheDir();
+        mPartFile = new File(dir, "range_test.part");
+        mStateFile = new File(mPartFile.getPath() + ".cfg");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mServer.close();
+        mServerThread.join();
+        mPartFile.delete();
+        mStateFile.delete();
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        int downloaded = 100 * 1024;
+        writeInterruptedState(downloaded);
+
+        RangeDownloader downloader = newDownloader();
+        Assert.assertTrue(downloader.download());
+        Assert.assertEquals(200, downloader.getCode());
+        Assert.assertEquals(1, mRanges.size());
+        Assert.assertEquals("bytes=" + downloaded + "-" + (mData.length - 1), mRanges.get(0));
+        Assert.assertTrue(Arrays.equals(mData, FileUtils.readFileAsBytes(mPartFile.getPath())));
+        Assert.assertFalse(mStateFile.exists());
+    }
+
+    @Test
+    public void testServerErrorKeepsState() throws Exception {
+        writeInterruptedState(100 * 1024);
+        mStatus = 503;
+
+        RangeDownloader downloader = newDownloader();
+        Assert.assertFalse(downloader.download());
+        Assert.assertEquals(503, downloader.getCode());
+        Assert.assertTrue(mStateFile.exists());
+        Assert.assertTrue(mPartFile.exists());
+    }
+
+    @Test
+    public void testAlreadyFinished() throws Exception {
+        writeInterruptedState(mData.length);
+
+        RangeDownloader downloader = newDownloader();
+        Assert.assertTrue(downloader.download());
+        Assert.assertEquals(200, downloader.getCode());
+        Assert.assertTrue(mRanges.isEmpty());
+        Assert.assertFalse(mStateFile.exists());
+    }
+
+    private RangeDownloader newDownloader() {
+        return new RangeDownloader(new OkHttpClient(), mUrl, new Headers.Builder().build(),
+                mPartFile, 1, new RangeDownloader.Listener() {
+                    @Override
+                    public void onHeadersReceived(Headers headers) {
+                    }
+
+                    @Override
+                    public void onProgressUpdate(long receivedSize, long totalSize) {
+                    }
+                });
+    }
+
+    /**
+     * 模拟上次下载在 downloaded 字节处中断.
+     */
+    private void writeInterruptedState(int downloaded) throws Exception {
+        RandomAccessFile raf = new RandomAccessFile(mPartFile, "rw");
+        try {
+            raf.setLength(mData.length);
+            raf.write(mData, 0, downloaded);
+        } finally {
+            raf.close();
+        }
+        JSONObject state = new JSONObject()
+                .put("url", mUrl)
+                .put("validator", ETAG)
+                .put("total", mData.length)
+                .put("segments", new JSONArray().put(
+                        new JSONArray().put(0).put(mData.length - 1).put(downloaded)));
+        FileUtils.saveToFile(state.toString().getBytes(StandardCharsets.UTF_8), mStateFile);
+    }
+
+    private void serve() {
+        while (!mServer.isClosed()) {
+            try (Socket socket = mServer.accept()) {
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                String range = null;
+                String line;
+                while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                    if (line.regionMatches(true, 0, "Range:", 0, 6)) {
+                        range = line.substring(6).trim();
+                    }
+                }
+                OutputStream out = socket.getOutputStream();
+                if (range != null) {
+                    mRanges.add(range);
+                }
+                Matcher matcher = range == null ? null : RANGE_PATTERN.matcher(range);
+                if (mStatus != 206 || matcher == null || !matcher.matches()) {
+                    out.write(("HTTP/1.1 " + mStatus + " Error\r\n"
+                            + "Content-Length: 0\r\n"
+                            + "Connection: close\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    continue;
+                }
+                int start = Integer.parseInt(matcher.group(1));
+                int end = matcher.group(2).isEmpty()
+                        ? mData.length - 1 : Integer.parseInt(matcher.group(2));
+                out.write(("HTTP/1.1 206 Partial Content\r\n"
+                        + "Content-Range: bytes " + start + "-" + end + "/" + mData.length + "\r\n"
+                        + "ETag: " + ETAG + "\r\n"
+                        + "Content-Length: " + (end - start + 1) + "\r\n"
+                        + "Connection: close\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                out.write(mData, start, end - start + 1);
+                out.flush();
+            } catch (IOException e) {
+                // server 关闭
+            }
+        }
+    }
+}
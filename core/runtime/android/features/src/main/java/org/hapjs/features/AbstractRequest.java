@@ -11,15 +11,22 @@ import android.text.TextUtils;
 import android.util.Log;
 import android.webkit.MimeTypeMap;
 import com.eclipsesource.v8.utils.typedarrays.ArrayBuffer;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.regex.Matcher;
@@ -31,7 +38,9 @@ import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 import okhttp3.internal.http.HttpMethod;
+import org.hapjs.bridge.ApplicationContext;
 import org.hapjs.bridge.CallbackHybridFeature;
 import org.hapjs.bridge.Request;
 import org.hapjs.bridge.Response;
@@ -43,6 +52,8 @@ import org.hapjs.common.utils.FileUtils;
 import org.hapjs.features.net.FileRequestBody;
 import org.hapjs.features.net.FormData;
 import org.hapjs.features.net.FormFile;
+import org.hapjs.features.net.JsonStreamDecoder;
+import org.hapjs.features.net.RequestCoalescer;
 import org.hapjs.features.net.RequestHelper;
 import org.hapjs.model.AppInfo;
 import org.hapjs.render.jsruntime.serialize.JavaSerializeObject;
@@ -51,7 +62,6 @@ import org.hapjs.render.jsruntime.serialize.SerializeException;
 import org.hapjs.render.jsruntime.serialize.SerializeObject;
 import org.hapjs.runtime.HapEngine;
 import org.json.JSONException;
-import org.json.JSONObject;
 
 public abstract class AbstractRequest extends CallbackHybridFeature {
     protected static final String ACTION_FETCH = "fetch";
@@ -61,6 +71,8 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
     protected static final String PARAMS_KEY_METHOD = "method";
     protected static final String PARAMS_KEY_FILES = "files";
     protected static final String PARAMS_KEY_RESPONSE_TYPE = "responseType";
+    protected static final String PARAMS_KEY_COALESCE = "coalesce";
+    protected static final String PARAMS_KEY_FILE_THRESHOLD = "fileThreshold";
     protected static final String RESULT_KEY_CODE = "code";
     protected static final String RESULT_KEY_DATA = "data";
     protected static final String RESULT_KEY_HEADERS = "headers";
@@ -95,6 +107,7 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
     }
 
     private final WeakHashMap<Call, Request> mRequestMap = new WeakHashMap<>();
+    private final RequestCoalescer mCoalescer = new RequestCoalescer();
 
     @Override
     protected Response invokeInner(Request request)
@@ -160,19 +173,56 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
             }
         }
 
+        RequestTag requestTag = new RequestTag(request.getApplicationContext().getPackage());
+        requestTag.setRequestHashcode(this.hashCode());
+        requestBuilder.tag(RequestTag.class, requestTag);
+        okhttp3.Request httpRequest = requestBuilder.build();
+
+        long fileThreshold = reader.optLong(PARAMS_KEY_FILE_THRESHOLD, 0);
+        String coalesceKey = null;
+        if (reader.optBoolean(PARAMS_KEY_COALESCE, false)
+                && RequestCoalescer.isCoalescible(method, responseType)) {
+            coalesceKey = RequestCoalescer.getKey(pkg, httpRequest, responseType);
+            if (fileThreshold > 0 && RESPONSE_TYPE_JSON.equalsIgnoreCase(responseType)) {
+                // 阈值不同的请求返回的结果类型可能不同, 不能合并
+                coalesceKey += "\n" + PARAMS_KEY_FILE_THRESHOLD + ':' + fileThreshold;
+            }
+            RequestCoalescer.Entry entry = mCoalescer.getCachedEntry(coalesceKey, httpRequest);
+            if (entry != null) {
+                request.getCallback().callback(new Response(createResult(entry)));
+                return;
+            }
+            if (!mCoalescer.enqueue(coalesceKey, request)) {
+                return;
+            }
+        }
+
         NetworkReportManager.getInstance().reportNetwork(getName(), url);
         if (isResident()) {
             request.getNativeInterface().getResidentManager().postRegisterFeature(this);
         }
-        RequestTag requestTag = new RequestTag(request.getApplicationContext().getPackage());
-        requestTag.setRequestHashcode(this.hashCode());
-        requestBuilder.tag(RequestTag.class, requestTag);
-        OkHttpClient okHttpClient = HttpConfig.get().getOkHttpClient();
-        Call call = okHttpClient.newCall(requestBuilder.build());
+        OkHttpClient okHttpClient = HttpConfig.get().getOkHttpClient(pkg);
+        Call call = okHttpClient.newCall(httpRequest);
         synchronized (mRequestMap) {
             mRequestMap.put(call, request);
         }
-        call.enqueue(new CallbackImpl(responseType));
+        call.enqueue(new CallbackImpl(request.getApplicationContext(), responseType, coalesceKey,
+                fileThreshold));
+    }
+
+    private SerializeObject createResult(RequestCoalescer.Entry entry) {
+        SerializeObject result = new JavaSerializeObject();
+        result.put(RESULT_KEY_CODE, entry.getCode());
+        result.put(RESULT_KEY_HEADERS, RequestHelper.parseHeaders(entry.getHeaders()));
+        Object data = entry.getData();
+        if (data instanceof Map) {
+            // 每个回调各自持有一份数据, 不共享缓存中的对象
+            result.put(RESULT_KEY_DATA, new JavaSerializeObject(
+                    JsonStreamDecoder.copyObject((Map<String, Object>) data)));
+        } else {
+            result.put(RESULT_KEY_DATA, (String) data);
+        }
+        return result;
     }
 
     private okhttp3.Request.Builder getGetRequest(
@@ -339,8 +389,9 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
         super.dispose(force);
         if (force) {
             List<Call> calls = new ArrayList<>();
-            calls.addAll(HttpConfig.get().getOkHttpClient().dispatcher().queuedCalls());
-            calls.addAll(HttpConfig.get().getOkHttpClient().dispatcher().runningCalls());
+            synchronized (mRequestMap) {
+                calls.addAll(mRequestMap.keySet());
+            }
             for (Call call : calls) {
                 if (call != null
                         && call.request().tag(RequestTag.class) instanceof RequestTag
@@ -353,14 +404,23 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
             synchronized (mRequestMap) {
                 mRequestMap.clear();
             }
+            mCoalescer.clear();
         }
     }
 
     private class CallbackImpl implements Callback {
+        private final ApplicationContext applicationContext;
         private final String responseType;
+        private final String coalesceKey;
+        // json 响应超过该字节数时写入临时文件，返回文件 uri, 不大于 0 表示不启用
+        private final long fileThreshold;
 
-        CallbackImpl(String responseType) {
+        CallbackImpl(ApplicationContext applicationContext, String responseType,
+                     String coalesceKey, long fileThreshold) {
+            this.applicationContext = applicationContext;
             this.responseType = responseType;
+            this.coalesceKey = coalesceKey;
+            this.fileThreshold = fileThreshold;
         }
 
         private Request getRequest(Call call) {
@@ -372,6 +432,12 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
         @Override
         public void onFailure(Call call, IOException e) {
             Request request = getRequest(call);
+            if (coalesceKey != null) {
+                for (Request follower : mCoalescer.finish(coalesceKey)) {
+                    follower.getCallback().callback(
+                            new Response(CODE_NETWORK_ERROR, e.getMessage()));
+                }
+            }
             if (request == null) {
                 Log.w(TAG, "request not found");
                 return;
@@ -390,6 +456,10 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
         @Override
         public void onResponse(Call call, okhttp3.Response response) throws IOException {
             Request request = getRequest(call);
+            if (coalesceKey != null) {
+                onCoalescedResponse(request, response);
+                return;
+            }
             if (request == null) {
                 Log.w(TAG, "request not found");
                 return;
@@ -416,6 +486,57 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
             }
         }
 
+        private void onCoalescedResponse(Request request, okhttp3.Response response) {
+            List<Request> requests;
+            RequestCoalescer.Entry entry = null;
+            Exception exception = null;
+            try {
+                ResponseBody body = response.body();
+                Object data = "";
+                long size = 0;
+                boolean cacheable = true;
+                if (body != null && RESPONSE_TYPE_JSON.equalsIgnoreCase(responseType)) {
+                    CountingInputStream in = new CountingInputStream(body.byteStream());
+                    data = readJson(response, in);
+                    size = in.getCount() * 2;
+                    // 写入文件的结果不缓存, 文件可能被应用删除
+                    cacheable = data instanceof Map;
+                } else if (body != null) {
+                    String text = body.string();
+                    data = text;
+                    size = text.length() * 2L;
+                }
+                // 先放入缓存再结束合并，保证之后的相同请求能够命中缓存
+                entry = mCoalescer.newEntry(coalesceKey, response, data,
+                        (int) Math.min(size, Integer.MAX_VALUE), cacheable);
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to parse data: ", e);
+                exception = e;
+            } finally {
+                requests = mCoalescer.finish(coalesceKey);
+                FileUtils.closeQuietly(response);
+            }
+
+            if (request != null) {
+                requests.add(0, request);
+            } else {
+                Log.w(TAG, "request not found");
+            }
+            for (Request r : requests) {
+                if (entry != null) {
+                    r.getCallback().callback(new Response(createResult(entry)));
+                } else {
+                    r.getCallback().callback(
+                            new Response(CODE_PARSE_DATA_ERROR, exception.getMessage()));
+                }
+            }
+
+            if (request != null && isResident()) {
+                request.getNativeInterface().getResidentManager()
+                        .postUnregisterFeature(AbstractRequest.this);
+            }
+        }
+
         private void parseData(Request request, SerializeObject result, okhttp3.Response response,
                                String responseType)
                 throws IOException {
@@ -426,12 +547,11 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
             if (RESPONSE_TYPE_TEXT.equalsIgnoreCase(responseType)) {
                 result.put(RESULT_KEY_DATA, response.body().string());
             } else if (RESPONSE_TYPE_JSON.equalsIgnoreCase(responseType)) {
-                try {
-                    result.put(
-                            RESULT_KEY_DATA,
-                            new JavaSerializeObject(new JSONObject(response.body().string())));
-                } catch (JSONException e) {
-                    throw new IOException("Fail to Parsing Data to Json!");
+                Object data = readJson(response, response.body().byteStream());
+                if (data instanceof Map) {
+                    result.put(RESULT_KEY_DATA, new JavaSerializeObject((Map<String, Object>) data));
+                } else {
+                    result.put(RESULT_KEY_DATA, (String) data);
                 }
             } else if (RESPONSE_TYPE_ARRAYBUFFER.equalsIgnoreCase(responseType)) {
                 result.put(RESULT_KEY_DATA, new ArrayBuffer(response.body().bytes()));
@@ -442,8 +562,50 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
             }
         }
 
+        /**
+         * 解析 json 响应, 返回 Map. 启用 fileThreshold 时边读取边计数, 读取的字节数超过阈值后将已读取的部分和剩余的
+         * 数据一起写入文件, 返回文件 uri. chunked 或 gzip 压缩的响应 contentLength 为 -1, 不能据此提前判断大小.
+         */
+        private Object readJson(okhttp3.Response response, InputStream in) throws IOException {
+            MediaType contentType = response.body().contentType();
+            Charset charset = contentType == null
+                    ? StandardCharsets.UTF_8 : contentType.charset(StandardCharsets.UTF_8);
+            if (fileThreshold <= 0) {
+                return JsonStreamDecoder.decodeObject(new InputStreamReader(in, charset));
+            }
+            long contentLength = response.body().contentLength();
+            if (contentLength > fileThreshold) {
+                return parseFile(response, in);
+            }
+            if (contentLength < 0) {
+                // 长度未知时在 BufferedInputStream 的缓冲区中预读至多 fileThreshold + 1 字节,
+                // 判断是否超出阈值后回到起点读取, 响应内容只缓冲一份
+                int limit = (int) Math.min(fileThreshold + 1, Integer.MAX_VALUE);
+                BufferedInputStream buffered = new BufferedInputStream(in);
+                buffered.mark(limit);
+                long read = 0;
+                while (read < limit) {
+                    long skipped = buffered.skip(limit - read);
+                    if (skipped <= 0) {
+                        break;
+                    }
+                    read += skipped;
+                }
+                buffered.reset();
+                if (read > fileThreshold) {
+                    return parseFile(response, buffered);
+                }
+                in = buffered;
+            }
+            return JsonStreamDecoder.decodeObject(new InputStreamReader(in, charset));
+        }
+
         private String parseFile(Request request, okhttp3.Response response) throws IOException {
-            if (HapEngine.getInstance(request.getApplicationContext().getPackage()).isCardMode()) {
+            return parseFile(response, response.body() == null ? null : response.body().byteStream());
+        }
+
+        private String parseFile(okhttp3.Response response, InputStream in) throws IOException {
+            if (HapEngine.getInstance(applicationContext.getPackage()).isCardMode()) {
                 throw new IOException("Not support request file on card mode!");
             }
             String fileName =
@@ -451,14 +613,12 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
                             response.request().url().toString(),
                             response.header(RequestHelper.CONTENT_DISPOSITION),
                             response.header(RequestHelper.CONTENT_TYPE));
-            File dir = request.getApplicationContext().getCacheDir();
+            File dir = applicationContext.getCacheDir();
             File file = FileHelper.generateAvailableFile(fileName, dir);
-            if (file == null
-                    || !FileUtils.saveToFile(
-                    response.body() == null ? null : response.body().byteStream(), file)) {
+            if (file == null || !FileUtils.saveToFile(in, file)) {
                 throw new IOException("save file error");
             }
-            return request.getApplicationContext().getInternalUri(file);
+            return applicationContext.getInternalUri(file);
         }
 
         private String parseData(Request request, okhttp3.Response response) throws IOException {
@@ -552,4 +712,41 @@ public abstract class AbstractRequest extends CallbackHybridFeature {
             return filename;
         }
     }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long mCount;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                mCount++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count > 0) {
+                mCount += count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long count = super.skip(n);
+            mCount += count;
+            return count;
+        }
+
+        long getCount() {
+            return mCount;
+        }
+    }
 }
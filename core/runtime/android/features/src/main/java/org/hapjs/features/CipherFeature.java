@@ -5,20 +5,37 @@
 
 package org.hapjs.features;
 
+import android.text.TextUtils;
 import android.util.Base64;
 
+import com.eclipsesource.v8.utils.typedarrays.ArrayBuffer;
+import com.eclipsesource.v8.utils.typedarrays.TypedArray;
+import com.eclipsesource.v8.utils.typedarrays.UInt8Array;
+
 import org.hapjs.bridge.FeatureExtension;
 import org.hapjs.bridge.Request;
 import org.hapjs.bridge.Response;
 import org.hapjs.bridge.annotation.ActionAnnotation;
 import org.hapjs.bridge.annotation.FeatureExtensionAnnotation;
+import org.hapjs.bridge.storage.file.IResourceFactory;
+import org.hapjs.bridge.storage.file.Resource;
 import org.hapjs.common.utils.DigestUtils;
+import org.hapjs.common.utils.FileUtils;
+import org.hapjs.render.jsruntime.serialize.JavaSerializeObject;
+import org.hapjs.render.jsruntime.serialize.SerializeObject;
 import org.json.JSONObject;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
+import java.security.Key;
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
@@ -26,6 +43,8 @@ import java.security.PublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -40,6 +59,11 @@ import javax.crypto.spec.SecretKeySpec;
         actions = {
                 @ActionAnnotation(name = CipherFeature.ACTION_RSA, mode = FeatureExtension.Mode.ASYNC),
                 @ActionAnnotation(name = CipherFeature.ACTION_AES, mode = FeatureExtension.Mode.ASYNC),
+                @ActionAnnotation(
+                        name = CipherFeature.ACTION_AES_ARRAY_BUFFER,
+                        mode = FeatureExtension.Mode.ASYNC,
+                        normalize = FeatureExtension.Normalize.RAW),
+                @ActionAnnotation(name = CipherFeature.ACTION_AES_FILE, mode = FeatureExtension.Mode.ASYNC),
                 @ActionAnnotation(name = CipherFeature.ACTION_BASE64, mode = FeatureExtension.Mode.ASYNC),
                 @ActionAnnotation(name = CipherFeature.ACTION_CRC32, mode = FeatureExtension.Mode.ASYNC),
                 @ActionAnnotation(name = CipherFeature.ACTION_HASH, mode = FeatureExtension.Mode.SYNC),
@@ -49,6 +73,8 @@ public class CipherFeature extends FeatureExtension {
 
     protected static final String ACTION_RSA = "rsa";
     protected static final String ACTION_AES = "aes";
+    protected static final String ACTION_AES_ARRAY_BUFFER = "aesArrayBuffer";
+    protected static final String ACTION_AES_FILE = "aesFile";
     protected static final String ACTION_BASE64 = "base64";
     protected static final String ACTION_CRC32 = "crc32";
     protected static final String ACTION_HASH = "hash";
@@ -62,15 +88,46 @@ public class CipherFeature extends FeatureExtension {
     protected static final String PARAM_IV_LEN = "ivLen";
     protected static final String PARAM_IV_OFFSET = "ivOffset";
     protected static final String PARAM_ALGORITHM = "algorithm";
+    protected static final String PARAM_BUFFER = "buffer";
+    protected static final String PARAM_SRC_URI = "srcUri";
+    protected static final String PARAM_DST_URI = "dstUri";
 
     protected static final String RESULT_TEXT = "text";
+    protected static final String RESULT_BUFFER = "buffer";
+    protected static final String RESULT_URI = "uri";
     private static final String TRANSFORMATION_DEFAULT = "RSA/None/OAEPwithSHA-256andMGF1Padding";
     private static final String AES_TRANSFORMATION_DEFAULT = "AES/CBC/PKCS5Padding";
-    private static final String ACTION_ENCRYPT = "encrypt";
-    private static final String ACTION_DECRYPT = "decrypt";
+    static final String ACTION_ENCRYPT = "encrypt";
+    static final String ACTION_DECRYPT = "decrypt";
     private static final String ALGORITHM_HASH = "md5";
     private static final String ALGORITHM_SHA256 = "sha256";
     private static final int IV_LEN_DEFAULT = 16;
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_CACHED_CIPHERS = 8;
+    private static final int MAX_CACHED_KEYS = 16;
+
+    // 每个线程缓存已初始化的 Cipher, 避免每次请求都查找 provider. 使用中的 Cipher 从缓存中取出,
+    // 用完后放回, 出错的 Cipher 不再放回. 缓存的键只包含密钥的摘要
+    private static final ThreadLocal<Map<String, Cipher>> sCiphers =
+            new ThreadLocal<Map<String, Cipher>>() {
+                @Override
+                protected Map<String, Cipher> initialValue() {
+                    return new LinkedHashMap<String, Cipher>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<String, Cipher> eldest) {
+                            return size() > MAX_CACHED_CIPHERS;
+                        }
+                    };
+                }
+            };
+    // 解析后的 RSA 密钥, 不可变, 所有线程共享
+    private static final Map<String, Key> sKeys =
+            new LinkedHashMap<String, Key>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Key> eldest) {
+                    return size() > MAX_CACHED_KEYS;
+                }
+            };
 
     @Override
     public String getName() {
@@ -87,6 +144,12 @@ public class CipherFeature extends FeatureExtension {
             case ACTION_AES:
                 aes(request);
                 break;
+            case ACTION_AES_ARRAY_BUFFER:
+                aesArrayBuffer(request);
+                break;
+            case ACTION_AES_FILE:
+                aesFile(request);
+                break;
             case ACTION_BASE64:
                 base64(request);
                 break;
@@ -206,14 +269,12 @@ public class CipherFeature extends FeatureExtension {
             throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchPaddingException,
             InvalidKeyException, UnsupportedEncodingException, BadPaddingException,
             IllegalBlockSizeException {
-        byte[] keyBytes = Base64.decode(key, Base64.DEFAULT);
-        X509EncodedKeySpec keySpec = new X509EncodedKeySpec(keyBytes);
-        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-        PublicKey publicKey = keyFactory.generatePublic(keySpec);
-        Cipher cp = Cipher.getInstance(transformation);
-        cp.init(Cipher.ENCRYPT_MODE, publicKey);
+        PublicKey publicKey = getPublicKey(key);
+        String cipherKey = getCipherKey(transformation, Cipher.ENCRYPT_MODE, key);
+        Cipher cp = obtainCipher(cipherKey, transformation, Cipher.ENCRYPT_MODE, publicKey);
         byte[] textBytes = text.getBytes("UTF-8");
         byte[] resultBytes = cp.doFinal(textBytes);
+        recycleCipher(cipherKey, cp);
         return Base64.encodeToString(resultBytes, Base64.DEFAULT);
     }
 
@@ -236,14 +297,12 @@ public class CipherFeature extends FeatureExtension {
             throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchPaddingException,
             InvalidKeyException, UnsupportedEncodingException, BadPaddingException,
             IllegalBlockSizeException {
-        byte[] keyBytes = Base64.decode(key, Base64.DEFAULT);
-        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(keyBytes);
-        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-        PrivateKey privateKey = keyFactory.generatePrivate(keySpec);
-        Cipher cp = Cipher.getInstance(transformation);
-        cp.init(Cipher.DECRYPT_MODE, privateKey);
+        PrivateKey privateKey = getPrivateKey(key);
+        String cipherKey = getCipherKey(transformation, Cipher.DECRYPT_MODE, key);
+        Cipher cp = obtainCipher(cipherKey, transformation, Cipher.DECRYPT_MODE, privateKey);
         byte[] textBytes = Base64.decode(text, Base64.DEFAULT);
         byte[] resultBytes = cp.doFinal(textBytes);
+        recycleCipher(cipherKey, cp);
         return new String(resultBytes, "UTF-8");
     }
 
@@ -259,21 +318,16 @@ public class CipherFeature extends FeatureExtension {
         String key = jsonParams.getString(PARAM_KEY);
         String transformation =
                 jsonParams.optString(PARAM_TRANSFORMATION, AES_TRANSFORMATION_DEFAULT);
-        IvParameterSpec ivSpec = null;
-        // ECB mode does not support IV
-        if (!transformation.toUpperCase().contains("ECB")) {
-            String iv = jsonParams.optString(PARAM_IV, key);
-            int offset = jsonParams.optInt(PARAM_IV_OFFSET);
-            int len = jsonParams.optInt(PARAM_IV_LEN, IV_LEN_DEFAULT);
-            ivSpec = new IvParameterSpec(Base64.decode(iv, Base64.DEFAULT), offset, len);
-        }
-        byte[] keyBytes = Base64.decode(key, Base64.DEFAULT);
+        IvParameterSpec ivSpec = createIvSpec(transformation,
+                jsonParams.optString(PARAM_IV, key),
+                jsonParams.optInt(PARAM_IV_OFFSET),
+                jsonParams.optInt(PARAM_IV_LEN, IV_LEN_DEFAULT));
 
         String result;
         if (ACTION_ENCRYPT.equals(action)) {
-            result = aesEncrypt(text, keyBytes, transformation, ivSpec);
+            result = aesEncrypt(text, key, transformation, ivSpec);
         } else if (ACTION_DECRYPT.equals(action)) {
-            result = aesDecrypt(text, keyBytes, transformation, ivSpec);
+            result = aesDecrypt(text, key, transformation, ivSpec);
         } else {
             Response response = new Response(Response.CODE_ILLEGAL_ARGUMENT, "Invalid action");
             request.getCallback().callback(response);
@@ -286,36 +340,274 @@ public class CipherFeature extends FeatureExtension {
     }
 
     private String aesEncrypt(
-            String text, byte[] keyBytes, String transformation, IvParameterSpec ivSpec)
+            String text, String key, String transformation, IvParameterSpec ivSpec)
             throws NoSuchAlgorithmException, NoSuchPaddingException, BadPaddingException,
             IllegalBlockSizeException, InvalidKeyException, InvalidAlgorithmParameterException {
-
-        SecretKeySpec keySpec = new SecretKeySpec(keyBytes, "AES");
-        Cipher cp = Cipher.getInstance(transformation);
-        if (ivSpec != null) {
-            cp.init(Cipher.ENCRYPT_MODE, keySpec, ivSpec);
-        } else {
-            cp.init(Cipher.ENCRYPT_MODE, keySpec);
-        }
+        String cipherKey = getCipherKey(transformation, Cipher.ENCRYPT_MODE, key);
+        Cipher cp = obtainAesCipher(cipherKey, transformation, Cipher.ENCRYPT_MODE, key, ivSpec);
         byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
         byte[] resultBytes = cp.doFinal(textBytes);
+        recycleCipher(cipherKey, cp);
         return Base64.encodeToString(resultBytes, Base64.DEFAULT);
     }
 
     private String aesDecrypt(
-            String text, byte[] keyBytes, String transformation, IvParameterSpec ivSpec)
+            String text, String key, String transformation, IvParameterSpec ivSpec)
             throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException,
             BadPaddingException, IllegalBlockSizeException, InvalidAlgorithmParameterException {
+        String cipherKey = getCipherKey(transformation, Cipher.DECRYPT_MODE, key);
+        Cipher cp = obtainAesCipher(cipherKey, transformation, Cipher.DECRYPT_MODE, key, ivSpec);
+        byte[] textBytes = Base64.decode(text, Base64.DEFAULT);
+        byte[] resultBytes = cp.doFinal(textBytes);
+        recycleCipher(cipherKey, cp);
+        return new String(resultBytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 对 ArrayBuffer 加解密, 输入和输出都是 direct buffer, 不经过 byte[] 和 Base64.
+     */
+    private void aesArrayBuffer(Request request) throws Exception {
+        SerializeObject params = request.getSerializeParams();
+        if (params == null) {
+            request.getCallback()
+                    .callback(new Response(Response.CODE_ILLEGAL_ARGUMENT, "Invalid param"));
+            return;
+        }
+        TypedArray buffer = params.optTypedArray(PARAM_BUFFER);
+        String key = params.optString(PARAM_KEY);
+        int mode = getCipherMode(params.optString(PARAM_ACTION));
+        if (buffer == null || TextUtils.isEmpty(key) || mode < 0) {
+            request.getCallback()
+                    .callback(new Response(Response.CODE_ILLEGAL_ARGUMENT, "Invalid param"));
+            return;
+        }
+        String transformation = params.optString(PARAM_TRANSFORMATION, AES_TRANSFORMATION_DEFAULT);
+        IvParameterSpec ivSpec = createIvSpec(transformation,
+                params.optString(PARAM_IV, key),
+                params.optInt(PARAM_IV_OFFSET, 0),
+                params.optInt(PARAM_IV_LEN, IV_LEN_DEFAULT));
+
+        String cipherKey = getCipherKey(transformation, mode, key);
+        Cipher cp = obtainAesCipher(cipherKey, transformation, mode, key, ivSpec);
+        ByteBuffer input = buffer.getByteBuffer();
+        ByteBuffer output = ByteBuffer.allocateDirect(cp.getOutputSize(input.remaining()));
+        cp.doFinal(input, output);
+        recycleCipher(cipherKey, cp);
+        output.flip();
+
+        SerializeObject result = new JavaSerializeObject();
+        result.put(RESULT_BUFFER, new UInt8Array(new ArrayBuffer(output.slice())));
+        request.getCallback().callback(new Response(result));
+    }
+
+    /**
+     * 按块对文件加解密, 内存占用与文件大小无关.
+     */
+    private void aesFile(Request request) throws Exception {
+        JSONObject jsonParams = request.getJSONParams();
+        if (jsonParams == null) {
+            request.getCallback()
+                    .callback(new Response(Response.CODE_ILLEGAL_ARGUMENT, "Invalid param"));
+            return;
+        }
+        String srcUri = jsonParams.optString(PARAM_SRC_URI);
+        String dstUri = jsonParams.optString(PARAM_DST_URI);
+        String key = jsonParams.optString(PARAM_KEY);
+        int mode = getCipherMode(jsonParams.optString(PARAM_ACTION));
+        if (TextUtils.isEmpty(srcUri) || TextUtils.isEmpty(dstUri) || TextUtils.isEmpty(key)
+                || mode < 0) {
+            request.getCallback()
+                    .callback(new Response(Response.CODE_ILLEGAL_ARGUMENT, "Invalid param"));
+            return;
+        }
+        IResourceFactory resourceFactory = request.getApplicationContext().getResourceFactory();
+        Resource srcRes = resourceFactory.create(srcUri);
+        Resource dstRes = resourceFactory.create(dstUri);
+        if (srcRes == null || dstRes == null || !dstRes.canWrite()) {
+            request.getCallback()
+                    .callback(new Response(Response.CODE_IO_ERROR, "Invalid srcUri or dstUri"));
+            return;
+        }
+        // 目标文件打开时即被清空, 且失败时会被删除, 不能与源文件相同
+        if (isSameFile(srcRes, dstRes)) {
+            request.getCallback().callback(new Response(Response.CODE_ILLEGAL_ARGUMENT,
+                    "srcUri and dstUri must be different"));
+            return;
+        }
+        String transformation =
+                jsonParams.optString(PARAM_TRANSFORMATION, AES_TRANSFORMATION_DEFAULT);
+        IvParameterSpec ivSpec = createIvSpec(transformation,
+                jsonParams.optString(PARAM_IV, key),
+                jsonParams.optInt(PARAM_IV_OFFSET),
+                jsonParams.optInt(PARAM_IV_LEN, IV_LEN_DEFAULT));
+
+        String cipherKey = getCipherKey(transformation, mode, key);
+        Cipher cp = obtainAesCipher(cipherKey, transformation, mode, key, ivSpec);
+        InputStream in = null;
+        OutputStream out = null;
+        boolean success = false;
+        try {
+            in = srcRes.openInputStream();
+            out = dstRes.openOutputStream(-1, false);
+            byte[] inBuffer = new byte[FILE_BUFFER_SIZE];
+            byte[] outBuffer = new byte[cp.getOutputSize(FILE_BUFFER_SIZE)];
+            int count;
+            while ((count = in.read(inBuffer)) != -1) {
+                int outCount = cp.update(inBuffer, 0, count, outBuffer);
+                out.write(outBuffer, 0, outCount);
+            }
+            if (outBuffer.length < cp.getOutputSize(0)) {
+                outBuffer = new byte[cp.getOutputSize(0)];
+            }
+            int outCount = cp.doFinal(outBuffer, 0);
+            out.write(outBuffer, 0, outCount);
+            recycleCipher(cipherKey, cp);
+            success = true;
+        } catch (IOException e) {
+            request.getCallback().callback(new Response(Response.CODE_IO_ERROR, e.getMessage()));
+            return;
+        } finally {
+            FileUtils.closeQuietly(in, out);
+            if (!success) {
+                // 不保留写了一半的目标文件
+                deleteQuietly(dstRes);
+            }
+        }
+        JSONObject data = new JSONObject();
+        data.put(RESULT_URI, dstRes.toUri());
+        request.getCallback().callback(new Response(data));
+    }
+
+    private static boolean isSameFile(Resource src, Resource dst) {
+        File srcFile = src.getUnderlyingFile();
+        File dstFile = dst.getUnderlyingFile();
+        if (srcFile == null || dstFile == null) {
+            return TextUtils.equals(src.toUri(), dst.toUri());
+        }
+        try {
+            return srcFile.getCanonicalPath().equals(dstFile.getCanonicalPath());
+        } catch (IOException e) {
+            return srcFile.getAbsolutePath().equals(dstFile.getAbsolutePath());
+        }
+    }
+
+    private static void deleteQuietly(Resource resource) {
+        try {
+            resource.delete();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    private static int getCipherMode(String action) {
+        if (ACTION_ENCRYPT.equals(action)) {
+            return Cipher.ENCRYPT_MODE;
+        } else if (ACTION_DECRYPT.equals(action)) {
+            return Cipher.DECRYPT_MODE;
+        }
+        return -1;
+    }
+
+    private static IvParameterSpec createIvSpec(
+            String transformation, String iv, int offset, int len) {
+        // ECB mode does not support IV
+        if (transformation.toUpperCase().contains("ECB")) {
+            return null;
+        }
+        return new IvParameterSpec(Base64.decode(iv, Base64.DEFAULT), offset, len);
+    }
+
+    /**
+     * AEAD 模式(如 GCM)加密时不允许以相同的密钥和 IV 再次初始化, 这类 Cipher 不缓存, 返回 null.
+     */
+    private static String getCipherKey(String transformation, int mode, String key) {
+        if (isAead(transformation)) {
+            return null;
+        }
+        return transformation + '|' + mode + '|' + digestKey(key);
+    }
+
+    private static boolean isAead(String transformation) {
+        String upper = transformation.toUpperCase();
+        return upper.contains("GCM") || upper.contains("CCM") || upper.contains("POLY1305");
+    }
+
+    private static String digestKey(String key) {
+        return DigestUtils.getSha256(key.getBytes(StandardCharsets.UTF_8));
+    }
 
-        SecretKeySpec keySpec = new SecretKeySpec(keyBytes, "AES");
-        Cipher cp = Cipher.getInstance(transformation);
+    private static Cipher obtainAesCipher(
+            String cipherKey, String transformation, int mode, String key, IvParameterSpec ivSpec)
+            throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException,
+            InvalidAlgorithmParameterException {
+        Cipher cipher = cipherKey != null ? sCiphers.get().remove(cipherKey) : null;
+        if (cipher != null && ivSpec == null) {
+            // doFinal 之后 Cipher 回到 init 后的状态, 可以直接使用
+            return cipher;
+        }
+        if (cipher == null) {
+            cipher = Cipher.getInstance(transformation);
+        }
+        SecretKeySpec keySpec = new SecretKeySpec(Base64.decode(key, Base64.DEFAULT), "AES");
         if (ivSpec != null) {
-            cp.init(Cipher.DECRYPT_MODE, keySpec, ivSpec);
+            cipher.init(mode, keySpec, ivSpec);
         } else {
-            cp.init(Cipher.DECRYPT_MODE, keySpec);
+            cipher.init(mode, keySpec);
         }
-        byte[] textBytes = Base64.decode(text, Base64.DEFAULT);
-        byte[] resultBytes = cp.doFinal(textBytes);
-        return new String(resultBytes, StandardCharsets.UTF_8);
+        return cipher;
+    }
+
+    private static Cipher obtainCipher(String cipherKey, String transformation, int mode, Key key)
+            throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException {
+        Cipher cipher = cipherKey != null ? sCiphers.get().remove(cipherKey) : null;
+        if (cipher == null) {
+            cipher = Cipher.getInstance(transformation);
+            cipher.init(mode, key);
+        }
+        return cipher;
+    }
+
+    private static void recycleCipher(String cipherKey, Cipher cipher) {
+        if (cipherKey != null) {
+            sCiphers.get().put(cipherKey, cipher);
+        }
+    }
+
+    private static PublicKey getPublicKey(String key)
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
+        String keyId = "public|" + digestKey(key);
+        synchronized (sKeys) {
+            Key cached = sKeys.get(keyId);
+            if (cached != null) {
+                return (PublicKey) cached;
+            }
+        }
+        byte[] keyBytes = Base64.decode(key, Base64.DEFAULT);
+        X509EncodedKeySpec keySpec = new X509EncodedKeySpec(keyBytes);
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        PublicKey publicKey = keyFactory.generatePublic(keySpec);
+        synchronized (sKeys) {
+            sKeys.put(keyId, publicKey);
+        }
+        return publicKey;
+    }
+
+    private static PrivateKey getPrivateKey(String key)
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
+        String keyId = "private|" + digestKey(key);
+        synchronized (sKeys) {
+            Key cached = sKeys.get(keyId);
+            if (cached != null) {
+                return (PrivateKey) cached;
+            }
+        }
+        byte[] keyBytes = Base64.decode(key, Base64.DEFAULT);
+        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(keyBytes);
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        PrivateKey privateKey = keyFactory.generatePrivate(keySpec);
+        synchronized (sKeys) {
+            sKeys.put(keyId, privateKey);
+        }
+        return privateKey;
     }
 }
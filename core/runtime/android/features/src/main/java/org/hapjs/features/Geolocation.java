@@ -48,6 +48,7 @@ import org.hapjs.bridge.Request;
 import org.hapjs.bridge.Response;
 import org.hapjs.bridge.annotation.ActionAnnotation;
 import org.hapjs.bridge.annotation.FeatureExtensionAnnotation;
+import org.hapjs.common.location.AbstractLocationClient;
 import org.hapjs.common.location.DefaultLocationClient;
 import org.hapjs.common.location.HapLocation;
 import org.hapjs.common.location.ILocationClient;
@@ -57,6 +58,7 @@ import org.hapjs.common.location.LocationUtils;
 import org.hapjs.common.utils.ThreadUtils;
 import org.hapjs.features.geolocation.GeolocationProvider;
 import org.hapjs.features.geolocation.GeolocationProviderImpl;
+import org.hapjs.features.geolocation.LocationBatcher;
 import org.hapjs.features.geolocation.NavigationInfo;
 import org.hapjs.features.geolocation.adapter.LocationAdapter;
 import org.hapjs.features.geolocation.adapter.LocationSearchAdapter;
@@ -167,11 +169,17 @@ public class Geolocation extends CallbackHybridFeature {
     protected static final String PARAM_COORTYPE = "coorType";
     protected static final String PARAM_COORDTYPE = "coordType";
     protected static final long PARAM_TIMEOUT_DEFAULT = 30000; // 30000ms
+    protected static final String PARAM_MAX_LATENCY = "maxLatency";
+    protected static final String PARAM_DISTANCE_FILTER = "distanceFilter";
+    protected static final String PARAM_ADAPTIVE = "adaptive";
     protected static final String RESULT_LATITUDE = "latitude";
     protected static final String RESULT_LONGITUDE = "longitude";
     protected static final String RESULT_ACCURACY = "accuracy";
     protected static final String RESULT_TIME = "time";
     protected static final String RESULT_TYPES = "types";
+    protected static final String RESULT_LOCATIONS = "locations";
+    protected static final String RESULT_DELIVERED = "delivered";
+    protected static final String RESULT_SUPPRESSED = "suppressed";
     protected static final String ALTITUDE = "altitude";
     protected static final String SPEED = "speed";
     protected static final String ACCURACY = "accuracy";
@@ -185,6 +193,8 @@ public class Geolocation extends CallbackHybridFeature {
     private static final int CODE_TIMEOUT = 2;
     private static final int CODE_UNAVAILABLE = 3;
     private static final int CODE_CLOSE = 4;
+    private static final int CODE_BATCH = 5;
+    private static final long MAX_LATENCY_LIMIT = 10 * 60 * 1000;
     private static final int ERROR_SERVICE_CLOSE = Response.CODE_FEATURE_ERROR;
     private static final int ERROR_ILLEGAL_ARGUMENT = Response.CODE_ILLEGAL_ARGUMENT;
     private static final int ERROR_CHOOSE_LOCATION_INVALID = Response.CODE_FEATURE_ERROR;
@@ -1351,9 +1361,20 @@ public class Geolocation extends CallbackHybridFeature {
             return Response.SUCCESS;
         }
         request.getNativeInterface().getResidentManager().postRegisterFeature(this);
-        SubscribeCallbackContext subscribeCallbackContext =
-                new SubscribeCallbackContext(request, ACTION_SUBSCRIBE, client, false,
-                        isReserved(request));
+        JSONObject params = request.getJSONParams();
+        long maxLatency = params != null ? params.optLong(PARAM_MAX_LATENCY, 0) : 0;
+        SubscribeCallbackContext subscribeCallbackContext;
+        if (maxLatency > 0) {
+            subscribeCallbackContext =
+                    new BatchSubscribeCallbackContext(request, client,
+                            Math.min(maxLatency, MAX_LATENCY_LIMIT),
+                            (float) params.optDouble(PARAM_DISTANCE_FILTER, 0),
+                            params.optBoolean(PARAM_ADAPTIVE, true), isReserved(request));
+        } else {
+            subscribeCallbackContext =
+                    new SubscribeCallbackContext(request, ACTION_SUBSCRIBE, client, false,
+                            isReserved(request));
+        }
         putCallbackContext(subscribeCallbackContext);
         return Response.SUCCESS;
     }
@@ -1419,6 +1440,25 @@ public class Geolocation extends CallbackHybridFeature {
         }
     }
 
+    private Response responseLocations(List<HapLocation> locations, LocationBatcher batcher)
+            throws JSONException {
+        JSONArray array = new JSONArray();
+        for (HapLocation location : locations) {
+            JSONObject js = new JSONObject();
+            js.put(RESULT_LATITUDE, location.getLatitude());
+            js.put(RESULT_LONGITUDE, location.getLongitude());
+            js.put(RESULT_ACCURACY, location.getAccuracy());
+            js.put(RESULT_TIME, location.getTime());
+            array.put(js);
+        }
+        // 顶层字段为最新的位置, 与逐个回调时的格式兼容
+        JSONObject result = new JSONObject(array.getJSONObject(array.length() - 1).toString());
+        result.put(RESULT_LOCATIONS, array);
+        result.put(RESULT_DELIVERED, batcher.getDeliveredCount());
+        result.put(RESULT_SUPPRESSED, batcher.getSuppressedCount());
+        return new Response(result);
+    }
+
     private class SubscribeCallbackContext extends CallbackContext {
         private ILocationClient client;
         private boolean useCache;
@@ -1442,11 +1482,15 @@ public class Geolocation extends CallbackHybridFeature {
                     new LocationChangedListener() {
                         @Override
                         public void onLocationChanged(HapLocation location, int errorCode) {
-                            runCallbackContext(getAction(), errorCode, location);
+                            SubscribeCallbackContext.this.onLocationChanged(location, errorCode);
                         }
                     });
         }
 
+        protected void onLocationChanged(HapLocation location, int errorCode) {
+            runCallbackContext(getAction(), errorCode, location);
+        }
+
         @Override
         public void onDestroy() {
             super.onDestroy();
@@ -1464,4 +1508,78 @@ public class Geolocation extends CallbackHybridFeature {
             }
         }
     }
+
+    private class BatchSubscribeCallbackContext extends SubscribeCallbackContext {
+        private final ILocationClient mClient;
+        private final boolean mAdaptive;
+        private final LocationBatcher mBatcher;
+
+        BatchSubscribeCallbackContext(
+                Request request,
+                ILocationClient client,
+                long maxLatency,
+                float distanceFilter,
+                boolean adaptive,
+                boolean reserved) {
+            super(request, ACTION_SUBSCRIBE, client, false, reserved);
+            mClient = client;
+            mAdaptive = adaptive && client instanceof AbstractLocationClient;
+            mBatcher = new LocationBatcher(maxLatency, distanceFilter, mAdaptive,
+                    new LocationBatcher.Listener() {
+                        @Override
+                        public void onBatch(List<HapLocation> locations) {
+                            runCallbackContext(getAction(), CODE_BATCH, locations);
+                        }
+
+                        @Override
+                        public void onUpdateOptionsChanged(long interval, boolean highAccuracy) {
+                            ((AbstractLocationClient) mClient)
+                                    .setUpdateOptions(interval, highAccuracy);
+                        }
+                    });
+        }
+
+        @Override
+        public void onCreate() {
+            if (mAdaptive) {
+                ((AbstractLocationClient) mClient)
+                        .setUpdateOptions(mBatcher.getInterval(), mBatcher.isHighAccuracy());
+            }
+            super.onCreate();
+        }
+
+        @Override
+        protected void onLocationChanged(HapLocation location, int errorCode) {
+            if (errorCode == LocationChangedListener.CODE_RESULT_RECEIVED && location != null) {
+                mBatcher.offer(location);
+            } else {
+                super.onLocationChanged(location, errorCode);
+            }
+        }
+
+        @Override
+        public void onDestroy() {
+            super.onDestroy();
+            mBatcher.clear();
+            Log.d(TAG, "batch subscribe finished, received: " + mBatcher.getReceivedCount()
+                    + ", delivered: " + mBatcher.getDeliveredCount()
+                    + ", suppressed: " + mBatcher.getSuppressedCount()
+                    + ", batches: " + mBatcher.getBatchCount());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void callback(int what, Object obj) {
+            if (what != CODE_BATCH) {
+                super.callback(what, obj);
+                return;
+            }
+            try {
+                mRequest.getCallback()
+                        .callback(responseLocations((List<HapLocation>) obj, mBatcher));
+            } catch (JSONException e) {
+                Log.e(TAG, "Fail to callback location batch", e);
+            }
+        }
+    }
 }
@@ -18,6 +18,11 @@ import android.os.Message;
 import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.Log;
+import android.view.Choreographer;
+import com.eclipsesource.v8.utils.typedarrays.Float32Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import org.hapjs.bridge.CallbackContext;
@@ -31,6 +36,8 @@ import org.hapjs.bridge.annotation.ActionAnnotation;
 import org.hapjs.bridge.annotation.FeatureExtensionAnnotation;
 import org.hapjs.bridge.permission.HapPermissionManager;
 import org.hapjs.bridge.permission.PermissionCallback;
+import org.hapjs.render.jsruntime.serialize.JavaSerializeObject;
+import org.hapjs.render.jsruntime.serialize.SerializeObject;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -91,6 +98,13 @@ public class Sensor extends CallbackHybridFeature {
     protected static final String PARAM_INTENSITY = "intensity";
     protected static final String PARAM_STEPS = "steps";
     protected static final String PARAM_ACCURACY = "accuracy";
+    protected static final String PARAM_BATCH = "batch";
+    protected static final String PARAM_MAX_BATCH_SIZE = "maxBatchSize";
+    protected static final String PARAM_MAX_LATENCY = "maxLatency";
+    protected static final String PARAM_VALUES = "values";
+    protected static final String PARAM_COUNT = "count";
+    protected static final String PARAM_STRIDE = "stride";
+    protected static final String PARAM_TIMESTAMP = "timestamp";
     private static final String TAG = "Sensor";
     private static final int MESSAGE_COMPASS_INTERVAL = 1;
     private static final int MESSAGE_ON_PAUSE = 2;
@@ -101,6 +115,13 @@ public class Sensor extends CallbackHybridFeature {
     private static final int EVENT_INTERVAL_GAME = 20 * 1000;
     private static final int EVENT_INTERVAL_UI = 60 * 1000;
     private static final int EVENT_INTERVAL_NORMAL = 200 * 1000;
+    // 批量模式下每个采样占用的 float 数: x, y, z, 相对批次时间戳的毫秒数
+    private static final int BATCH_STRIDE = 4;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 32;
+    private static final int MAX_BATCH_SIZE = 512;
+    // milliseconds, 0 表示每帧投递一次
+    private static final int DEFAULT_MAX_LATENCY = 0;
+    private static final int MAX_LATENCY = 1000;
 
     private static final Map<String, Integer> INTERVAL_MAP = new HashMap<>();
 
@@ -304,8 +325,40 @@ public class Sensor extends CallbackHybridFeature {
                 && accuracy <= SensorManager.SENSOR_STATUS_ACCURACY_HIGH;
     }
 
+    /**
+     * 加速度计回调. 参数 batch 为 true 时进入批量模式: 采样先写入预分配的缓冲区, 在帧回调中或采样数达到
+     * maxBatchSize 时以 Float32Array 一次投递给 js, 每个采样依次为 x, y, z 以及相对 timestamp 的毫秒数.
+     * 距批次第一个采样超过 maxLatency 毫秒后的第一帧投递, 同时以 maxLatency 作为硬件批量上报的最大延迟.
+     * 批量模式的缓冲区和帧回调只在主线程访问, 取消订阅时的清理也投递到主线程执行.
+     */
     private class AccelerometerCallbackContext extends CallbackContext {
         SensorEventListener accelerometerListener;
+        private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+        private boolean mBatch;
+        private int mMaxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private int mMaxLatency = DEFAULT_MAX_LATENCY;
+        private float[] mSamples;
+        private int mSampleCount;
+        private long mBatchTimestamp;
+        private long mBatchStartTime;
+        private boolean mFrameCallbackPosted;
+        private boolean mDestroyed;
+        private final Choreographer.FrameCallback mFrameCallback =
+                new Choreographer.FrameCallback() {
+                    @Override
+                    public void doFrame(long frameTimeNanos) {
+                        mFrameCallbackPosted = false;
+                        if (mSampleCount == 0) {
+                            return;
+                        }
+                        if (SystemClock.elapsedRealtimeNanos() - mBatchStartTime
+                                >= mMaxLatency * 1000000L) {
+                            flushSamples();
+                        } else {
+                            postFrameCallback();
+                        }
+                    }
+                };
 
         public AccelerometerCallbackContext(Request request, boolean reserved) {
             super(Sensor.this, ACTION_SUBSCRIBE_ACCELEROMETER, request, reserved);
@@ -339,13 +392,27 @@ public class Sensor extends CallbackHybridFeature {
                 if (!TextUtils.isEmpty(intervalParam)) {
                     interval = INTERVAL_MAP.get(intervalParam);
                 }
+                parseBatchParams(params);
             } catch (JSONException e) {
                 Log.e(TAG, "onCreate", e);
             }
             if (interval == null) {
                 interval = EVENT_INTERVAL_NORMAL;
             }
-            sm.registerListener(accelerometerListener, accelerometer, interval);
+            if (mBatch) {
+                sm.registerListener(accelerometerListener, accelerometer, interval,
+                        mMaxLatency * 1000);
+            } else {
+                sm.registerListener(accelerometerListener, accelerometer, interval);
+            }
+        }
+
+        private void parseBatchParams(JSONObject params) {
+            mBatch = params.optBoolean(PARAM_BATCH, false);
+            int maxBatchSize = params.optInt(PARAM_MAX_BATCH_SIZE, DEFAULT_MAX_BATCH_SIZE);
+            mMaxBatchSize = Math.max(1, Math.min(maxBatchSize, MAX_BATCH_SIZE));
+            int maxLatency = params.optInt(PARAM_MAX_LATENCY, DEFAULT_MAX_LATENCY);
+            mMaxLatency = Math.max(0, Math.min(maxLatency, MAX_LATENCY));
         }
 
         @Override
@@ -354,12 +421,30 @@ public class Sensor extends CallbackHybridFeature {
             Activity activity = mRequest.getNativeInterface().getActivity();
             SensorManager sm = (SensorManager) activity.getSystemService(Context.SENSOR_SERVICE);
             sm.unregisterListener(accelerometerListener);
+            if (!mBatch) {
+                return;
+            }
+            // onDestroy 可能在 js 线程或没有 Looper 的 io 线程中调用, 帧回调注册在主线程的 Choreographer 上
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    mDestroyed = true;
+                    if (mFrameCallbackPosted) {
+                        Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+                        mFrameCallbackPosted = false;
+                    }
+                    mSampleCount = 0;
+                    mSamples = null;
+                }
+            });
         }
 
         @Override
         public void callback(int what, Object obj) {
             SensorEvent event = (SensorEvent) obj;
-            if (event != null) {
+            if (event != null && mBatch) {
+                addSample(event);
+            } else if (event != null) {
                 try {
                     JSONObject result = new JSONObject();
                     result.put(PARAM_X, event.values[0]);
@@ -374,6 +459,58 @@ public class Sensor extends CallbackHybridFeature {
                 Log.e(TAG, "Fail to callback accelerometer because event is null");
             }
         }
+
+        // 传感器事件在主线程分发, 缓冲区只在主线程访问
+        private void addSample(SensorEvent event) {
+            if (mDestroyed) {
+                return;
+            }
+            if (mSamples == null) {
+                mSamples = new float[mMaxBatchSize * BATCH_STRIDE];
+            }
+            if (mSampleCount == 0) {
+                mBatchTimestamp = event.timestamp;
+                mBatchStartTime = SystemClock.elapsedRealtimeNanos();
+            }
+            int offset = mSampleCount * BATCH_STRIDE;
+            mSamples[offset] = event.values[0];
+            mSamples[offset + 1] = event.values[1];
+            mSamples[offset + 2] = event.values[2];
+            mSamples[offset + 3] = (event.timestamp - mBatchTimestamp) / 1000000f;
+            mSampleCount++;
+            if (mSampleCount >= mMaxBatchSize) {
+                flushSamples();
+            } else {
+                postFrameCallback();
+            }
+        }
+
+        private void postFrameCallback() {
+            if (!mFrameCallbackPosted) {
+                mFrameCallbackPosted = true;
+                Choreographer.getInstance().postFrameCallback(mFrameCallback);
+            }
+        }
+
+        private void flushSamples() {
+            int count = mSampleCount;
+            if (count == 0) {
+                return;
+            }
+            mSampleCount = 0;
+            // 投递给 js 的数据异步使用, 每批单独分配, 预分配的缓冲区可以立即复用
+            ByteBuffer buffer = ByteBuffer.allocateDirect(count * BATCH_STRIDE * 4)
+                    .order(ByteOrder.nativeOrder());
+            FloatBuffer floatBuffer = buffer.asFloatBuffer();
+            floatBuffer.put(mSamples, 0, count * BATCH_STRIDE);
+            SerializeObject result = new JavaSerializeObject();
+            result.put(PARAM_VALUES, new Float32Array(buffer));
+            result.put(PARAM_COUNT, count);
+            result.put(PARAM_STRIDE, BATCH_STRIDE);
+            // 传感器事件的时间戳, 单位为毫秒
+            result.put(PARAM_TIMESTAMP, mBatchTimestamp / 1000000d);
+            mRequest.getCallback().callback(new Response(result));
+        }
     }
 
     private class CompassCallbackContext extends CallbackContext {
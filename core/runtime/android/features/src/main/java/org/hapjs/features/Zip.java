@@ -8,6 +8,8 @@ package org.hapjs.features;
 import android.text.TextUtils;
 import android.util.Log;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import org.hapjs.bridge.ApplicationContext;
 import org.hapjs.bridge.FeatureExtension;
 import org.hapjs.bridge.Request;
@@ -16,26 +18,47 @@ import org.hapjs.bridge.annotation.ActionAnnotation;
 import org.hapjs.bridge.annotation.FeatureExtensionAnnotation;
 import org.hapjs.bridge.storage.file.InternalUriUtils;
 import org.hapjs.bridge.storage.file.Resource;
-import org.hapjs.cache.utils.ZipUtils;
+import org.hapjs.cache.utils.ParallelUnzipper;
+import org.hapjs.render.jsruntime.serialize.SerializeArray;
 import org.hapjs.render.jsruntime.serialize.SerializeException;
 import org.hapjs.render.jsruntime.serialize.SerializeObject;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 @FeatureExtensionAnnotation(
         name = Zip.FEATURE_NAME,
         actions = {
-                @ActionAnnotation(name = Zip.ACTION_DECOMPRESS, mode = FeatureExtension.Mode.ASYNC)})
+                @ActionAnnotation(name = Zip.ACTION_DECOMPRESS, mode = FeatureExtension.Mode.ASYNC),
+                @ActionAnnotation(
+                        name = Zip.EVENT_ON_PROGRESS,
+                        mode = FeatureExtension.Mode.CALLBACK,
+                        type = FeatureExtension.Type.EVENT,
+                        alias = Zip.EVENT_ON_PROGRESS_ALIAS)})
 public class Zip extends FeatureExtension {
     protected static final String FEATURE_NAME = "system.zip";
     protected static final String ACTION_DECOMPRESS = "decompress";
+    protected static final String EVENT_ON_PROGRESS = "__onprogress";
+    protected static final String EVENT_ON_PROGRESS_ALIAS = "onprogress";
     private static final String TAG = "Zip";
     private static final String PARAMS_SRC_URI = "srcUri";
     private static final String PARAMS_DST_URI = "dstUri";
+    private static final String PARAMS_FILTERS = "filters";
+    private static final String RESULT_SRC_URI = "srcUri";
+    private static final String RESULT_LOADED = "loaded";
+    private static final String RESULT_TOTAL = "total";
+    private static final String RESULT_ENTRIES = "entries";
+    private static final String RESULT_TOTAL_ENTRIES = "totalEntries";
+
+    // 订阅了解压进度的请求, 为 null 时不回调进度
+    private volatile Request mProgressRequest;
 
     @Override
     protected Response invokeInner(Request request) throws Exception {
         String action = request.getAction();
         if (ACTION_DECOMPRESS.equals(action)) {
             doDecompress(request);
+        } else if (EVENT_ON_PROGRESS.equals(action)) {
+            mProgressRequest = request.getCallback().isValid() ? request : null;
         }
         return Response.SUCCESS;
     }
@@ -115,7 +138,13 @@ public class Zip extends FeatureExtension {
             return;
         }
 
-        boolean success = ZipUtils.unzip(srcFile, dstDir);
+        ParallelUnzipper unzipper = new ParallelUnzipper(srcFile, dstDir)
+                .setFilters(getFilters(params))
+                .setProgressListener(
+                        (extractedBytes, totalBytes, extractedEntries, totalEntries) ->
+                                notifyProgress(srcUri, extractedBytes, totalBytes,
+                                        extractedEntries, totalEntries));
+        boolean success = unzipper.unzip();
         if (!success) {
             reason = "decompress file failed";
             Log.w(TAG, reason);
@@ -125,6 +154,48 @@ public class Zip extends FeatureExtension {
         }
     }
 
+    private List<String> getFilters(SerializeObject params) {
+        SerializeArray filters = params.optSerializeArray(PARAMS_FILTERS);
+        if (filters == null) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(filters.length());
+        for (int i = 0; i < filters.length(); i++) {
+            String filter = filters.optString(i);
+            if (!TextUtils.isEmpty(filter)) {
+                result.add(filter);
+            }
+        }
+        return result;
+    }
+
+    private void notifyProgress(String srcUri, long extractedBytes, long totalBytes,
+                                int extractedEntries, int totalEntries) {
+        Request progressRequest = mProgressRequest;
+        if (progressRequest == null) {
+            return;
+        }
+        try {
+            JSONObject result = new JSONObject();
+            result.put(RESULT_SRC_URI, srcUri);
+            result.put(RESULT_LOADED, extractedBytes);
+            result.put(RESULT_TOTAL, totalBytes);
+            result.put(RESULT_ENTRIES, extractedEntries);
+            result.put(RESULT_TOTAL_ENTRIES, totalEntries);
+            progressRequest.getCallback().callback(new Response(result));
+        } catch (JSONException e) {
+            Log.e(TAG, "Fail to callback progress", e);
+        }
+    }
+
+    @Override
+    public void dispose(boolean force) {
+        super.dispose(force);
+        if (force) {
+            mProgressRequest = null;
+        }
+    }
+
     @Override
     public String getName() {
         return FEATURE_NAME;
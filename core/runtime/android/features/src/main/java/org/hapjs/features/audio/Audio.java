@@ -11,7 +11,9 @@ import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
+import android.os.SystemClock;
 import android.util.Log;
+import java.io.IOException;
 import org.hapjs.bridge.CallbackContext;
 import org.hapjs.bridge.CallbackContextHolder;
 import org.hapjs.bridge.CallbackHybridFeature;
@@ -36,6 +38,13 @@ import org.json.JSONObject;
                 @ActionAnnotation(name = Audio.METHOD_PAUSE, mode = FeatureExtension.Mode.ASYNC),
                 @ActionAnnotation(name = Audio.METHOD_STOP, mode = FeatureExtension.Mode.ASYNC),
                 @ActionAnnotation(name = Audio.METHOD_GET_PLAY_STATE, mode = FeatureExtension.Mode.ASYNC),
+                @ActionAnnotation(name = Audio.METHOD_PRELOAD_SOUND, mode = FeatureExtension.Mode.ASYNC),
+                @ActionAnnotation(name = Audio.METHOD_PLAY_SOUND, mode = FeatureExtension.Mode.ASYNC),
+                @ActionAnnotation(name = Audio.METHOD_STOP_SOUND, mode = FeatureExtension.Mode.SYNC),
+                @ActionAnnotation(name = Audio.METHOD_UNLOAD_SOUND, mode = FeatureExtension.Mode.SYNC),
+                @ActionAnnotation(
+                        name = Audio.METHOD_GET_SOUND_METRICS,
+                        mode = FeatureExtension.Mode.SYNC),
                 @ActionAnnotation(
                         name = Audio.ATTR_GET_SRC,
                         mode = FeatureExtension.Mode.SYNC,
@@ -268,6 +277,16 @@ public class Audio extends CallbackHybridFeature {
     protected static final String METHOD_PAUSE = "pause";
     protected static final String METHOD_STOP = "stop";
     protected static final String METHOD_GET_PLAY_STATE = "getPlayState";
+    protected static final String METHOD_PRELOAD_SOUND = "preloadSound";
+    protected static final String METHOD_PLAY_SOUND = "playSound";
+    protected static final String METHOD_STOP_SOUND = "stopSound";
+    protected static final String METHOD_UNLOAD_SOUND = "unloadSound";
+    protected static final String METHOD_GET_SOUND_METRICS = "getSoundMetrics";
+    // sound params
+    protected static final String PARAM_SRC = "src";
+    protected static final String PARAM_ID = "id";
+    protected static final String PARAM_VOLUME = "volume";
+    protected static final String PARAM_LOOP = "loop";
     // EVENT
     protected static final String EVENT_PLAY_ALIAS = "onplay";
     protected static final String EVENT_PLAY = "__onplay";
@@ -300,6 +319,8 @@ public class Audio extends CallbackHybridFeature {
     protected static final String RESULT_VOLUME = "volume";
     protected static final String RESULT_MUTED = "muted";
     protected static final String RESULT_NOTIFICATION_VISIBLE = "notificationVisible";
+    protected static final String RESULT_ID = "id";
+    protected static final String RESULT_DURATION = "duration";
     private static final String TAG = "Audio";
     private static final String DEFAULT_DURATION = "NaN";
     private static final int MSG_PLAY = 1;
@@ -309,6 +330,7 @@ public class Audio extends CallbackHybridFeature {
     private static final String ATTR_DEFAULE_PARAMS_KEY = "value";
     private Object mMediaPlayerLock = new Object();
     private AudioProxy mAudioProxy = null;
+    private SoundEffectEngine mSoundEngine;
     private Handler mHandler;
 
     public Audio() {
@@ -434,6 +456,23 @@ public class Audio extends CallbackHybridFeature {
                 getPlayState(request);
                 break;
             }
+            case METHOD_PRELOAD_SOUND: {
+                preloadSound(request);
+                break;
+            }
+            case METHOD_PLAY_SOUND: {
+                playSound(request);
+                break;
+            }
+            case METHOD_STOP_SOUND: {
+                return stopSound(request);
+            }
+            case METHOD_UNLOAD_SOUND: {
+                return unloadSound(request);
+            }
+            case METHOD_GET_SOUND_METRICS: {
+                return new Response(getSoundEngine(request).getMetrics());
+            }
             case EVENT_PLAY:
             case EVENT_PAUSE:
             case EVENT_STOP:
@@ -590,6 +629,10 @@ public class Audio extends CallbackHybridFeature {
             return;
         }
 
+        mAudioProxy.setSrc(resolveUri(request, src));
+    }
+
+    private Uri resolveUri(Request request, String src) {
         Uri uri = Uri.parse(src);
         if (uri.getScheme() == null) {
             uri =
@@ -601,7 +644,84 @@ public class Audio extends CallbackHybridFeature {
         } else {
             NetworkReportManager.getInstance().reportNetwork(getName(), uri.toString());
         }
-        mAudioProxy.setSrc(uri);
+        return uri;
+    }
+
+    private synchronized SoundEffectEngine getSoundEngine(Request request) {
+        if (mSoundEngine == null) {
+            mSoundEngine = new SoundEffectEngine(request.getApplicationContext().getContext());
+        }
+        return mSoundEngine;
+    }
+
+    private SoundEffectEngine.Sound loadSound(Request request) throws JSONException {
+        JSONObject params = request.getJSONParams();
+        String src = params == null ? null : params.optString(PARAM_SRC);
+        if (src == null || src.isEmpty()) {
+            request.getCallback()
+                    .callback(new Response(Response.CODE_ILLEGAL_ARGUMENT, "src is empty"));
+            return null;
+        }
+        Uri uri = resolveUri(request, src);
+        if (uri == null) {
+            request.getCallback()
+                    .callback(new Response(Response.CODE_ILLEGAL_ARGUMENT, "invalid src: " + src));
+            return null;
+        }
+        try {
+            return getSoundEngine(request).load(uri);
+        } catch (IOException e) {
+            Log.e(TAG, "fail to load sound: " + src, e);
+            request.getCallback().callback(getExceptionResponse(request, e));
+            return null;
+        }
+    }
+
+    private void preloadSound(Request request) throws JSONException {
+        SoundEffectEngine.Sound sound = loadSound(request);
+        if (sound == null) {
+            return;
+        }
+        JSONObject result = new JSONObject();
+        result.put(RESULT_DURATION, sound.getDuration() / 1000f);
+        request.getCallback().callback(new Response(result));
+    }
+
+    private void playSound(Request request) throws JSONException {
+        // 从收到请求开始计算启动耗时, 未预加载时包含解码时间
+        long requestTime = SystemClock.elapsedRealtime();
+        SoundEffectEngine.Sound sound = loadSound(request);
+        if (sound == null) {
+            return;
+        }
+        JSONObject params = request.getJSONParams();
+        float volume = (float) params.optDouble(PARAM_VOLUME, 1);
+        volume = Math.max(0, Math.min(volume, 1));
+        boolean loop = params.optBoolean(PARAM_LOOP, false);
+        int id = getSoundEngine(request).play(sound, volume, loop, requestTime);
+        JSONObject result = new JSONObject();
+        result.put(RESULT_ID, id);
+        request.getCallback().callback(new Response(result));
+    }
+
+    private Response stopSound(Request request) throws JSONException {
+        JSONObject params = request.getJSONParams();
+        SoundEffectEngine engine = getSoundEngine(request);
+        if (params == null || !params.has(PARAM_ID)) {
+            engine.stopAll();
+            return Response.SUCCESS;
+        }
+        return new Response(engine.stop(params.getInt(PARAM_ID)));
+    }
+
+    private Response unloadSound(Request request) throws JSONException {
+        JSONObject params = request.getJSONParams();
+        String src = params == null ? null : params.optString(PARAM_SRC);
+        if (src == null || src.isEmpty()) {
+            return new Response(Response.CODE_ILLEGAL_ARGUMENT, "src is empty");
+        }
+        Uri uri = resolveUri(request, src);
+        return new Response(uri != null && getSoundEngine(request).unload(uri));
     }
 
     private Response getTitle() {
@@ -718,6 +838,19 @@ public class Audio extends CallbackHybridFeature {
         return FEATURE_NAME;
     }
 
+    @Override
+    public void dispose(boolean force) {
+        super.dispose(force);
+        if (force) {
+            synchronized (this) {
+                if (mSoundEngine != null) {
+                    mSoundEngine.release();
+                    mSoundEngine = null;
+                }
+            }
+        }
+    }
+
     @Override
     public void onStopRunningInBackground() {
         handlePauseRequest();
@@ -0,0 +1,476 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features.audio;
+
+import android.content.Context;
+import android.media.AudioFormat;
+import android.media.AudioManager;
+import android.media.AudioTrack;
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hapjs.common.executors.Executors;
+import org.hapjs.features.BuildConfig;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * 短音效播放. 音效第一次使用时解码为 PCM 并缓存, 缓存按最近使用淘汰, 总大小不超过 {@link #MAX_CACHE_SIZE};
+ * 播放时直接把 PCM 写入 AudioTrack, 没有 MediaPlayer 的 prepare 开销. AudioTrack 在播放结束后放回池中复用,
+ * 最多同时播放 {@link #MAX_VOICES} 个音效, 超出时停止最早开始的一个.
+ */
+class SoundEffectEngine {
+    private static final String TAG = "SoundEffectEngine";
+
+    static final int MAX_VOICES = 8;
+    static final int MAX_CACHE_SIZE = 16 * 1024 * 1024;
+    // 解码后超过该大小的不作为音效处理, 约为 44.1kHz 立体声 12 秒
+    static final int MAX_SOUND_SIZE = 2 * 1024 * 1024;
+
+    private static final long CODEC_TIMEOUT_US = 10000;
+    // 解码的总时长上限, 编解码器异常时不会一直占用加载线程
+    private static final long DECODE_TIMEOUT = 5000;
+    // 等待缓冲区播放完的时长在音效时长之外的余量, 超时说明 track 已停止推进
+    private static final long DRAIN_TIMEOUT_MARGIN = 500;
+    private static final int BYTES_PER_SAMPLE = 2;
+
+    private final Context mContext;
+    private final LinkedHashMap<String, Sound> mSounds = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Object> mLoadingLocks = new HashMap<>();
+    private final List<Voice> mActiveVoices = new ArrayList<>();
+    private final List<AudioTrack> mIdleTracks = new ArrayList<>();
+    private int mCacheSize;
+    private int mNextVoiceId = 1;
+    private boolean mReleased;
+
+    private long mHitCount;
+    private long mMissCount;
+    private long mEvictionCount;
+    private long mPlayCount;
+    private long mStolenCount;
+    private long mTotalStartLatency;
+    private long mMaxStartLatency;
+
+    SoundEffectEngine(Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    /**
+     * 解码并缓存音效, 已缓存时直接返回. 在调用线程中解码.
+     */
+    Sound load(Uri uri) throws IOException {
+        String key = uri.toString();
+        Object lock;
+        synchronized (this) {
+            Sound sound = mSounds.get(key);
+            if (sound != null) {
+                mHitCount++;
+                return sound;
+            }
+            mMissCount++;
+            lock = mLoadingLocks.get(key);
+            if (lock == null) {
+                lock = new Object();
+                mLoadingLocks.put(key, lock);
+            }
+        }
+        // 同一个音效同时只解码一次, 其它调用等待解码结果
+        synchronized (lock) {
+            synchronized (this) {
+                Sound sound = mSounds.get(key);
+                if (sound != null) {
+                    return sound;
+                }
+            }
+            try {
+                Sound sound = decode(uri);
+                synchronized (this) {
+                    if (!mReleased) {
+                        mSounds.put(key, sound);
+                        mCacheSize += sound.mData.length;
+                        trimCache();
+                    }
+                }
+                return sound;
+            } finally {
+                synchronized (this) {
+                    mLoadingLocks.remove(key);
+                }
+            }
+        }
+    }
+
+    synchronized boolean unload(Uri uri) {
+        Sound sound = mSounds.remove(uri.toString());
+        if (sound == null) {
+            return false;
+        }
+        mCacheSize -= sound.mData.length;
+        return true;
+    }
+
+    /**
+     * 播放已解码的音效, 返回播放 id, 可用于 {@link #stop(int)}.
+     *
+     * @param requestTime 发起播放的时间, 用于统计从请求到开始输出的耗时, 包含解码时间
+     */
+    int play(Sound sound, float volume, boolean loop, long requestTime) {
+        Voice voice;
+        Voice stolen = null;
+        synchronized (this) {
+            if (mReleased) {
+                return -1;
+            }
+            if (mActiveVoices.size() >= MAX_VOICES) {
+                stolen = mActiveVoices.remove(0);
+                mStolenCount++;
+            }
+            voice = new Voice(mNextVoiceId++, sound, volume, loop, requestTime);
+            mActiveVoices.add(voice);
+            mPlayCount++;
+        }
+        if (stolen != null) {
+            stolen.stop();
+        }
+        Executors.io().execute(voice);
+        return voice.mId;
+    }
+
+    synchronized boolean stop(int id) {
+        for (Voice voice : mActiveVoices) {
+            if (voice.mId == id) {
+                voice.stop();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized void stopAll() {
+        for (Voice voice : mActiveVoices) {
+            voice.stop();
+        }
+    }
+
+    synchronized void release() {
+        mReleased = true;
+        stopAll();
+        mSounds.clear();
+        mCacheSize = 0;
+        for (AudioTrack track : mIdleTracks) {
+            track.release();
+        }
+        mIdleTracks.clear();
+    }
+
+    synchronized JSONObject getMetrics() throws JSONException {
+        JSONObject result = new JSONObject();
+        result.put("cacheSize", mCacheSize);
+        result.put("maxCacheSize", MAX_CACHE_SIZE);
+        result.put("cachedSounds", mSounds.size());
+        result.put("hits", mHitCount);
+        result.put("misses", mMissCount);
+        result.put("evictions", mEvictionCount);
+        result.put("plays", mPlayCount);
+        result.put("stolen", mStolenCount);
+        result.put("activeVoices", mActiveVoices.size());
+        result.put("idleTracks", mIdleTracks.size());
+        result.put("avgStartLatency", mPlayCount > 0 ? mTotalStartLatency / mPlayCount : 0);
+        result.put("maxStartLatency", mMaxStartLatency);
+        return result;
+    }
+
+    private void trimCache() {
+        Iterator<Map.Entry<String, Sound>> iterator = mSounds.entrySet().iterator();
+        // 至少保留刚加入的音效
+        while (mCacheSize > MAX_CACHE_SIZE && mSounds.size() > 1 && iterator.hasNext()) {
+            Sound sound = iterator.next().getValue();
+            iterator.remove();
+            mCacheSize -= sound.mData.length;
+            mEvictionCount++;
+        }
+    }
+
+    private synchronized AudioTrack obtainTrack(Sound sound) {
+        for (Iterator<AudioTrack> iterator = mIdleTracks.iterator(); iterator.hasNext(); ) {
+            AudioTrack track = iterator.next();
+            if (track.getSampleRate() == sound.mSampleRate
+                    && track.getChannelCount() == sound.mChannelCount) {
+                iterator.remove();
+                return track;
+            }
+        }
+        AudioTrack track = new AudioTrack(AudioManager.STREAM_MUSIC, sound.mSampleRate,
+                getChannelConfig(sound), AudioFormat.ENCODING_PCM_16BIT, getMinBufferSize(sound),
+                AudioTrack.MODE_STREAM);
+        if (track.getState() != AudioTrack.STATE_INITIALIZED) {
+            track.release();
+            return null;
+        }
+        return track;
+    }
+
+    private static int getChannelConfig(Sound sound) {
+        return sound.mChannelCount == 1
+                ? AudioFormat.CHANNEL_OUT_MONO : AudioFormat.CHANNEL_OUT_STEREO;
+    }
+
+    private static int getMinBufferSize(Sound sound) {
+        return AudioTrack.getMinBufferSize(
+                sound.mSampleRate, getChannelConfig(sound), AudioFormat.ENCODING_PCM_16BIT);
+    }
+
+    private synchronized void onVoiceFinished(Voice voice, AudioTrack track) {
+        mActiveVoices.remove(voice);
+        if (track == null) {
+            return;
+        }
+        // 池中的 track 数量与同时播放的音效数量一致即可
+        if (mReleased || mIdleTracks.size() >= MAX_VOICES) {
+            track.release();
+        } else {
+            mIdleTracks.add(track);
+        }
+    }
+
+    private synchronized void onVoiceStarted(long latency) {
+        mTotalStartLatency += latency;
+        mMaxStartLatency = Math.max(mMaxStartLatency, latency);
+    }
+
+    private Sound decode(Uri uri) throws IOException {
+        long start = SystemClock.elapsedRealtime();
+        MediaExtractor extractor = new MediaExtractor();
+        MediaCodec decoder = null;
+        try {
+            extractor.setDataSource(mContext, uri, null);
+            MediaFormat format = null;
+            for (int i = 0; i < extractor.getTrackCount(); i++) {
+                MediaFormat trackFormat = extractor.getTrackFormat(i);
+                String mime = trackFormat.getString(MediaFormat.KEY_MIME);
+                if (mime != null && mime.startsWith("audio/")) {
+                    extractor.selectTrack(i);
+                    format = trackFormat;
+                    break;
+                }
+            }
+            if (format == null) {
+                throw new IOException("no audio track: " + uri);
+            }
+            int sampleRate = format.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+            int channelCount = format.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+
+            decoder = MediaCodec.createDecoderByType(format.getString(MediaFormat.KEY_MIME));
+            decoder.configure(format, null, null, 0);
+            decoder.start();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[0];
+            MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+            boolean inputDone = false;
+            long deadline = start + DECODE_TIMEOUT;
+            while (true) {
+                if (SystemClock.elapsedRealtime() > deadline) {
+                    throw new IOException("decode timeout: " + uri);
+                }
+                if (!inputDone) {
+                    int inputIndex = decoder.dequeueInputBuffer(CODEC_TIMEOUT_US);
+                    if (inputIndex >= 0) {
+                        ByteBuffer inputBuffer = decoder.getInputBuffer(inputIndex);
+                        int size = extractor.readSampleData(inputBuffer, 0);
+                        if (size < 0) {
+                            decoder.queueInputBuffer(inputIndex, 0, 0, 0,
+                                    MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                            inputDone = true;
+                        } else {
+                            decoder.queueInputBuffer(inputIndex, 0, size,
+                                    extractor.getSampleTime(), 0);
+                            extractor.advance();
+                        }
+                    }
+                }
+                int outputIndex = decoder.dequeueOutputBuffer(info, CODEC_TIMEOUT_US);
+                if (outputIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    MediaFormat outputFormat = decoder.getOutputFormat();
+                    sampleRate = outputFormat.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+                    channelCount = outputFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+                } else if (outputIndex >= 0) {
+                    if (info.size > 0) {
+                        ByteBuffer outputBuffer = decoder.getOutputBuffer(outputIndex);
+                        outputBuffer.position(info.offset);
+                        if (chunk.length < info.size) {
+                            chunk = new byte[info.size];
+                        }
+                        outputBuffer.get(chunk, 0, info.size);
+                        out.write(chunk, 0, info.size);
+                    }
+                    decoder.releaseOutputBuffer(outputIndex, false);
+                    if (out.size() > MAX_SOUND_SIZE) {
+                        throw new IOException("sound is too long: " + uri);
+                    }
+                    if ((info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0) {
+                        break;
+                    }
+                }
+            }
+            if (channelCount < 1 || channelCount > 2) {
+                throw new IOException("unsupported channel count: " + channelCount);
+            }
+            Sound sound = new Sound(out.toByteArray(), sampleRate, channelCount);
+            if (BuildConfig.DEBUG) {
+                Log.d(TAG, "decode " + uri + ", size: " + sound.mData.length
+                        + ", cost: " + (SystemClock.elapsedRealtime() - start));
+            }
+            return sound;
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            throw new IOException("fail to decode " + uri, e);
+        } finally {
+            if (decoder != null) {
+                try {
+                    decoder.stop();
+                } catch (IllegalStateException e) {
+                    // 配置失败时未启动
+                }
+                decoder.release();
+            }
+            extractor.release();
+        }
+    }
+
+    static class Sound {
+        final byte[] mData;
+        final int mSampleRate;
+        final int mChannelCount;
+
+        Sound(byte[] data, int sampleRate, int channelCount) {
+            mData = data;
+            mSampleRate = sampleRate;
+            mChannelCount = channelCount;
+        }
+
+        long getDuration() {
+            return mData.length * 1000L / (mSampleRate * mChannelCount * BYTES_PER_SAMPLE);
+        }
+    }
+
+    /**
+     * 一次播放. 按最小缓冲区大小分块写入, 每块之间检查是否已停止; 停止时暂停并清空 track,
+     * 正在阻塞的写入随即返回, 被抢占或停止的音效立即静音并归还 track.
+     */
+    private class Voice implements Runnable {
+        private final int mId;
+        private final Sound mSound;
+        private final float mVolume;
+        private final boolean mLoop;
+        private final long mRequestTime;
+        private volatile boolean mStopped;
+        // 播放线程持有的 track, 只在 Voice 的锁内读写, 归还到池中之前置空
+        private AudioTrack mTrack;
+
+        Voice(int id, Sound sound, float volume, boolean loop, long requestTime) {
+            mId = id;
+            mSound = sound;
+            mVolume = volume;
+            mLoop = loop;
+            mRequestTime = requestTime;
+        }
+
+        void stop() {
+            mStopped = true;
+            synchronized (this) {
+                if (mTrack != null) {
+                    try {
+                        mTrack.pause();
+                        mTrack.flush();
+                    } catch (IllegalStateException e) {
+                        Log.w(TAG, "stop failed, voice: " + mId, e);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            AudioTrack track = null;
+            try {
+                track = obtainTrack(mSound);
+                if (track == null) {
+                    return;
+                }
+                synchronized (this) {
+                    if (mStopped) {
+                        return;
+                    }
+                    mTrack = track;
+                }
+                track.setVolume(mVolume);
+                int frameSize = mSound.mChannelCount * BYTES_PER_SAMPLE;
+                int totalFrames = mSound.mData.length / frameSize;
+                int chunkSize = Math.max(getMinBufferSize(mSound) / frameSize, 1) * frameSize;
+                int startPosition = track.getPlaybackHeadPosition();
+                track.play();
+                // 开始写入即开始输出, 不等第一次阻塞写入返回
+                onVoiceStarted(SystemClock.elapsedRealtime() - mRequestTime);
+                do {
+                    int offset = 0;
+                    while (!mStopped && offset < mSound.mData.length) {
+                        int written = track.write(mSound.mData, offset,
+                                Math.min(chunkSize, mSound.mData.length - offset));
+                        if (written < 0) {
+                            Log.w(TAG, "write failed: " + written);
+                            mStopped = true;
+                            break;
+                        }
+                        offset += written;
+                    }
+                } while (mLoop && !mStopped);
+                // 写入完成后等待缓冲区中的数据播放完, 再把 track 放回池中
+                long deadline = SystemClock.elapsedRealtime() + mSound.getDuration()
+                        + DRAIN_TIMEOUT_MARGIN;
+                while (!mStopped
+                        && track.getPlaybackHeadPosition() - startPosition < totalFrames) {
+                    if (SystemClock.elapsedRealtime() > deadline) {
+                        // 播放位置不再推进, track 状态不可信, 不再复用
+                        Log.w(TAG, "drain timeout, voice: " + mId);
+                        detachTrack();
+                        track.release();
+                        track = null;
+                        return;
+                    }
+                    SystemClock.sleep(5);
+                }
+                track.pause();
+                track.flush();
+            } catch (IllegalStateException e) {
+                Log.w(TAG, "play failed", e);
+                if (track != null) {
+                    detachTrack();
+                    track.release();
+                    track = null;
+                }
+            } finally {
+                detachTrack();
+                onVoiceFinished(this, track);
+            }
+        }
+
+        private synchronized void detachTrack() {
+            mTrack = null;
+        }
+    }
+}
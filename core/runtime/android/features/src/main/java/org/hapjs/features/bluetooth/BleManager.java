@@ -25,6 +25,8 @@ import org.hapjs.features.bluetooth.connect.BleDeviceConnectController;
 import org.hapjs.features.bluetooth.data.BleConst;
 import org.hapjs.features.bluetooth.data.ScanOperateResult;
 import org.hapjs.features.bluetooth.scan.BleScanner;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 public class BleManager {
 
@@ -139,6 +141,14 @@ public class BleManager {
         }
     }
 
+    /**
+     * 获取设备 GATT 操作队列的统计, 设备未连接过时返回 null.
+     */
+    public JSONObject getQueueMetrics(String address) throws JSONException {
+        BleConnector connector = BleDeviceConnectController.getInstance().findConnector(address);
+        return connector != null ? connector.getQueueMetrics() : null;
+    }
+
     public void setCharacteristicChangeCallback(final BleNotificationCallback callback) {
         BleDeviceConnectController.getInstance().setCharacteristicChangeCallback(callback);
     }
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features.bluetooth;
+
+import android.os.Handler;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hapjs.features.bluetooth.utils.BleAdParser;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * 把同一特征值的通知按时间窗口合并, 窗口结束时一次交给 {@link Listener}. 心率带等高频外设每秒可能产生上百个通知,
+ * 逐个回调会占满 js 线程. 只有设置了时间窗口的特征值才会被合并, 每个窗口最多保留最近的 {@link #MAX_BATCH_SIZE} 个通知.
+ */
+class BleNotificationBatcher {
+    static final int MAX_BATCH_SIZE = 256;
+
+    private final Handler mHandler;
+    private final Listener mListener;
+    private final Map<String, Batch> mBatches = new HashMap<>();
+
+    private long mNotificationCount;
+    private long mBatchCount;
+    private long mDroppedCount;
+    private int mMaxBatchSize;
+
+    BleNotificationBatcher(Handler handler, Listener listener) {
+        mHandler = handler;
+        mListener = listener;
+    }
+
+    /**
+     * interval 不大于 0 时取消合并, 已缓存的通知立即交出.
+     */
+    void setInterval(String address, String serviceUUID, String characteristicUUID,
+                     long interval) {
+        Batch removed = null;
+        synchronized (this) {
+            String service = normalize(serviceUUID);
+            String characteristic = normalize(characteristicUUID);
+            String key = getKey(address, service, characteristic);
+            Batch batch = mBatches.get(key);
+            if (interval > 0) {
+                if (batch == null) {
+                    batch = new Batch(address, service, characteristic);
+                    mBatches.put(key, batch);
+                }
+                batch.mInterval = interval;
+            } else if (batch != null) {
+                mBatches.remove(key);
+                mHandler.removeCallbacks(batch);
+                removed = batch;
+            }
+        }
+        if (removed != null) {
+            flush(removed);
+        }
+    }
+
+    /**
+     * 缓存一个通知, 该特征值没有设置时间窗口时返回 false, 由调用方直接回调.
+     */
+    boolean offer(String address, String serviceUUID, String characteristicUUID, byte[] data) {
+        synchronized (this) {
+            Batch batch = mBatches.get(
+                    getKey(address, normalize(serviceUUID), normalize(characteristicUUID)));
+            if (batch == null) {
+                return false;
+            }
+            mNotificationCount++;
+            if (batch.mValues.size() >= MAX_BATCH_SIZE) {
+                batch.mValues.remove(0);
+                batch.mDropped++;
+                mDroppedCount++;
+            }
+            batch.mValues.add(data);
+            if (!batch.mScheduled) {
+                batch.mScheduled = true;
+                mHandler.postDelayed(batch, batch.mInterval);
+            }
+            return true;
+        }
+    }
+
+    synchronized void clear() {
+        for (Batch batch : mBatches.values()) {
+            mHandler.removeCallbacks(batch);
+        }
+        mBatches.clear();
+    }
+
+    synchronized JSONObject getMetrics() throws JSONException {
+        JSONObject result = new JSONObject();
+        result.put("notifications", mNotificationCount);
+        result.put("batches", mBatchCount);
+        result.put("dropped", mDroppedCount);
+        result.put("maxBatchSize", mMaxBatchSize);
+        result.put("avgBatchSize",
+                mBatchCount > 0 ? (double) (mNotificationCount - mDroppedCount) / mBatchCount : 0);
+        return result;
+    }
+
+    private void flush(Batch batch) {
+        List<byte[]> values;
+        int dropped;
+        synchronized (this) {
+            batch.mScheduled = false;
+            if (batch.mValues.isEmpty()) {
+                return;
+            }
+            values = batch.mValues;
+            dropped = batch.mDropped;
+            batch.mValues = new ArrayList<>();
+            batch.mDropped = 0;
+            mBatchCount++;
+            mMaxBatchSize = Math.max(mMaxBatchSize, values.size());
+        }
+        mListener.onBatch(batch.mAddress, batch.mServiceUUID, batch.mCharacteristicUUID, values,
+                dropped);
+    }
+
+    private static String getKey(String address, String serviceUUID, String characteristicUUID) {
+        return address + '/' + serviceUUID + '/' + characteristicUUID;
+    }
+
+    // js 传入的可能是短 uuid 或小写, 统一转换为与通知中一致的形式
+    private static String normalize(String uuid) {
+        return BleAdParser.string2UUID(uuid).toString().toUpperCase();
+    }
+
+    interface Listener {
+        void onBatch(String address, String serviceUUID, String characteristicUUID,
+                     List<byte[]> values, int dropped);
+    }
+
+    private class Batch implements Runnable {
+        private final String mAddress;
+        private final String mServiceUUID;
+        private final String mCharacteristicUUID;
+        private long mInterval;
+        private List<byte[]> mValues = new ArrayList<>();
+        private int mDropped;
+        private boolean mScheduled;
+
+        Batch(String address, String serviceUUID, String characteristicUUID) {
+            mAddress = address;
+            mServiceUUID = serviceUUID;
+            mCharacteristicUUID = characteristicUUID;
+        }
+
+        @Override
+        public void run() {
+            flush(this);
+        }
+    }
+}
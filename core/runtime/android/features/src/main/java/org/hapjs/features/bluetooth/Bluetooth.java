@@ -104,6 +104,9 @@ import org.json.JSONObject;
                 @ActionAnnotation(
                         name = Bluetooth.ACTION_GET_CONNECTED_DEVICES,
                         mode = FeatureExtension.Mode.ASYNC),
+                @ActionAnnotation(
+                        name = Bluetooth.ACTION_GET_BLE_METRICS,
+                        mode = FeatureExtension.Mode.ASYNC),
                 @ActionAnnotation(
                         name = Bluetooth.EVENT_ON_DEVICE_FOUND,
                         mode = FeatureExtension.Mode.CALLBACK,
@@ -142,6 +145,7 @@ public class Bluetooth extends CallbackHybridFeature {
     protected static final String ACTION_WRITE_BLE_CHARACTERISTIC = "writeBLECharacteristicValue";
     protected static final String ACTION_NOTIFY_BLE_CHARACTERISTIC =
             "notifyBLECharacteristicValueChange";
+    protected static final String ACTION_GET_BLE_METRICS = "getBLEDeviceMetrics";
     protected static final String EVENT_ON_DEVICE_FOUND = "__ondevicefound";
     protected static final String EVENT_ON_DEVICE_FOUND_ALIAS = "ondevicefound";
     protected static final String EVENT_ON_CHARACTERISTIC_VALUE_CHANGE =
@@ -163,6 +167,7 @@ public class Bluetooth extends CallbackHybridFeature {
     protected static final String PARAM_DUPLICATE = "allowDuplicatesKey";
     protected static final String PARAM_NOTIFY_STATE = "state";
     protected static final String PARAM_TIMEOUT = "timeout";
+    protected static final String PARAM_BATCH_INTERVAL = "batchInterval";
     protected static final String RESULT_DEVICES = "devices";
     protected static final String RESULT_NAME = "name";
     protected static final String RESULT_DEVICE_ID = "deviceId";
@@ -175,6 +180,10 @@ public class Bluetooth extends CallbackHybridFeature {
     protected static final String RESULT_SERVICE_DATA = "serviceData";
     protected static final String RESULT_CONNECTED = "connected";
     protected static final String RESULT_VALUE = "value";
+    protected static final String RESULT_VALUES = "values";
+    protected static final String RESULT_DROPPED = "dropped";
+    protected static final String RESULT_QUEUE = "queue";
+    protected static final String RESULT_NOTIFICATION = "notification";
     protected static final String RESULT_SERVICES = "services";
     protected static final String RESULT_UUID = "uuid";
     protected static final String RESULT_IS_PRIMARY = "isPrimary";
@@ -194,6 +203,7 @@ public class Bluetooth extends CallbackHybridFeature {
     private static final int CODE_ON_CONNECTION_STATE_CHANGE = 3;
     private static final int REQUEST_CODE_BASE = getRequestBaseCode();
     private static final int REQUEST_ENABLE_BT = REQUEST_CODE_BASE + 1;
+    private static final long MAX_BATCH_INTERVAL = 1000;
 
     private volatile long mLastReportTime = 0;
     private volatile boolean mInit = false;
@@ -207,6 +217,7 @@ public class Bluetooth extends CallbackHybridFeature {
     private volatile HandlerThread mHandlerThread;
     private volatile Handler mHandler;
     private volatile boolean mReceivedBluetoothStatus = false;
+    private volatile BleNotificationBatcher mNotificationBatcher;
 
     @Override
     public String getName() {
@@ -298,6 +309,9 @@ public class Bluetooth extends CallbackHybridFeature {
             case ACTION_GET_BLE_CHARACTERISTICS:
                 getBLEDeviceCharacteristics(request);
                 break;
+            case ACTION_GET_BLE_METRICS:
+                getBLEDeviceMetrics(request);
+                break;
             case EVENT_ON_DEVICE_FOUND:
             case EVENT_ON_ADPTER_STATE_CHANGE:
             case EVENT_ON_CONNECTION_STATE_CHANGE:
@@ -318,6 +332,8 @@ public class Bluetooth extends CallbackHybridFeature {
                 mHandlerThread = new HandlerThread("bluetooth");
                 mHandlerThread.start();
                 mHandler = new WorkHandler(mHandlerThread.getLooper());
+                mNotificationBatcher = new BleNotificationBatcher(mHandler,
+                        this::onNotificationBatch);
                 manager.registerBluetoothBroadcast(
                         request.getNativeInterface().getActivity().getApplicationContext());
                 request
@@ -449,6 +465,11 @@ public class Bluetooth extends CallbackHybridFeature {
         mScannedDevice.clear();
         mPendingDevice.clear();
         mBatchDevice.clear();
+        BleNotificationBatcher batcher = mNotificationBatcher;
+        if (batcher != null) {
+            batcher.clear();
+            mNotificationBatcher = null;
+        }
     }
 
     private void getAdapterState(Request request) throws JSONException {
@@ -647,10 +668,65 @@ public class Bluetooth extends CallbackHybridFeature {
         String serviceUUID = params.getString(PARAM_SERVICE_UUID);
         String charaUUID = params.getString(PARAM_CHARACTERISTIC_UUID);
         boolean state = params.getBoolean(PARAM_NOTIFY_STATE);
+        long batchInterval = state
+                ? Math.min(params.optLong(PARAM_BATCH_INTERVAL, 0), MAX_BATCH_INTERVAL) : 0;
 
         BleManager.getInstance()
                 .setNotification(address, serviceUUID, charaUUID, state,
-                        getOperationCallback(request));
+                        new BleOperationCallback() {
+                            @Override
+                            public void onSuccess() {
+                                // 开启成功后再设置合并窗口, 此时 uuid 已经过校验
+                                BleNotificationBatcher batcher = mNotificationBatcher;
+                                if (batcher != null) {
+                                    batcher.setInterval(address, serviceUUID, charaUUID,
+                                            batchInterval);
+                                }
+                                onOperateSuccess(request);
+                            }
+
+                            @Override
+                            public void onFail(int code, String msg) {
+                                onOperateFail(request, code, msg);
+                            }
+                        });
+    }
+
+    private void getBLEDeviceMetrics(final Request request) throws JSONException {
+        String address = request.getJSONParams().getString(PARAM_DEVICE_ID);
+        JSONObject queue = BleManager.getInstance().getQueueMetrics(address);
+        if (queue == null) {
+            onOperateFail(request, BleConst.CODE_NO_DEVICE, BleConst.MSG_NO_DEVICE);
+            return;
+        }
+        JSONObject result = new JSONObject();
+        result.put(RESULT_QUEUE, queue);
+        BleNotificationBatcher batcher = mNotificationBatcher;
+        if (batcher != null) {
+            result.put(RESULT_NOTIFICATION, batcher.getMetrics());
+        }
+        request.getCallback().callback(new Response(result));
+    }
+
+    private void onNotificationBatch(String address, String serviceUUID,
+                                     String characteristicUUID, List<byte[]> values,
+                                     int dropped) {
+        JavaSerializeObject result = new JavaSerializeObject();
+        result.put(RESULT_DEVICE_ID, address);
+        result.put(RESULT_SERVICE_UUID, serviceUUID);
+        result.put(RESULT_CHARACTERISTIC_UUID, characteristicUUID);
+        // 兼容只读取 value 的调用方, value 为窗口内最后一个值
+        result.put(RESULT_VALUE, new ArrayBuffer(values.get(values.size() - 1)));
+        JavaSerializeArray array = new JavaSerializeArray();
+        for (byte[] value : values) {
+            array.put(new ArrayBuffer(value));
+        }
+        result.put(RESULT_VALUES, array);
+        if (dropped > 0) {
+            result.put(RESULT_DROPPED, dropped);
+        }
+        runCallbackContext(EVENT_ON_CHARACTERISTIC_VALUE_CHANGE,
+                CODE_ON_CHARACTERISTIC_VALUE_CHANGE, new Response(result));
     }
 
     private Response handleEventRequest(Request request) {
@@ -857,6 +933,11 @@ public class Bluetooth extends CallbackHybridFeature {
                                                 String serviceUUID,
                                                 String characteristicUUID,
                                                 byte[] data) {
+                                            BleNotificationBatcher batcher = mNotificationBatcher;
+                                            if (batcher != null && batcher.offer(address,
+                                                    serviceUUID, characteristicUUID, data)) {
+                                                return;
+                                            }
                                             JavaSerializeObject result = new JavaSerializeObject();
                                             result.put(RESULT_DEVICE_ID, address);
                                             result.put(RESULT_SERVICE_UUID,
@@ -29,6 +29,8 @@ import org.hapjs.features.bluetooth.callback.BleOperationCallback;
 import org.hapjs.features.bluetooth.data.BleConst;
 import org.hapjs.features.bluetooth.utils.BleAdParser;
 import org.hapjs.features.bluetooth.utils.PropertyUtils;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 public class BleConnector {
     private static final String TAG = "BleConnector";
@@ -42,6 +44,7 @@ public class BleConnector {
     private BluetoothDevice mDevice;
     private volatile BluetoothGatt mDeviceGatt;
     private List<BluetoothGattCallback> mOperateCallback = new LinkedList<>();
+    private final BleGattQueue mGattQueue = new BleGattQueue();
     private final BluetoothGattCallback mCoreCallback =
             new BluetoothGattCallback() {
                 @Override
@@ -57,6 +60,7 @@ public class BleConnector {
                         mConnectState = STATE_DISCONNECT;
                         close();
                         mServiceDiscovered = false;
+                        mGattQueue.clear(BleConst.CODE_NO_CONNECTION, BleConst.MSG_NO_CONNECTION);
                     }
                     List<BluetoothGattCallback> callbacks;
                     synchronized (BleConnector.this) {
@@ -87,6 +91,8 @@ public class BleConnector {
                         BluetoothGatt gatt, BluetoothGattCharacteristic characteristic,
                         int status) {
                     super.onCharacteristicRead(gatt, characteristic, status);
+                    mGattQueue.onResult(BleGattQueue.Operation.TYPE_READ,
+                            characteristic.getUuid(), status);
                     List<BluetoothGattCallback> callbacks;
                     synchronized (BleConnector.this) {
                         callbacks = new ArrayList<>(mOperateCallback);
@@ -101,6 +107,8 @@ public class BleConnector {
                         BluetoothGatt gatt, BluetoothGattCharacteristic characteristic,
                         int status) {
                     super.onCharacteristicWrite(gatt, characteristic, status);
+                    mGattQueue.onResult(BleGattQueue.Operation.TYPE_WRITE,
+                            characteristic.getUuid(), status);
                     List<BluetoothGattCallback> callbacks;
                     synchronized (BleConnector.this) {
                         callbacks = new ArrayList<>(mOperateCallback);
@@ -147,6 +155,8 @@ public class BleConnector {
                 public void onDescriptorWrite(
                         BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status) {
                     super.onDescriptorWrite(gatt, descriptor, status);
+                    mGattQueue.onResult(BleGattQueue.Operation.TYPE_WRITE_DESCRIPTOR,
+                            descriptor.getUuid(), status);
                     List<BluetoothGattCallback> callbacks;
                     synchronized (BleConnector.this) {
                         callbacks = new ArrayList<>(mOperateCallback);
@@ -292,10 +302,10 @@ public class BleConnector {
     public void writeCharacteristic(
             String serviceUUID,
             final String characteristicUUID,
-            byte[] value,
+            final byte[] value,
             final BleOperationCallback callback) {
-        BluetoothGatt gatt = mDeviceGatt;
-        BluetoothGattCharacteristic chara =
+        final BluetoothGatt gatt = mDeviceGatt;
+        final BluetoothGattCharacteristic chara =
                 handleFindCharacteristic(serviceUUID, characteristicUUID, gatt, callback);
         if (chara == null) {
             return;
@@ -304,39 +314,24 @@ public class BleConnector {
             callback.onFail(BleConst.CODE_PROPERTY_NOT_SUPPORT, BleConst.MSG_PROPERTY_NOT_SUPPORT);
             return;
         }
-        if (chara.setValue(value)) {
-            if (gatt.writeCharacteristic(chara)) {
-                addOperationCallback(
-                        new BluetoothGattCallback() {
-                            @Override
-                            public void onCharacteristicWrite(
-                                    BluetoothGatt gatt, BluetoothGattCharacteristic characteristic,
-                                    int status) {
-                                if (characteristic.getUuid()
-                                        .equals(BleAdParser.string2UUID(characteristicUUID))) {
-                                    BleConnector.this.removeOperationCallback(this);
-                                    if (status == BluetoothGatt.GATT_SUCCESS) {
-                                        callback.onSuccess();
-                                    } else {
-                                        callback.onFail(BleConst.CODE_SYSTEM_ERROR,
-                                                "write fail: status=" + status);
-                                    }
-                                }
-                            }
-                        });
-            } else {
-                callback.onFail(BleConst.CODE_SYSTEM_ERROR, "write fail: device is busy");
-            }
-        } else {
-            callback.onFail(BleConst.CODE_SYSTEM_ERROR,
-                    "requested value could not be stored locally");
-        }
+        mGattQueue.enqueue(
+                new BleGattQueue.Operation(
+                        BleGattQueue.Operation.TYPE_WRITE, chara.getUuid(), "write", callback) {
+                    @Override
+                    boolean execute() {
+                        // 同一特征值的多个写操作共用 chara, 需在发起时设置值
+                        if (!chara.setValue(value)) {
+                            return false;
+                        }
+                        return gatt.writeCharacteristic(chara);
+                    }
+                });
     }
 
     public void readCharacteristic(
             String serviceUUID, final String characteristicUUID,
             final BleOperationCallback callback) {
-        BluetoothGatt gatt = mDeviceGatt;
+        final BluetoothGatt gatt = mDeviceGatt;
         final BluetoothGattCharacteristic chara =
                 handleFindCharacteristic(serviceUUID, characteristicUUID, gatt, callback);
         if (chara == null) {
@@ -346,36 +341,27 @@ public class BleConnector {
             callback.onFail(BleConst.CODE_PROPERTY_NOT_SUPPORT, BleConst.MSG_PROPERTY_NOT_SUPPORT);
             return;
         }
-        if (gatt.readCharacteristic(chara)) {
-            addOperationCallback(
-                    new BluetoothGattCallback() {
-                        @Override
-                        public void onCharacteristicRead(
-                                BluetoothGatt gatt, BluetoothGattCharacteristic characteristic,
-                                int status) {
-                            if (characteristic.getUuid()
-                                    .equals(BleAdParser.string2UUID(characteristicUUID))) {
-                                BleConnector.this.removeOperationCallback(this);
-                                if (status == BluetoothGatt.GATT_SUCCESS) {
-                                    callback.onSuccess();
-                                    BleDeviceConnectController.getInstance()
-                                            .onCharacteristicChange(
-                                                    gatt.getDevice().getAddress(),
-                                                    characteristic.getService().getUuid().toString()
-                                                            .toUpperCase(),
-                                                    characteristic.getUuid().toString()
-                                                            .toUpperCase(),
-                                                    characteristic.getValue());
-                                } else {
-                                    callback.onFail(BleConst.CODE_SYSTEM_ERROR,
-                                            "read fail: status=" + status);
-                                }
-                            }
+        mGattQueue.enqueue(
+                new BleGattQueue.Operation(
+                        BleGattQueue.Operation.TYPE_READ, chara.getUuid(), "read", callback) {
+                    @Override
+                    boolean execute() {
+                        return gatt.readCharacteristic(chara);
+                    }
+
+                    @Override
+                    void onComplete(int status) {
+                        super.onComplete(status);
+                        if (status == BluetoothGatt.GATT_SUCCESS) {
+                            BleDeviceConnectController.getInstance()
+                                    .onCharacteristicChange(
+                                            gatt.getDevice().getAddress(),
+                                            chara.getService().getUuid().toString().toUpperCase(),
+                                            chara.getUuid().toString().toUpperCase(),
+                                            chara.getValue());
                         }
-                    });
-        } else {
-            callback.onFail(BleConst.CODE_SYSTEM_ERROR, "read fail: device is busy");
-        }
+                    }
+                });
     }
 
     public void setNotification(
@@ -383,7 +369,7 @@ public class BleConnector {
             final String characteristicUUID,
             final boolean enable,
             final BleOperationCallback callback) {
-        BluetoothGatt gatt = mDeviceGatt;
+        final BluetoothGatt gatt = mDeviceGatt;
         final BluetoothGattCharacteristic chara =
                 handleFindCharacteristic(serviceUUID, characteristicUUID, gatt, callback);
         if (chara == null) {
@@ -408,40 +394,31 @@ public class BleConnector {
             return;
         }
 
+        final byte[] descValue;
         if (PropertyUtils.canNotify(properties)) {
             // 支持通知
-            desc.setValue(
+            descValue =
                     enable
                             ? BluetoothGattDescriptor.ENABLE_NOTIFICATION_VALUE
-                            : BluetoothGattDescriptor.DISABLE_NOTIFICATION_VALUE);
+                            : BluetoothGattDescriptor.DISABLE_NOTIFICATION_VALUE;
         } else {
             // 支持指示
-            desc.setValue(
+            descValue =
                     enable
                             ? BluetoothGattDescriptor.ENABLE_INDICATION_VALUE
-                            : BluetoothGattDescriptor.DISABLE_NOTIFICATION_VALUE);
-        }
-        boolean success2 = gatt.writeDescriptor(desc);
-        if (!success2) {
-            callback.onFail(BleConst.CODE_SYSTEM_ERROR,
-                    "notify descriptor write fail: device is busy");
-            return;
+                            : BluetoothGattDescriptor.DISABLE_NOTIFICATION_VALUE;
         }
-        addOperationCallback(
-                new BluetoothGattCallback() {
+        mGattQueue.enqueue(
+                new BleGattQueue.Operation(
+                        BleGattQueue.Operation.TYPE_WRITE_DESCRIPTOR,
+                        desc.getUuid(),
+                        "notify descriptor write",
+                        callback) {
                     @Override
-                    public void onDescriptorWrite(
-                            BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status) {
-                        if (descriptor.getUuid().equals(desc.getUuid())) {
-                            if (status == BluetoothGatt.GATT_SUCCESS) {
-                                callback.onSuccess();
-                            } else {
-                                callback.onFail(
-                                        BleConst.CODE_SYSTEM_ERROR,
-                                        "notify descriptor write fail: status=" + status);
-                            }
-                            BleConnector.this.removeOperationCallback(this);
-                        }
+                    boolean execute() {
+                        // 与写特征值相同, 在发起时设置值
+                        desc.setValue(descValue);
+                        return gatt.writeDescriptor(desc);
                     }
                 });
     }
@@ -456,6 +433,11 @@ public class BleConnector {
     public void destroy() {
         disconnect();
         close();
+        mGattQueue.clear(BleConst.CODE_NO_CONNECTION, BleConst.MSG_NO_CONNECTION);
+    }
+
+    public JSONObject getQueueMetrics() throws JSONException {
+        return mGattQueue.getMetrics();
     }
 
     public BluetoothDevice getDevice() {
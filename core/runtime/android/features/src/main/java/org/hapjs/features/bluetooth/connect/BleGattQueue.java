@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features.bluetooth.connect;
+
+import android.bluetooth.BluetoothGatt;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.hapjs.features.bluetooth.callback.BleOperationCallback;
+import org.hapjs.features.bluetooth.data.BleConst;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * GATT 操作队列. 系统同一时刻只允许一个 GATT 读写操作, 并行发起的操作会直接失败, 因此所有操作在队列中逐个执行,
+ * 上一个操作完成后立即在回调线程发起下一个, 不需要等 js 再次调用. 系统繁忙时延迟重试,
+ * 超时未完成的操作以失败结束. GATT 回调不带请求标识, 超时的操作在系统中仍未结束, 因此超时后等待它的迟到回调
+ * 到达(最多再等一个超时时间)再发起下一个操作, 避免迟到的回调被当作下一个同类操作的结果.
+ */
+class BleGattQueue {
+    private static final String TAG = "BleGattQueue";
+
+    private static final int MAX_RETRY_COUNT = 3;
+    private static final long RETRY_DELAY = 30;
+    private static final long OPERATION_TIMEOUT = 5000;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final ArrayDeque<Operation> mOperations = new ArrayDeque<>();
+    private Operation mCurrent;
+    // 已超时但系统尚未回调的操作
+    private Operation mTimedOut;
+
+    private long mEnqueuedCount;
+    private long mCompletedCount;
+    private long mFailedCount;
+    private long mRetryCount;
+    private long mTimeoutCount;
+    private int mMaxDepth;
+    private long mTotalWaitTime;
+    private long mTotalExecuteTime;
+
+    synchronized void enqueue(Operation operation) {
+        operation.mEnqueueTime = SystemClock.elapsedRealtime();
+        mOperations.add(operation);
+        mEnqueuedCount++;
+        mMaxDepth = Math.max(mMaxDepth, mOperations.size());
+        if (mCurrent == null) {
+            next();
+        }
+    }
+
+    /**
+     * GATT 回调到达时调用, 与当前操作不匹配时忽略.
+     */
+    synchronized void onResult(int type, UUID uuid, int status) {
+        if (mTimedOut != null) {
+            if (mTimedOut.mType == type && mTimedOut.mUuid.equals(uuid)) {
+                Log.w(TAG, mTimedOut.mName + " late result ignored: " + uuid + ", status=" + status);
+                mHandler.removeCallbacksAndMessages(null);
+                mTimedOut = null;
+                next();
+            }
+            return;
+        }
+        Operation operation = mCurrent;
+        if (operation == null || operation.mType != type || !operation.mUuid.equals(uuid)) {
+            return;
+        }
+        finish(operation, status == BluetoothGatt.GATT_SUCCESS);
+        operation.onComplete(status);
+        next();
+    }
+
+    /**
+     * 以失败结束当前和等待中的所有操作, 用于连接断开时.
+     */
+    void clear(int code, String msg) {
+        List<Operation> operations;
+        synchronized (this) {
+            mHandler.removeCallbacksAndMessages(null);
+            mTimedOut = null;
+            operations = new ArrayList<>(mOperations.size() + 1);
+            if (mCurrent != null) {
+                operations.add(mCurrent);
+                mCurrent = null;
+            }
+            operations.addAll(mOperations);
+            mOperations.clear();
+            mFailedCount += operations.size();
+        }
+        for (Operation operation : operations) {
+            operation.mCallback.onFail(code, msg);
+        }
+    }
+
+    synchronized JSONObject getMetrics() throws JSONException {
+        JSONObject result = new JSONObject();
+        long finished = mCompletedCount + mFailedCount;
+        result.put("pending", mOperations.size() + (mCurrent != null ? 1 : 0));
+        result.put("enqueued", mEnqueuedCount);
+        result.put("completed", mCompletedCount);
+        result.put("failed", mFailedCount);
+        result.put("retries", mRetryCount);
+        result.put("timeouts", mTimeoutCount);
+        result.put("maxDepth", mMaxDepth);
+        result.put("avgWaitTime", finished > 0 ? mTotalWaitTime / finished : 0);
+        result.put("avgExecuteTime", finished > 0 ? mTotalExecuteTime / finished : 0);
+        return result;
+    }
+
+    private void next() {
+        while (mCurrent == null && mTimedOut == null && !mOperations.isEmpty()) {
+            Operation operation = mOperations.poll();
+            mCurrent = operation;
+            operation.mStartTime = SystemClock.elapsedRealtime();
+            mTotalWaitTime += operation.mStartTime - operation.mEnqueueTime;
+            execute(operation);
+        }
+    }
+
+    private void execute(Operation operation) {
+        boolean started;
+        try {
+            started = operation.execute();
+        } catch (RuntimeException e) {
+            Log.w(TAG, "execute failed", e);
+            started = false;
+        }
+        if (started) {
+            mHandler.postDelayed(() -> onTimeout(operation), OPERATION_TIMEOUT);
+        } else if (operation.mAttempts < MAX_RETRY_COUNT) {
+            // 系统繁忙, 稍后重试, 期间不发起其它操作
+            operation.mAttempts++;
+            mRetryCount++;
+            mHandler.postDelayed(() -> retry(operation), RETRY_DELAY * operation.mAttempts);
+        } else {
+            finish(operation, false);
+            operation.mCallback.onFail(BleConst.CODE_SYSTEM_ERROR,
+                    operation.mName + " fail: device is busy");
+        }
+    }
+
+    private synchronized void retry(Operation operation) {
+        if (mCurrent == operation) {
+            execute(operation);
+            next();
+        }
+    }
+
+    private synchronized void onTimeout(Operation operation) {
+        if (mCurrent == operation) {
+            Log.w(TAG, operation.mName + " timeout: " + operation.mUuid);
+            mTimeoutCount++;
+            finish(operation, false);
+            operation.mCallback.onFail(BleConst.CODE_SYSTEM_ERROR, operation.mName + " timeout");
+            mTimedOut = operation;
+            mHandler.postDelayed(() -> onLateResultTimeout(operation), OPERATION_TIMEOUT);
+        }
+    }
+
+    private synchronized void onLateResultTimeout(Operation operation) {
+        if (mTimedOut == operation) {
+            Log.w(TAG, operation.mName + " no late result: " + operation.mUuid);
+            mTimedOut = null;
+            next();
+        }
+    }
+
+    private void finish(Operation operation, boolean success) {
+        mHandler.removeCallbacksAndMessages(null);
+        mCurrent = null;
+        mTotalExecuteTime += SystemClock.elapsedRealtime() - operation.mStartTime;
+        if (success) {
+            mCompletedCount++;
+        } else {
+            mFailedCount++;
+        }
+    }
+
+    abstract static class Operation {
+        static final int TYPE_READ = 0;
+        static final int TYPE_WRITE = 1;
+        static final int TYPE_WRITE_DESCRIPTOR = 2;
+
+        final int mType;
+        final UUID mUuid;
+        final String mName;
+        final BleOperationCallback mCallback;
+        int mAttempts;
+        long mEnqueueTime;
+        long mStartTime;
+
+        Operation(int type, UUID uuid, String name, BleOperationCallback callback) {
+            mType = type;
+            mUuid = uuid;
+            mName = name;
+            mCallback = callback;
+        }
+
+        /**
+         * 发起操作, 系统繁忙时返回 false.
+         */
+        abstract boolean execute();
+
+        void onComplete(int status) {
+            if (status == BluetoothGatt.GATT_SUCCESS) {
+                mCallback.onSuccess();
+            } else {
+                mCallback.onFail(BleConst.CODE_SYSTEM_ERROR, mName + " fail: status=" + status);
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features.geolocation;
+
+import android.location.Location;
+import android.os.Handler;
+import android.os.Looper;
+import java.util.ArrayList;
+import java.util.List;
+import org.hapjs.common.location.HapLocation;
+
+/**
+ * 批量定位. 定位结果先缓存在本地, 最早的结果缓存超过 maxLatency 后一次交给 {@link Listener}, 避免每个结果都唤醒 js
+ * 线程; 与上一个交出的位置距离小于 distanceFilter 的结果被丢弃. 同时根据相邻结果估算移动速度, 速度所在的档位变化时
+ * 通知调用方调整定位间隔和精度: 静止时降低频率并只用网络定位, 移动越快间隔越短.
+ */
+public class LocationBatcher {
+    public static final int MAX_BATCH_SIZE = 100;
+
+    // 静止, 步行, 更快
+    private static final float[] SPEED_THRESHOLDS = {0.5f, 2.5f};
+    private static final long[] TIER_INTERVALS = {15000, 3000, 1000};
+    private static final boolean[] TIER_HIGH_ACCURACY = {false, true, true};
+    // 速度估计连续落在新档位的次数达到该值才切换, 避免在阈值附近来回切换
+    private static final int TIER_SWITCH_COUNT = 2;
+    private static final float SPEED_SMOOTHING = 0.5f;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final long mMaxLatency;
+    private final float mDistanceFilter;
+    private final boolean mAdaptive;
+    private final Listener mListener;
+    private final Runnable mFlushRunnable = this::flush;
+
+    private List<HapLocation> mLocations = new ArrayList<>();
+    private HapLocation mLastReceived;
+    private HapLocation mLastAccepted;
+    private float mSpeed = -1;
+    private int mTier = TIER_INTERVALS.length - 1;
+    private int mCandidateTier = -1;
+    private int mCandidateCount;
+
+    private long mReceivedCount;
+    private long mDeliveredCount;
+    private long mSuppressedCount;
+    private long mBatchCount;
+
+    public LocationBatcher(long maxLatency, float distanceFilter, boolean adaptive,
+                           Listener listener) {
+        mMaxLatency = maxLatency;
+        mDistanceFilter = distanceFilter;
+        mAdaptive = adaptive;
+        mListener = listener;
+    }
+
+    /**
+     * 当前档位的定位间隔, 开始定位时使用.
+     */
+    public long getInterval() {
+        return TIER_INTERVALS[mTier];
+    }
+
+    public boolean isHighAccuracy() {
+        return TIER_HIGH_ACCURACY[mTier];
+    }
+
+    public void offer(HapLocation location) {
+        int tier;
+        boolean flushNow;
+        synchronized (this) {
+            mReceivedCount++;
+            tier = updateSpeed(location);
+            mLastReceived = location;
+            if (mLastAccepted != null && mDistanceFilter > 0
+                    && distanceBetween(mLastAccepted, location) < mDistanceFilter) {
+                mSuppressedCount++;
+                flushNow = false;
+            } else {
+                mLastAccepted = location;
+                mLocations.add(location);
+                // 第一个结果立即交出, 之后按 maxLatency 合并
+                flushNow = mBatchCount == 0 || mLocations.size() >= MAX_BATCH_SIZE;
+                if (!flushNow && mLocations.size() == 1) {
+                    mHandler.postDelayed(mFlushRunnable, mMaxLatency);
+                }
+            }
+        }
+        if (tier >= 0) {
+            mListener.onUpdateOptionsChanged(TIER_INTERVALS[tier], TIER_HIGH_ACCURACY[tier]);
+        }
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        List<HapLocation> locations;
+        synchronized (this) {
+            mHandler.removeCallbacks(mFlushRunnable);
+            if (mLocations.isEmpty()) {
+                return;
+            }
+            locations = mLocations;
+            mLocations = new ArrayList<>();
+            mDeliveredCount += locations.size();
+            mBatchCount++;
+        }
+        mListener.onBatch(locations);
+    }
+
+    public synchronized void clear() {
+        mHandler.removeCallbacks(mFlushRunnable);
+        mLocations.clear();
+    }
+
+    public synchronized long getReceivedCount() {
+        return mReceivedCount;
+    }
+
+    public synchronized long getDeliveredCount() {
+        return mDeliveredCount;
+    }
+
+    public synchronized long getSuppressedCount() {
+        return mSuppressedCount;
+    }
+
+    public synchronized long getBatchCount() {
+        return mBatchCount;
+    }
+
+    /**
+     * 更新速度估计, 档位需要切换时返回新档位, 否则返回 -1.
+     */
+    private int updateSpeed(HapLocation location) {
+        if (!mAdaptive || mLastReceived == null) {
+            return -1;
+        }
+        long timeDelta = location.getTime() - mLastReceived.getTime();
+        if (timeDelta <= 0) {
+            return -1;
+        }
+        float speed = distanceBetween(mLastReceived, location) * 1000f / timeDelta;
+        mSpeed = mSpeed < 0 ? speed : mSpeed + SPEED_SMOOTHING * (speed - mSpeed);
+
+        int tier = 0;
+        while (tier < SPEED_THRESHOLDS.length && mSpeed >= SPEED_THRESHOLDS[tier]) {
+            tier++;
+        }
+        if (tier == mTier) {
+            mCandidateTier = -1;
+            return -1;
+        }
+        if (tier != mCandidateTier) {
+            mCandidateTier = tier;
+            mCandidateCount = 0;
+        }
+        // 开始移动时立即提高精度, 停下来时确认多次再降低
+        if (tier > mTier || ++mCandidateCount >= TIER_SWITCH_COUNT) {
+            mTier = tier;
+            mCandidateTier = -1;
+            return tier;
+        }
+        return -1;
+    }
+
+    private static float distanceBetween(HapLocation from, HapLocation to) {
+        float[] results = new float[1];
+        Location.distanceBetween(from.getLatitude(), from.getLongitude(), to.getLatitude(),
+                to.getLongitude(), results);
+        return results[0];
+    }
+
+    public interface Listener {
+        /**
+         * 在主线程或定位回调线程中调用.
+         */
+        void onBatch(List<HapLocation> locations);
+
+        void onUpdateOptionsChanged(long interval, boolean highAccuracy);
+    }
+}
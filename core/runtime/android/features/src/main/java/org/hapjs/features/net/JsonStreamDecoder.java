@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features.net;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 从字符流中增量解析 json，直接生成 Map/List 结构，供 JavaSerializeObject 转换为 V8 对象，
+ * 避免同时持有完整的响应字符串和 JSONObject 树.
+ *
+ * <p>数值类型与 org.json 保持一致: 依次尝试 Integer, Long, Double; 对象保持字段的原始顺序.
+ */
+public class JsonStreamDecoder {
+
+    private JsonStreamDecoder() {
+    }
+
+    public static Map<String, Object> decodeObject(Reader in) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        try {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new IOException("Fail to Parsing Data to Json!");
+            }
+            return readObject(reader);
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Fail to Parsing Data to Json!", e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 深拷贝解析结果, 合并的请求和缓存命中的请求各自持有一份, 互不影响.
+     */
+    public static Map<String, Object> copyObject(Map<String, Object> map) {
+        Map<String, Object> copy = new LinkedHashMap<>(map.size());
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            copy.put(entry.getKey(), copyValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copyValue(Object value) {
+        if (value instanceof Map) {
+            return copyObject((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(copyValue(item));
+            }
+            return copy;
+        }
+        // 字符串, 数值, 布尔值不可变
+        return value;
+    }
+
+    private static Map<String, Object> readObject(JsonReader reader) throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            map.put(name, readValue(reader));
+        }
+        reader.endObject();
+        return map;
+    }
+
+    private static List<Object> readArray(JsonReader reader) throws IOException {
+        List<Object> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            list.add(readValue(reader));
+        }
+        reader.endArray();
+        return list;
+    }
+
+    private static Object readValue(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                return readObject(reader);
+            case BEGIN_ARRAY:
+                return readArray(reader);
+            case STRING:
+                return reader.nextString();
+            case NUMBER:
+                return readNumber(reader.nextString());
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NULL:
+                reader.nextNull();
+                return null;
+            default:
+                throw new IOException("Unexpected json token: " + reader.peek());
+        }
+    }
+
+    private static Object readNumber(String number) {
+        if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+            try {
+                long value = Long.parseLong(number);
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    return (int) value;
+                }
+                return value;
+            } catch (NumberFormatException e) {
+                // fall through to double
+            }
+        }
+        return Double.parseDouble(number);
+    }
+}
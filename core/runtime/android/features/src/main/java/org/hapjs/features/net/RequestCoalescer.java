@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features.net;
+
+import android.text.TextUtils;
+import android.util.Log;
+import android.util.LruCache;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import okhttp3.CacheControl;
+import okhttp3.Headers;
+import org.hapjs.bridge.Request;
+
+/**
+ * 合并并发的相同幂等请求(method + url + header 相同)，只发起一次网络请求并将结果分发给所有回调;
+ * 同时在内存中缓存 text/json 类型的响应，缓存时间遵循响应头中的 Cache-Control.
+ */
+public class RequestCoalescer {
+    private static final String TAG = "RequestCoalescer";
+
+    private static final int MAX_CACHE_SIZE = 1024 * 1024;
+    private static final int MAX_ENTRY_SIZE = MAX_CACHE_SIZE / 4;
+    private static final String HEADER_AGE = "Age";
+    private static final String HEADER_VARY = "Vary";
+    private static final String HEADER_SET_COOKIE = "Set-Cookie";
+
+    private final Map<String, List<Request>> mInFlights = new HashMap<>();
+    private final LruCache<String, Entry> mCache =
+            new LruCache<String, Entry>(MAX_CACHE_SIZE) {
+                @Override
+                protected int sizeOf(String key, Entry value) {
+                    return value.mSize;
+                }
+            };
+
+    public static boolean isCoalescible(String method, String responseType) {
+        return ("GET".equals(method) || "HEAD".equals(method))
+                && ("text".equalsIgnoreCase(responseType)
+                || "json".equalsIgnoreCase(responseType));
+    }
+
+    public static String getKey(String pkg, okhttp3.Request request, String responseType) {
+        Headers headers = request.headers();
+        List<String> headerLines = new ArrayList<>(headers.size());
+        for (int i = 0; i < headers.size(); ++i) {
+            headerLines.add(headers.name(i).toLowerCase(Locale.ROOT) + ':' + headers.value(i));
+        }
+        Collections.sort(headerLines);
+        StringBuilder key = new StringBuilder()
+                .append(pkg).append('\n')
+                .append(responseType.toLowerCase(Locale.ROOT)).append('\n')
+                .append(request.method()).append(' ').append(request.url());
+        for (String line : headerLines) {
+            key.append('\n').append(line);
+        }
+        return key.toString();
+    }
+
+    /**
+     * 登记一个请求.
+     *
+     * @return true 表示当前没有相同的请求在进行中，调用者需要发起网络请求; false 表示已合并到进行中的请求
+     */
+    public boolean enqueue(String key, Request request) {
+        synchronized (mInFlights) {
+            List<Request> followers = mInFlights.get(key);
+            if (followers != null) {
+                followers.add(request);
+                return false;
+            }
+            mInFlights.put(key, new ArrayList<Request>());
+            return true;
+        }
+    }
+
+    /**
+     * 结束进行中的请求.
+     *
+     * @return 合并到该请求上、需要一并回调的请求
+     */
+    public List<Request> finish(String key) {
+        synchronized (mInFlights) {
+            List<Request> followers = mInFlights.remove(key);
+            return followers == null ? new ArrayList<Request>() : followers;
+        }
+    }
+
+    public Entry getCachedEntry(String key, okhttp3.Request request) {
+        CacheControl cacheControl = request.cacheControl();
+        if (cacheControl.noCache() || cacheControl.noStore()) {
+            return null;
+        }
+        Entry entry = mCache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.mExpiresAt <= System.currentTimeMillis()) {
+            mCache.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 根据响应创建结果，响应允许缓存时同时放入内存缓存.
+     *
+     * @param data 已解析的数据, String 或 json 解析得到的 Map
+     * @param size 数据的近似字节数
+     * @param cacheable 为 false 时不放入缓存
+     */
+    public Entry newEntry(String key, okhttp3.Response response, Object data, int size,
+                          boolean cacheable) {
+        Entry entry = new Entry(response.code(), response.headers(), data, size,
+                getExpiresAt(response));
+        if (cacheable && entry.mExpiresAt > 0 && size <= MAX_ENTRY_SIZE) {
+            mCache.put(key, entry);
+        }
+        return entry;
+    }
+
+    public void clear() {
+        synchronized (mInFlights) {
+            mInFlights.clear();
+        }
+        mCache.evictAll();
+    }
+
+    private static long getExpiresAt(okhttp3.Response response) {
+        if (response.code() != 200
+                || response.request().cacheControl().noStore()
+                || !TextUtils.isEmpty(response.header(HEADER_SET_COOKIE))
+                || "*".equals(response.header(HEADER_VARY))) {
+            return 0;
+        }
+        CacheControl cacheControl = response.cacheControl();
+        if (cacheControl.noStore() || cacheControl.noCache() || cacheControl.maxAgeSeconds() <= 0) {
+            return 0;
+        }
+        long maxAgeSeconds = cacheControl.maxAgeSeconds();
+        String age = response.header(HEADER_AGE);
+        if (!TextUtils.isEmpty(age)) {
+            try {
+                maxAgeSeconds -= Long.parseLong(age.trim());
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "invalid age header: " + age);
+            }
+        }
+        long expiresAt = response.receivedResponseAtMillis() + maxAgeSeconds * 1000;
+        return expiresAt > System.currentTimeMillis() ? expiresAt : 0;
+    }
+
+    public static class Entry {
+        private final int mCode;
+        private final Headers mHeaders;
+        private final Object mData;
+        private final int mSize;
+        private final long mExpiresAt;
+
+        Entry(int code, Headers headers, Object data, int size, long expiresAt) {
+            mCode = code;
+            mHeaders = headers;
+            mData = data;
+            mSize = size;
+            mExpiresAt = expiresAt;
+        }
+
+        public int getCode() {
+            return mCode;
+        }
+
+        public Headers getHeaders() {
+            return mHeaders;
+        }
+
+        public Object getData() {
+            return mData;
+        }
+    }
+}
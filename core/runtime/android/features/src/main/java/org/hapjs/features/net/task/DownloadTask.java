@@ -49,6 +49,8 @@ public class DownloadTask extends FeatureExtension {
     public static final String PARAMS_KEY_HEADER = "header";
     public static final String PARAMS_KEY_FILE_PATH = "filePath";
     public static final String PARAMS_KEY_TIMEOUT = "timeout";
+    public static final String PARAMS_KEY_RESUMABLE = "resumable";
+    public static final String PARAMS_KEY_CONNECTIONS = "connections";
 
     @Override
     public String getName() {
@@ -90,8 +92,11 @@ public class DownloadTask extends FeatureExtension {
         Headers headers = RequestHelper.getHeaders(jsonHeader);
         String filePath = params.optString(PARAMS_KEY_FILE_PATH);
         long timeoutMillis = params.optLong(PARAMS_KEY_TIMEOUT, 0L);
+        boolean resumable = params.optBoolean(PARAMS_KEY_RESUMABLE, false);
+        int connections = params.optInt(PARAMS_KEY_CONNECTIONS, 1);
 
-        DownloadTaskImpl task = new DownloadTaskImpl(pkg, url, headers, filePath, timeoutMillis);
+        DownloadTaskImpl task = new DownloadTaskImpl(pkg, url, headers, filePath, timeoutMillis,
+                resumable, connections);
         task.subscribe(request);
         Executors.io().execute(new Runnable() {
             @Override
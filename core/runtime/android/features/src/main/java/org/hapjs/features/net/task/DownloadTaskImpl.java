@@ -17,6 +17,7 @@ import org.hapjs.bridge.Response;
 import org.hapjs.bridge.storage.file.InternalUriUtils;
 import org.hapjs.bridge.storage.file.Resource;
 import org.hapjs.common.net.HttpConfig;
+import org.hapjs.common.utils.DigestUtils;
 import org.hapjs.common.utils.FileHelper;
 import org.hapjs.common.utils.FileUtils;
 import org.hapjs.features.net.CallbackWrapper;
@@ -60,6 +61,8 @@ public class DownloadTaskImpl implements InstanceManager.IInstance {
     private static final String RESULT_KEY_FILE_PATH = "filePath";
     private static final String RESULT_KEY_RESP_HEADER = "header";
 
+    private static final String PART_FILE_SUFFIX = ".part";
+
     protected static long DEFAULT_TIMEOUT_MILLIS = 10 * 1000;
 
     protected String mPackage;
@@ -72,8 +75,20 @@ public class DownloadTaskImpl implements InstanceManager.IInstance {
     private long mTimeoutMillis = DEFAULT_TIMEOUT_MILLIS;
     protected Map<String, ArrayList<CallbackWrapper>> mCallbackMap = new ConcurrentHashMap<>();
     protected String mFilePath;
+    private final boolean mResumable;
+    private final int mConnections;
+    private volatile RangeDownloader mRangeDownloader;
 
     public DownloadTaskImpl(String pkg, String url, Headers headers, String filePath, Long timeout) {
+        this(pkg, url, headers, filePath, timeout, false, 1);
+    }
+
+    /**
+     * @param resumable 是否支持断点续传，开启后下载进度会持久化，中断后再次下载时从断点继续
+     * @param connections 服务端支持 Range 时的并行连接数，仅在 resumable 为 true 时有效
+     */
+    public DownloadTaskImpl(String pkg, String url, Headers headers, String filePath, Long timeout,
+                            boolean resumable, int connections) {
         this.mPackage = pkg;
         this.mUrl = url;
         this.mHeaders = headers;
@@ -81,11 +96,14 @@ public class DownloadTaskImpl implements InstanceManager.IInstance {
         if (timeout > 0) {
             this.mTimeoutMillis = timeout;
         }
+        this.mResumable = resumable;
+        this.mConnections = connections;
     }
 
     @Override
     public void release() {
         mCall = null;
+        mRangeDownloader = null;
         mFile = null;
         mDownloadRequest = null;
     }
@@ -132,7 +150,11 @@ public class DownloadTaskImpl implements InstanceManager.IInstance {
             e.printStackTrace();
         }
         HttpConfig.get().onConfigChange(NetworkConfig.parse(networkConfig));
-        mCall = HttpConfig.get().getOkHttpClient().newCall(request);
+        if (mResumable) {
+            runRangeDownload();
+            return;
+        }
+        mCall = HttpConfig.get().getOkHttpClient(mPackage).newCall(request);
         mCall.enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
@@ -165,6 +187,56 @@ public class DownloadTaskImpl implements InstanceManager.IInstance {
         });
     }
 
+    private void runRangeDownload() {
+        File partFile = TextUtils.isEmpty(mFilePath) || mFile == null
+                ? new File(getCacheDir(), DigestUtils.getMd5(mUrl.getBytes()) + PART_FILE_SUFFIX)
+                : new File(mFile.getPath() + PART_FILE_SUFFIX);
+        RangeDownloader downloader = new RangeDownloader(HttpConfig.get().getOkHttpClient(mPackage),
+                mUrl, mHeaders, partFile, mConnections, new RangeDownloader.Listener() {
+                    @Override
+                    public void onHeadersReceived(Headers headers) {
+                        DownloadTaskImpl.this.onHeadersReceived(headers);
+                    }
+
+                    @Override
+                    public void onProgressUpdate(long receivedSize, long totalSize) {
+                        DownloadTaskImpl.this.onProgressUpdate(receivedSize, totalSize);
+                    }
+                });
+        mRangeDownloader = downloader;
+        try {
+            if (!downloader.download()) {
+                onComplete(downloader.getCode(), downloader.getMessage(), null);
+                return;
+            }
+            File file = mFile;
+            if (file == null) {
+                String fileName = URLUtil.guessFileName(mUrl,
+                        mRespHeaders == null ? null : mRespHeaders.get(RequestHelper.CONTENT_DISPOSITION),
+                        null);
+                file = FileHelper.generateAvailableFile(fileName, getCacheDir());
+            }
+            if (file == null) {
+                throw new IOException("save file error");
+            }
+            if (file.exists()) {
+                file.delete();
+            }
+            if (!partFile.renameTo(file)
+                    && !(FileUtils.copyFile(partFile, file) && partFile.delete())) {
+                throw new IOException("save file error");
+            }
+            onComplete(downloader.getCode(), "", file);
+        } catch (IOException e) {
+            if (downloader.isCanceled()) {
+                // abort() 已经回调 onAbort
+                Log.i(TAG, "range download canceled");
+                return;
+            }
+            Log.e(TAG, "range download failed: ", e);
+            onError(Response.CODE_IO_ERROR, e.getMessage());
+        }
+    }
 
     protected File getCacheDir() {
         return HapEngine.getInstance(mPackage).getApplicationContext().getCacheDir();
@@ -185,6 +257,10 @@ public class DownloadTaskImpl implements InstanceManager.IInstance {
         if (mCall != null && !mCall.isCanceled()) {
             mCall.cancel();
         }
+        RangeDownloader downloader = mRangeDownloader;
+        if (downloader != null) {
+            downloader.cancel();
+        }
         onAbort();
         release();
     }
@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features.net.task;
+
+import android.text.TextUtils;
+import android.util.Log;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okio.BufferedSource;
+import org.hapjs.common.executors.Executors;
+import org.hapjs.common.executors.Future;
+import org.hapjs.common.utils.FileUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * 支持断点续传和分段并行下载的下载器，需要在子线程中调用 {@link #download()}.
+ *
+ * <p>下载中的数据写入 partFile, 各分段的进度保存在 stateFile 中. 进程被杀或下载中断后，
+ * 再次下载相同 url 到相同 partFile 时，通过 Range + If-Range(ETag/Last-Modified) 从断点继续;
+ * 服务端资源变化(返回 200, 416, 或者校验值、总大小变化)时重新下载, 其它错误(如 5xx, 429)保留进度,
+ * 下次仍可续传.
+ */
+class RangeDownloader {
+    private static final String TAG = "RangeDownloader";
+
+    static final int MAX_CONNECTIONS = 4;
+
+    private static final long MIN_SEGMENT_SIZE = 1024 * 1024;
+    private static final long SAVE_STATE_INTERVAL = 512 * 1024;
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final String HEADER_RANGE = "Range";
+    private static final String HEADER_IF_RANGE = "If-Range";
+    private static final String HEADER_CONTENT_RANGE = "Content-Range";
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final Pattern CONTENT_RANGE_PATTERN =
+            Pattern.compile("bytes\\s+(\\d+)-(\\d+)/(\\d+)");
+
+    private static final String STATE_URL = "url";
+    private static final String STATE_VALIDATOR = "validator";
+    private static final String STATE_TOTAL = "total";
+    private static final String STATE_SEGMENTS = "segments";
+
+    interface Listener {
+        void onHeadersReceived(Headers headers);
+
+        void onProgressUpdate(long receivedSize, long totalSize);
+    }
+
+    private final OkHttpClient mClient;
+    private final String mUrl;
+    private final Headers mHeaders;
+    private final File mPartFile;
+    private final File mStateFile;
+    private final int mConnections;
+    private final Listener mListener;
+
+    private final List<Call> mCalls = new ArrayList<>();
+    private final AtomicLong mReceivedSize = new AtomicLong();
+    private volatile boolean mCanceled;
+
+    private String mValidator;
+    private long mTotalSize = -1;
+    private List<Segment> mSegments;
+    private long mUnsavedSize;
+    private int mCode;
+    private String mMessage;
+
+    RangeDownloader(OkHttpClient client, String url, Headers headers, File partFile,
+                    int connections, Listener listener) {
+        mClient = client;
+        mUrl = url;
+        mHeaders = headers;
+        mPartFile = partFile;
+        mStateFile = new File(partFile.getPath() + ".cfg");
+        mConnections = Math.max(1, Math.min(connections, MAX_CONNECTIONS));
+        mListener = listener;
+    }
+
+    /**
+     * @return true 表示下载完成，数据位于 partFile; false 表示服务端返回了错误,
+     *     可通过 {@link #getCode()} 和 {@link #getMessage()} 获取
+     */
+    boolean download() throws IOException {
+        okhttp3.Response first = null;
+        if (loadState()) {
+            Segment segment = nextUnfinishedSegment();
+            if (segment == null) {
+                // 上次已下载完成但未来得及重命名
+                mCode = 200;
+                mListener.onProgressUpdate(mReceivedSize.get(), mTotalSize);
+                mStateFile.delete();
+                return true;
+            }
+            first = executeSegment(segment);
+            if (isResumable(first)) {
+                mListener.onHeadersReceived(first.headers());
+            } else if (isRemoteChanged(first)) {
+                Log.i(TAG, "remote resource changed, restart download: " + first.code());
+                FileUtils.closeQuietly(first);
+                first = null;
+                clearState();
+            } else {
+                // 临时错误, 保留进度以便下次续传
+                mCode = first.code();
+                mMessage = first.message();
+                FileUtils.closeQuietly(first);
+                return false;
+            }
+        }
+
+        if (first == null) {
+            okhttp3.Response response = execute(
+                    newRequestBuilder().header(HEADER_RANGE, "bytes=0-").build());
+            if (!response.isSuccessful()) {
+                mCode = response.code();
+                mMessage = response.message();
+                FileUtils.closeQuietly(response);
+                return false;
+            }
+            mListener.onHeadersReceived(response.headers());
+            initState(response);
+            first = response;
+        }
+        mCode = first.code() == 206 ? 200 : first.code();
+
+        RandomAccessFile raf = new RandomAccessFile(mPartFile, "rw");
+        try {
+            if (mTotalSize > 0 && raf.length() != mTotalSize) {
+                raf.setLength(mTotalSize);
+            }
+            downloadSegments(raf.getChannel(), first);
+        } finally {
+            FileUtils.closeQuietly(raf);
+        }
+        mStateFile.delete();
+        return true;
+    }
+
+    void cancel() {
+        mCanceled = true;
+        synchronized (mCalls) {
+            for (Call call : mCalls) {
+                call.cancel();
+            }
+        }
+    }
+
+    boolean isCanceled() {
+        return mCanceled;
+    }
+
+    int getCode() {
+        return mCode;
+    }
+
+    String getMessage() {
+        return mMessage;
+    }
+
+    private void downloadSegments(final FileChannel channel, okhttp3.Response first)
+            throws IOException {
+        Segment firstSegment = nextUnfinishedSegment();
+        List<Future<Void>> futures = new ArrayList<>();
+        for (final Segment segment : mSegments) {
+            if (segment == firstSegment || segment.isFinished()) {
+                continue;
+            }
+            futures.add(Executors.io().submit(() -> {
+                writeSegment(channel, segment, executeSegment(segment));
+                return null;
+            }));
+        }
+
+        IOException exception = null;
+        try {
+            writeSegment(channel, firstSegment, first);
+        } catch (IOException e) {
+            exception = e;
+            cancel();
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (exception == null) {
+                    exception = e.getCause() instanceof IOException
+                            ? (IOException) e.getCause() : new IOException(e.getCause());
+                    cancel();
+                }
+            } catch (InterruptedException e) {
+                if (exception == null) {
+                    exception = new IOException(e);
+                    cancel();
+                }
+            }
+        }
+        saveState();
+        if (exception != null) {
+            throw exception;
+        }
+        if (mCanceled) {
+            throw new IOException("Canceled");
+        }
+    }
+
+    private void writeSegment(FileChannel channel, Segment segment, okhttp3.Response response)
+            throws IOException {
+        try {
+            if (segment.mEnd >= 0 && response.code() != 206) {
+                throw new IOException("Range request failed: " + response.code());
+            }
+            BufferedSource source = response.body().source();
+            byte[] bytes = new byte[BUFFER_SIZE];
+            while (!mCanceled) {
+                long remaining = segment.getRemaining();
+                if (remaining == 0) {
+                    break;
+                }
+                int length = remaining < 0 ? bytes.length : (int) Math.min(bytes.length, remaining);
+                int read = source.read(bytes, 0, length);
+                if (read < 0) {
+                    if (remaining > 0) {
+                        throw new IOException("Unexpected end of stream");
+                    }
+                    break;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, read);
+                long position = segment.getPosition();
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                onSegmentProgress(segment, read);
+            }
+        } finally {
+            FileUtils.closeQuietly(response);
+        }
+    }
+
+    private void onSegmentProgress(Segment segment, int size) {
+        boolean save;
+        synchronized (this) {
+            segment.mDownloaded += size;
+            mUnsavedSize += size;
+            save = mUnsavedSize >= SAVE_STATE_INTERVAL;
+        }
+        if (save) {
+            saveState();
+        }
+        mListener.onProgressUpdate(mReceivedSize.addAndGet(size), mTotalSize);
+    }
+
+    private okhttp3.Response executeSegment(Segment segment) throws IOException {
+        okhttp3.Request.Builder builder = newRequestBuilder()
+                .header(HEADER_RANGE, "bytes=" + segment.getPosition() + "-" + segment.mEnd);
+        if (!TextUtils.isEmpty(mValidator)) {
+            builder.header(HEADER_IF_RANGE, mValidator);
+        }
+        return execute(builder.build());
+    }
+
+    private okhttp3.Response execute(okhttp3.Request request) throws IOException {
+        Call call = mClient.newCall(request);
+        synchronized (mCalls) {
+            if (mCanceled) {
+                throw new IOException("Canceled");
+            }
+            mCalls.add(call);
+        }
+        return call.execute();
+    }
+
+    private okhttp3.Request.Builder newRequestBuilder() {
+        return new okhttp3.Request.Builder().url(mUrl).headers(mHeaders);
+    }
+
+    private boolean isResumable(okhttp3.Response response) {
+        if (response.code() != 206 || getTotalSize(response) != mTotalSize) {
+            return false;
+        }
+        String validator = getValidator(response);
+        return TextUtils.isEmpty(validator) || validator.equals(mValidator);
+    }
+
+    private boolean isRemoteChanged(okhttp3.Response response) {
+        // If-Range 不匹配时服务端返回完整内容(200), 断点超出资源大小时返回 416
+        return response.code() == 200 || response.code() == 206 || response.code() == 416;
+    }
+
+    private Segment nextUnfinishedSegment() {
+        for (Segment segment : mSegments) {
+            if (!segment.isFinished()) {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    private void initState(okhttp3.Response response) {
+        mSegments = new ArrayList<>();
+        mReceivedSize.set(0);
+        if (response.code() != 206 || getTotalSize(response) <= 0) {
+            // 服务端不支持 Range, 只能单连接顺序下载，且无法续传
+            mTotalSize = response.body().contentLength();
+            mValidator = null;
+            mSegments.add(new Segment(0, -1, 0));
+            mPartFile.delete();
+            return;
+        }
+        mTotalSize = getTotalSize(response);
+        mValidator = getValidator(response);
+        int count = (int) Math.max(1, Math.min(mConnections, mTotalSize / MIN_SEGMENT_SIZE));
+        long segmentSize = mTotalSize / count;
+        for (int i = 0; i < count; i++) {
+            long start = i * segmentSize;
+            long end = i == count - 1 ? mTotalSize - 1 : start + segmentSize - 1;
+            mSegments.add(new Segment(start, end, 0));
+        }
+        saveState();
+    }
+
+    private boolean loadState() {
+        if (!mStateFile.exists() || !mPartFile.exists()) {
+            clearState();
+            return false;
+        }
+        try {
+            JSONObject state = new JSONObject(FileUtils.readFileAsString(mStateFile));
+            if (!mUrl.equals(state.getString(STATE_URL))) {
+                clearState();
+                return false;
+            }
+            mValidator = state.getString(STATE_VALIDATOR);
+            mTotalSize = state.getLong(STATE_TOTAL);
+            JSONArray segments = state.getJSONArray(STATE_SEGMENTS);
+            mSegments = new ArrayList<>(segments.length());
+            long received = 0;
+            for (int i = 0; i < segments.length(); i++) {
+                JSONArray item = segments.getJSONArray(i);
+                Segment segment = new Segment(item.getLong(0), item.getLong(1), item.getLong(2));
+                mSegments.add(segment);
+                received += segment.mDownloaded;
+            }
+            mReceivedSize.set(received);
+            return true;
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "failed to load download state", e);
+            clearState();
+            return false;
+        }
+    }
+
+    private synchronized void saveState() {
+        mUnsavedSize = 0;
+        if (TextUtils.isEmpty(mValidator) || mSegments == null) {
+            return;
+        }
+        try {
+            JSONArray segments = new JSONArray();
+            for (Segment segment : mSegments) {
+                segments.put(new JSONArray()
+                        .put(segment.mStart)
+                        .put(segment.mEnd)
+                        .put(segment.mDownloaded));
+            }
+            JSONObject state = new JSONObject()
+                    .put(STATE_URL, mUrl)
+                    .put(STATE_VALIDATOR, mValidator)
+                    .put(STATE_TOTAL, mTotalSize)
+                    .put(STATE_SEGMENTS, segments);
+            FileUtils.saveToFile(state.toString().getBytes("UTF-8"), mStateFile);
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "failed to save download state", e);
+        }
+    }
+
+    private void clearState() {
+        mStateFile.delete();
+        mPartFile.delete();
+        mSegments = null;
+        mValidator = null;
+        mTotalSize = -1;
+    }
+
+    private static long getTotalSize(okhttp3.Response response) {
+        String contentRange = response.header(HEADER_CONTENT_RANGE);
+        if (!TextUtils.isEmpty(contentRange)) {
+            Matcher matcher = CONTENT_RANGE_PATTERN.matcher(contentRange);
+            if (matcher.find()) {
+                return Long.parseLong(matcher.group(3));
+            }
+        }
+        return -1;
+    }
+
+    private static String getValidator(okhttp3.Response response) {
+        // 弱 ETag 不能用于 If-Range
+        String etag = response.header(HEADER_ETAG);
+        if (!TextUtils.isEmpty(etag) && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return response.header(HEADER_LAST_MODIFIED);
+    }
+
+    private static class Segment {
+        final long mStart;
+        // 包含, -1 表示长度未知
+        final long mEnd;
+        long mDownloaded;
+
+        Segment(long start, long end, long downloaded) {
+            mStart = start;
+            mEnd = end;
+            mDownloaded = downloaded;
+        }
+
+        long getPosition() {
+            return mStart + mDownloaded;
+        }
+
+        long getRemaining() {
+            return mEnd < 0 ? -1 : mEnd - getPosition() + 1;
+        }
+
+        boolean isFinished() {
+            return mEnd >= 0 && getPosition() > mEnd;
+        }
+    }
+}
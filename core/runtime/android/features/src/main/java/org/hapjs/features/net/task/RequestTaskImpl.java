@@ -121,7 +121,7 @@ public class RequestTaskImpl implements InstanceManager.IInstance {
                 Log.d(TAG, "getPostRequest");
                 httpRequest = getPostRequest(url, dataObj, jsonHeader, method, pkg);
             }
-            OkHttpClient okHttpClient = HttpConfig.get().getOkHttpClient();
+            OkHttpClient okHttpClient = HttpConfig.get().getOkHttpClient(pkg);
             mCall = okHttpClient.newCall(httpRequest);
             mCall.enqueue(new CallbackImpl(mRequest, responseType, dataType));
             if (isAbort) {
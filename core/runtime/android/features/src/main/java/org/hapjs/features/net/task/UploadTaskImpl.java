@@ -140,7 +140,8 @@ public class UploadTaskImpl implements InstanceManager.IInstance {
 
             NetworkReportManager.getInstance().reportNetwork(KEY_NETWORK_REPORT_SOURCE, mUrl);
 
-            OkHttpClient okHttpClient = HttpConfig.get().getOkHttpClient();
+            OkHttpClient okHttpClient =
+                    HttpConfig.get().getOkHttpClient(mRequest.getApplicationContext().getPackage());
             mCall = okHttpClient.newCall(httpRequest);
             mCall.enqueue(new UploadCallbackImpl(mRequest, "null", new UploadCallbackImpl.HeaderReceivedListener() {
                 @Override
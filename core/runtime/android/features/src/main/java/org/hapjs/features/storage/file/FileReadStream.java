@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features.storage.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import org.hapjs.common.utils.FileUtils;
+
+/**
+ * 按块读取文件. 每次只把一块数据交给 js, 读取大文件时占用的内存与文件大小无关.
+ * 指定了编码时按文本读取, 多字节字符和代理对不会被块的边界截断.
+ *
+ * <p>二进制读取每块分配新的 direct buffer, js 中的 ArrayBuffer 直接引用这块内存, 不能复用.
+ * 读取和关闭互斥, 关闭后的读取抛出 IOException.
+ */
+class FileReadStream implements Closeable {
+    private final InputStream mInput;
+    private final Reader mReader;
+    private final ReadableByteChannel mChannel;
+    private final int mChunkSize;
+    private final char[] mChars;
+    // 上一块末尾被推迟到下一块的高位代理字符
+    private char mPendingHighSurrogate;
+    private boolean mEof;
+    private boolean mClosed;
+
+    private FileReadStream(InputStream input, Reader reader, int chunkSize) {
+        mInput = input;
+        mReader = reader;
+        mChunkSize = chunkSize;
+        if (reader != null) {
+            mChannel = null;
+            mChars = new char[chunkSize];
+        } else {
+            // 直接读入 direct buffer, 不经过 java 堆
+            mChannel = Channels.newChannel(input);
+            mChars = null;
+        }
+    }
+
+    static FileReadStream open(InputStream input, long position, int chunkSize, String encoding)
+            throws IOException {
+        try {
+            skipFully(input, position);
+            Reader reader = null;
+            if (encoding != null) {
+                reader = new InputStreamReader(input, getCharset(encoding));
+            }
+            return new FileReadStream(input, reader, chunkSize);
+        } catch (IOException | RuntimeException e) {
+            FileUtils.closeQuietly(input);
+            throw e;
+        }
+    }
+
+    boolean isText() {
+        return mReader != null;
+    }
+
+    boolean isEof() {
+        return mEof;
+    }
+
+    /**
+     * 读取下一块二进制数据, 到达文件末尾时返回长度为 0 的 buffer.
+     */
+    synchronized ByteBuffer readBuffer() throws IOException {
+        checkNotClosed();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(mChunkSize);
+        while (buffer.hasRemaining()) {
+            if (mChannel.read(buffer) < 0) {
+                mEof = true;
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer.slice();
+    }
+
+    /**
+     * 读取下一块文本, 到达文件末尾时返回空字符串.
+     */
+    synchronized String readText() throws IOException {
+        checkNotClosed();
+        int count = 0;
+        if (mPendingHighSurrogate != 0) {
+            mChars[count++] = mPendingHighSurrogate;
+            mPendingHighSurrogate = 0;
+        }
+        while (count < mChars.length) {
+            int read = mReader.read(mChars, count, mChars.length - count);
+            if (read < 0) {
+                mEof = true;
+                break;
+            }
+            count += read;
+        }
+        if (!mEof && count > 1 && Character.isHighSurrogate(mChars[count - 1])) {
+            mPendingHighSurrogate = mChars[--count];
+        }
+        return new String(mChars, 0, count);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (mClosed) {
+            return;
+        }
+        mClosed = true;
+        FileUtils.closeQuietly(mReader != null ? mReader : mInput);
+    }
+
+    private void checkNotClosed() throws IOException {
+        if (mClosed) {
+            throw new IOException("stream closed");
+        }
+    }
+
+    private static void skipFully(InputStream input, long position) throws IOException {
+        long remaining = position;
+        while (remaining > 0) {
+            long skipped = input.skip(remaining);
+            if (skipped <= 0) {
+                if (input.read() < 0) {
+                    throw new IOException("position exceeds file length");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static Charset getCharset(String encoding) throws UnsupportedEncodingException {
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new UnsupportedEncodingException(encoding);
+        }
+    }
+}
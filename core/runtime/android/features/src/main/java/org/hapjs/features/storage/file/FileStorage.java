@@ -13,10 +13,15 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.hapjs.bridge.Response;
 import org.hapjs.bridge.storage.file.IResourceFactory;
 import org.hapjs.bridge.storage.file.Resource;
@@ -29,6 +34,11 @@ import org.json.JSONObject;
 
 public class FileStorage {
     private static final String TAG = "FileStorage";
+    // 每个应用同时打开的读取流上限, 每个流每次读取最多分配 chunkSize 的 direct buffer
+    private static final int MAX_READ_STREAMS = 8;
+
+    private final Map<Integer, FileReadStream> mReadStreams = new ConcurrentHashMap<>();
+    private final AtomicInteger mReadStreamId = new AtomicInteger(0);
 
     public Response move(
             IResourceFactory resourceFactory, String srcInternalUri, String dstInternalUri) {
@@ -271,14 +281,34 @@ public class FileStorage {
 
     public Response readArrayBuffer(
             IResourceFactory resourceFactory, String internalUri, int position, int length) {
+        return readArrayBuffer(resourceFactory, internalUri, position, length, false);
+    }
+
+    /**
+     * 读取文件内容到 ArrayBuffer. 有对应本地文件时直接从 FileChannel 读取到 direct buffer, 只复制一次;
+     * mmap 为 true 时从映射读取, 省去 read 系统调用. 映射的内存不直接交给 js: 只读映射被 js 写入会使进程崩溃,
+     * 文件在映射期间被截断也会, 因此数据复制到 direct buffer 后映射即不再使用.
+     */
+    public Response readArrayBuffer(
+            IResourceFactory resourceFactory,
+            String internalUri,
+            int position,
+            int length,
+            boolean mmap) {
         try {
             Resource resource = resourceFactory.create(internalUri);
             if (resource == null) {
                 return new Response(Response.CODE_IO_ERROR,
                         "Fail to get resource by " + internalUri);
             }
-            InputStream input = resource.openInputStream();
-            ByteBuffer byteBuffer = FileUtils.readStreamAsBuffer(input, position, length, true);
+            ByteBuffer byteBuffer;
+            File file = resource.getUnderlyingFile();
+            if (file != null && file.isFile()) {
+                byteBuffer = readFileAsBuffer(file, position, length, mmap);
+            } else {
+                InputStream input = resource.openInputStream();
+                byteBuffer = FileUtils.readStreamAsBuffer(input, position, length, true);
+            }
             UInt8Array array = new UInt8Array(new ArrayBuffer(byteBuffer));
             SerializeObject result = new JavaSerializeObject();
             result.put(FileStorageFeature.RESULT_BUFFER, array);
@@ -292,6 +322,124 @@ public class FileStorage {
         }
     }
 
+    private ByteBuffer readFileAsBuffer(File file, int position, int length, boolean mmap)
+            throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            long size = channel.size();
+            if (position > size) {
+                throw new IOException(TAG + ": readFileAsBuffer: unexpected EOF");
+            }
+            int count = (int) Math.min(length, size - position);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(count);
+            if (mmap) {
+                buffer.put(channel.map(FileChannel.MapMode.READ_ONLY, position, count));
+                buffer.flip();
+                return buffer;
+            }
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer;
+        } finally {
+            FileUtils.closeQuietly(randomAccessFile);
+        }
+    }
+
+    /**
+     * 打开按块读取的流, 指定 encoding 时按文本读取. 返回的 id 用于 {@link #readChunk} 和
+     * {@link #closeReadStream}.
+     */
+    public Response openReadStream(
+            IResourceFactory resourceFactory,
+            String internalUri,
+            long position,
+            int chunkSize,
+            String encoding) {
+        Resource resource = resourceFactory.create(internalUri);
+        if (resource == null) {
+            return new Response(Response.CODE_IO_ERROR, "Fail to get resource by " + internalUri);
+        }
+        if (mReadStreams.size() >= MAX_READ_STREAMS) {
+            return new Response(Response.CODE_TOO_MANY_REQUEST,
+                    "Too many read streams, max: " + MAX_READ_STREAMS);
+        }
+        try {
+            FileReadStream stream =
+                    FileReadStream.open(resource.openInputStream(), position, chunkSize, encoding);
+            int id = mReadStreamId.incrementAndGet();
+            synchronized (mReadStreams) {
+                if (mReadStreams.size() >= MAX_READ_STREAMS) {
+                    stream.close();
+                    return new Response(Response.CODE_TOO_MANY_REQUEST,
+                            "Too many read streams, max: " + MAX_READ_STREAMS);
+                }
+                mReadStreams.put(id, stream);
+            }
+            JSONObject result = new JSONObject().put(FileStorageFeature.RESULT_ID, id);
+            return new Response(result);
+        } catch (FileNotFoundException e) {
+            return new Response(Response.CODE_FILE_NOT_FOUND, e.getMessage());
+        } catch (UnsupportedEncodingException e) {
+            return new Response(Response.CODE_ILLEGAL_ARGUMENT,
+                    "Unsupported Encoding : " + encoding);
+        } catch (IOException e) {
+            return new Response(Response.CODE_IO_ERROR, e.getMessage());
+        } catch (JSONException e) {
+            return new Response(Response.CODE_IO_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * 读取下一块数据. 读到文件末尾时 done 为 true, 流随即关闭.
+     */
+    public Response readChunk(int id) {
+        FileReadStream stream = mReadStreams.get(id);
+        if (stream == null) {
+            return new Response(Response.CODE_ILLEGAL_ARGUMENT, "Invalid stream id: " + id);
+        }
+        try {
+            SerializeObject result = new JavaSerializeObject();
+            if (stream.isText()) {
+                result.put(FileStorageFeature.RESULT_TEXT, stream.readText());
+            } else {
+                ByteBuffer buffer = stream.readBuffer();
+                result.put(FileStorageFeature.RESULT_BUFFER,
+                        new UInt8Array(new ArrayBuffer(buffer)));
+            }
+            boolean done = stream.isEof();
+            result.put(FileStorageFeature.RESULT_DONE, done);
+            if (done) {
+                closeReadStream(id);
+            }
+            return new Response(result);
+        } catch (IOException e) {
+            closeReadStream(id);
+            return new Response(Response.CODE_IO_ERROR, e.getMessage());
+        } catch (OutOfMemoryError e) {
+            closeReadStream(id);
+            return new Response(Response.CODE_OOM_ERROR, e.getMessage());
+        }
+    }
+
+    public Response closeReadStream(int id) {
+        FileReadStream stream = mReadStreams.remove(id);
+        if (stream != null) {
+            stream.close();
+        }
+        return Response.SUCCESS;
+    }
+
+    public void closeAllReadStreams() {
+        for (Integer id : mReadStreams.keySet()) {
+            closeReadStream(id);
+        }
+    }
+
     public Response mkDir(IResourceFactory resourceFactory, String internalUri, boolean recursive) {
         Resource resource = resourceFactory.create(internalUri);
         if (resource == null) {
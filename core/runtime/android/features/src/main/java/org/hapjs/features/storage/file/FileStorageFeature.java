@@ -52,6 +52,15 @@ import org.json.JSONObject;
                 @ActionAnnotation(
                         name = FileStorageFeature.ACTION_ACCESS,
                         mode = FeatureExtension.Mode.ASYNC),
+                @ActionAnnotation(
+                        name = FileStorageFeature.ACTION_OPEN_READ_STREAM,
+                        mode = FeatureExtension.Mode.ASYNC),
+                @ActionAnnotation(
+                        name = FileStorageFeature.ACTION_READ_CHUNK,
+                        mode = FeatureExtension.Mode.ASYNC),
+                @ActionAnnotation(
+                        name = FileStorageFeature.ACTION_CLOSE_READ_STREAM,
+                        mode = FeatureExtension.Mode.ASYNC),
         })
 public class FileStorageFeature extends FeatureExtension {
     public static final String ACTION_MOVE = "move";
@@ -67,14 +76,24 @@ public class FileStorageFeature extends FeatureExtension {
     protected static final String ACTION_MK_DIR = "mkdir";
     protected static final String ACTION_RM_DIR = "rmdir";
     protected static final String ACTION_ACCESS = "access";
+    protected static final String ACTION_OPEN_READ_STREAM = "openReadStream";
+    protected static final String ACTION_READ_CHUNK = "readChunk";
+    protected static final String ACTION_CLOSE_READ_STREAM = "closeReadStream";
     protected static final String PARAMS_TEXT = "text";
     protected static final String PARAMS_POSITION = "position";
     protected static final String PARAMS_LENGTH = "length";
     protected static final String PARAMS_RECURSIVE = "recursive";
     protected static final String PARAMS_APPEND = "append";
     protected static final String PARAMS_URI = "uri";
+    protected static final String PARAMS_MMAP = "mmap";
+    protected static final String PARAMS_CHUNK_SIZE = "chunkSize";
+    protected static final String PARAMS_ID = "id";
     protected static final String RESULT_TEXT = "text";
     protected static final String RESULT_BUFFER = "buffer";
+    protected static final String RESULT_ID = "id";
+    protected static final String RESULT_DONE = "done";
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_CHUNK_SIZE = 4 * 1024 * 1024;
     private static final String PARAMS_SRC_URI = "srcUri";
     private static final String PARAMS_DST_URI = "dstUri";
     private static final String PARAMS_ENCODING = "encoding";
@@ -120,6 +139,12 @@ public class FileStorageFeature extends FeatureExtension {
             doRmDir(request);
         } else if (ACTION_ACCESS.equals(action)) {
             doAccess(request);
+        } else if (ACTION_OPEN_READ_STREAM.equals(action)) {
+            doOpenReadStream(request);
+        } else if (ACTION_READ_CHUNK.equals(action)) {
+            doReadChunk(request);
+        } else if (ACTION_CLOSE_READ_STREAM.equals(action)) {
+            doCloseReadStream(request);
         }
         return Response.SUCCESS;
     }
@@ -306,6 +331,7 @@ public class FileStorageFeature extends FeatureExtension {
         String uri = jsonParams.optString(PARAMS_URI);
         int position = jsonParams.optInt(PARAMS_POSITION);
         int length = jsonParams.optInt(PARAMS_LENGTH, Integer.MAX_VALUE);
+        boolean mmap = jsonParams.optBoolean(PARAMS_MMAP, false);
 
         if (TextUtils.isEmpty(uri)) {
             request
@@ -327,7 +353,8 @@ public class FileStorageFeature extends FeatureExtension {
             return;
         }
         IResourceFactory resourceFactory = getResourceFactory(request.getApplicationContext());
-        Response response = mFileStorage.readArrayBuffer(resourceFactory, uri, position, length);
+        Response response =
+                mFileStorage.readArrayBuffer(resourceFactory, uri, position, length, mmap);
         request.getCallback().callback(response);
     }
 
@@ -396,6 +423,73 @@ public class FileStorageFeature extends FeatureExtension {
         request.getCallback().callback(response);
     }
 
+    private void doOpenReadStream(Request request) throws JSONException {
+        JSONObject jsonParams = request.getJSONParams();
+        String uri = jsonParams.optString(PARAMS_URI);
+        long position = jsonParams.optLong(PARAMS_POSITION, 0);
+        int chunkSize = jsonParams.optInt(PARAMS_CHUNK_SIZE, DEFAULT_CHUNK_SIZE);
+        // 不指定编码时按二进制读取
+        String encoding = jsonParams.has(PARAMS_ENCODING)
+                ? jsonParams.optString(PARAMS_ENCODING) : null;
+        if (TextUtils.isEmpty(uri)) {
+            request
+                    .getCallback()
+                    .callback(new Response(Response.CODE_ILLEGAL_ARGUMENT,
+                            PARAMS_URI + " not define"));
+            return;
+        }
+        if (position < 0) {
+            request
+                    .getCallback()
+                    .callback(new Response(Response.CODE_ILLEGAL_ARGUMENT, "Invalid position"));
+            return;
+        }
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            request
+                    .getCallback()
+                    .callback(new Response(Response.CODE_ILLEGAL_ARGUMENT, "Invalid chunkSize"));
+            return;
+        }
+        IResourceFactory resourceFactory = getResourceFactory(request.getApplicationContext());
+        Response response =
+                mFileStorage.openReadStream(resourceFactory, uri, position, chunkSize, encoding);
+        request.getCallback().callback(response);
+    }
+
+    private void doReadChunk(Request request) throws JSONException {
+        JSONObject jsonParams = request.getJSONParams();
+        if (!jsonParams.has(PARAMS_ID)) {
+            request
+                    .getCallback()
+                    .callback(new Response(Response.CODE_ILLEGAL_ARGUMENT,
+                            PARAMS_ID + " not define"));
+            return;
+        }
+        Response response = mFileStorage.readChunk(jsonParams.getInt(PARAMS_ID));
+        request.getCallback().callback(response);
+    }
+
+    private void doCloseReadStream(Request request) throws JSONException {
+        JSONObject jsonParams = request.getJSONParams();
+        if (!jsonParams.has(PARAMS_ID)) {
+            request
+                    .getCallback()
+                    .callback(new Response(Response.CODE_ILLEGAL_ARGUMENT,
+                            PARAMS_ID + " not define"));
+            return;
+        }
+        Response response = mFileStorage.closeReadStream(jsonParams.getInt(PARAMS_ID));
+        request.getCallback().callback(response);
+    }
+
+    @Override
+    public void dispose(boolean force) {
+        super.dispose(force);
+        if (force) {
+            mFileStorage.closeAllReadStreams();
+        }
+    }
+
     @Override
     public String getName() {
         return FEATURE_NAME;
@@ -103,6 +103,7 @@ public class Video extends CallbackHybridFeature {
     private static final String PARAMS_DURATION = "duration";
     private static final String PARAMS_WIDTH = "width";
     private static final String PARAMS_HEIGHT = "height";
+    private static final String PARAMS_PIPELINE_DEPTH = "pipelineDepth";
     private static final String IMAGE_FORMAT_JPEG = ".jpeg";
     private static final String VIDEO_PREFIX = "video/";
     private static final String TASK_QUEUE_THREAD_NAME = "task-queue-handlerthread";
@@ -111,6 +112,8 @@ public class Video extends CallbackHybridFeature {
     private static final String VIDEO_THUMBNAIL_PREFIX = "videoThumbnail";
     private static final int DEFAULT_FRAME_RATE = 30;
     private static final int IMAGE_QUALITY = 100;
+    private static final int MIN_PIPELINE_DEPTH = 2;
+    private static final int MAX_PIPELINE_DEPTH = 16;
     protected HandlerThread mTaskQueueProcessThread;
     protected Handler mTaskQueueHandler = null;
     // 使用标志位把多个压缩任务限制成单路串行
@@ -200,6 +203,8 @@ public class Video extends CallbackHybridFeature {
         int paramsFrameRate = params.optInt(PARAMS_FRAMERATE, 0);
         int paramsHeight = params.optInt(PARAMS_HEIGHT, 0);
         int paramsWidth = params.optInt(PARAMS_WIDTH, 0);
+        // 大于 0 时开启流水线模式, 限制解码后等待渲染的帧数并在结果中返回各阶段的统计
+        int paramsPipelineDepth = params.optInt(PARAMS_PIPELINE_DEPTH, 0);
         if (paramsHeight % 2 != 0 || paramsWidth % 2 != 0) {
             Response response =
                     new Response(Response.CODE_ILLEGAL_ARGUMENT, "height or width cannot be odd ");
@@ -315,6 +320,10 @@ public class Video extends CallbackHybridFeature {
         }
         String targetPath = scrapFile.getAbsolutePath();
         videoCompressTask.getInited().set(true);
+        if (paramsPipelineDepth > 0) {
+            videoCompressTask.setPipelineDepth(Math.max(MIN_PIPELINE_DEPTH,
+                    Math.min(paramsPipelineDepth, MAX_PIPELINE_DEPTH)));
+        }
         videoCompressTask.updateParams(
                 request,
                 targetBitRate,
@@ -28,6 +28,7 @@ public class VideoCompressTask implements InstanceManager.IInstance {
     protected static final String RESULT_URI = "uri";
     protected static final String RESULT_NAME = "name";
     protected static final String RESULT_SIZE = "size";
+    protected static final String RESULT_METRICS = "metrics";
     protected volatile boolean isAbort = false;
     protected volatile boolean isCompressing = false;
     protected volatile boolean isSuccess = false;
@@ -44,6 +45,8 @@ public class VideoCompressTask implements InstanceManager.IInstance {
     protected Request mCompressRequest;
     protected Request mProgressRequest;
     protected OnExportPercentListener mProgressListener;
+    protected int mPipelineDepth;
+    protected JSONObject mMetrics;
 
     public VideoCompressTask(SerializeObject jsonParams) {
         this.mJsonParams = jsonParams;
@@ -121,6 +124,18 @@ public class VideoCompressTask implements InstanceManager.IInstance {
         this.mWidth = width;
     }
 
+    public int getPipelineDepth() {
+        return mPipelineDepth;
+    }
+
+    public void setPipelineDepth(int pipelineDepth) {
+        this.mPipelineDepth = pipelineDepth;
+    }
+
+    public void setMetrics(JSONObject metrics) {
+        this.mMetrics = metrics;
+    }
+
     public int getRotation() {
         return mRotation;
     }
@@ -227,6 +242,9 @@ public class VideoCompressTask implements InstanceManager.IInstance {
                 result.put(RESULT_URI, resultUri);
                 result.put(RESULT_NAME, file.getName());
                 result.put(RESULT_SIZE, file.length());
+                if (mMetrics != null) {
+                    result.put(RESULT_METRICS, mMetrics);
+                }
                 mCompressRequest.getCallback().callback(new Response(result));
                 RuntimeLogManager.getDefault()
                         .logVideoFeature(mCompressRequest, Integer.toString(Response.CODE_SUCCESS),
@@ -25,6 +25,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.RequiresApi;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.Vector;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.locks.Lock;
@@ -54,8 +55,14 @@ public class VideoConverter {
     private static final int NO_TRACT = -1;
     private static final int DEFAULT_I_FRAME_INTERVAL = 1;
     private static final int CACHE_BUFFER_SIZE = 100;
-
-    private static final ArrayBlockingQueue<MediaFrame> AUDIO_DATA_QUEUE =
+    private static final int AUDIO_PASSTHROUGH_BUFFER_SIZE = 256 * 1024;
+    // 直接复制音频时最多领先已封装视频的时长
+    private static final long AUDIO_PASSTHROUGH_LEAD_US = 1000000L;
+    private static final long AUDIO_PASSTHROUGH_WAIT_MS = 10;
+    private static final long VIDEO_FRAME_WAIT_MS = 10;
+    private static final String KEY_CSD_0 = "csd-0";
+
+    private final ArrayBlockingQueue<MediaFrame> mAudioDataQueue =
             new ArrayBlockingQueue<MediaFrame>(CACHE_BUFFER_SIZE);
 
     private MediaMuxer mMuxer;
@@ -119,9 +126,24 @@ public class VideoConverter {
     private volatile boolean isReleaseMuxer = false;
     private VideoCompressCallback mVideoCompressCallback;
 
+    // 流水线模式下解码后等待渲染的视频帧数上限, 达到上限时暂停向解码器送入数据; 为 0 时不限制
+    private final int mPipelineDepth;
+    private final VideoPipelineMetrics mMetrics = new VideoPipelineMetrics();
+    // 只在视频解码线程中访问
+    private final ArrayDeque<Integer> mPendingVideoInputs = new ArrayDeque<>();
+    private final Object mVideoFrameSignal = new Object();
+    private Handler mVideoFeedHandler;
+    // 音频参数与目标参数一致时直接把音频数据写入mp4, 不经过解码和编码
+    private volatile boolean isAudioPassthrough = false;
+    private volatile long mMuxedVideoPtsUs = -1;
+    private Handler mAudioCopyHandler;
+    private ByteBuffer mAudioCopyBuffer;
+    private final MediaCodec.BufferInfo mAudioCopyInfo = new MediaCodec.BufferInfo();
+
     public VideoConverter(VideoCompressTask videoCompressTask, VideoCompressCallback callback) {
         mVideoCompressTask = videoCompressTask;
         mVideoCompressCallback = callback;
+        mPipelineDepth = videoCompressTask.getPipelineDepth();
     }
 
     public void stopConvertTask() {
@@ -206,6 +228,8 @@ public class VideoConverter {
         }
         if (isAudioExist) {
             mAudioInputFormat = getMediaFormat(mAudioExtractor, audioIndex);
+            isAudioPassthrough = canPassthroughAudio(mAudioInputFormat);
+            Log.i(TAG, "audio passthrough: " + isAudioPassthrough);
         }
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) { // 只适配api>=21的
             // 多线程异步转码机制，需要先实例化MediaCodec.Callback回调
@@ -239,7 +263,7 @@ public class VideoConverter {
                     mVideoEncoder.setCallback(mVideoEncodeCallback, mVideoEncodeThreadHandler);
                     mVideoDecoder.setCallback(mVideoDecodeCallback, mVideoDecodeThreadHandler);
                 }
-                if (isAudioExist) {
+                if (isAudioExist && !isAudioPassthrough) {
                     mAudioDecodeThreadHandler = new Handler(this.mAudioDecodeThread.getLooper());
                     mAudioEncodeThreadHandler = new Handler(this.mAudioEncodeThread.getLooper());
                     mAudioEncoder.setCallback(mAudioEncodeCallback, mAudioEncodeThreadHandler);
@@ -347,7 +371,7 @@ public class VideoConverter {
                 return;
             }
         }
-        if (isAudioExist) {
+        if (isAudioExist && !isAudioPassthrough) {
             // 配置audio解码器
             if (!configureMediaCoder(request, mAudioInputFormat, mAudioDecoder, null, 0)) {
                 return;
@@ -388,6 +412,7 @@ public class VideoConverter {
                                 do {
                                     Log.d(TAG, "video renderFrame start");
                                     Lock localLock = mVideoDecodeThread.mCodecLock;
+                                    boolean isWaitFrame = false;
                                     try {
                                         localLock.lock();
                                         if (!mVideoDecodeThread.isRelease) {
@@ -402,10 +427,19 @@ public class VideoConverter {
                                                 mVideoEncoder.signalEndOfInputStream();
                                                 return;
                                             }
+                                            long startNs = System.nanoTime();
                                             boolean isSuccess =
                                                     onPrepareVideoFrame(mVideoEncodePtsMs);
                                             if (isSuccess) {
                                                 mVideoEncodeFrameIndex++;
+                                                mMetrics.onFrame(
+                                                        VideoPipelineMetrics.STAGE_VIDEO_RENDER,
+                                                        System.nanoTime() - startNs);
+                                            }
+                                            if (mPipelineDepth > 0) {
+                                                // 渲染或丢弃帧后可能腾出了位置, 恢复向解码器送入数据
+                                                mVideoFeedHandler.post(this::feedPendingVideoInputs);
+                                                isWaitFrame = !isSuccess;
                                             }
                                         }
                                     } catch (Exception e) {
@@ -421,11 +455,17 @@ public class VideoConverter {
                                         localLock.unlock();
                                         Log.d(TAG, "video renderFrame done");
                                     }
+                                    if (isWaitFrame) {
+                                        // 在锁外等待, 否则解码线程无法输出新帧
+                                        awaitVideoFrame();
+                                    }
                                 } while (!mVideoDecodeThread.isRelease);
                             });
             Log.i(TAG, "video start ");
         }
-        if (isAudioExist) {
+        if (isAudioExist && isAudioPassthrough) {
+            startAudioPassthrough(request);
+        } else if (isAudioExist) {
             // 异步编解码开始
             try {
                 mAudioDecoder.start();
@@ -454,12 +494,16 @@ public class VideoConverter {
             mVideoDecodeThread.start();
             mVideoEncodeThread = new CodecThread(VIDEO_ENCODE_THREAD_NAME);
             mVideoEncodeThread.start();
+            mVideoFeedHandler = new Handler(mVideoDecodeThread.getLooper());
         }
         if (isAudioExist) {
+            // 直接复制音频时在音频解码线程中读写数据, 不需要编码线程
             mAudioDecodeThread = new CodecThread(AUDIO_DECODE_THREAD_NAME);
             mAudioDecodeThread.start();
-            mAudioEncodeThread = new CodecThread(AUDIO_ENCODE_THREAD_NAME);
-            mAudioEncodeThread.start();
+            if (!isAudioPassthrough) {
+                mAudioEncodeThread = new CodecThread(AUDIO_ENCODE_THREAD_NAME);
+                mAudioEncodeThread.start();
+            }
         }
     }
 
@@ -474,24 +518,19 @@ public class VideoConverter {
                         @Override
                         public void onInputBufferAvailable(@NonNull MediaCodec codec, int index) {
                             Log.d(TAG, "video decode onInputBufferAvailable  " + " index " + index);
-                            ByteBuffer inputBuffer = null;
                             Lock localLock = mVideoDecodeThread.mCodecLock;
                             try {
                                 localLock.lock();
                                 if (!mVideoDecodeThread.isRelease) {
-                                    // 获得输入缓存区
-                                    inputBuffer = codec.getInputBuffer(index);
-                                    // 获得原视频数据填充到缓冲区
-                                    int sampleSize = videoExtractor.readSampleData(inputBuffer, 0);
-                                    if (sampleSize < 0) {
-                                        codec.queueInputBuffer(index, 0, 0, 0,
-                                                MediaCodec.BUFFER_FLAG_END_OF_STREAM);
-                                    } else {
-                                        long sampleTime = videoExtractor.getSampleTime();
-                                        codec.queueInputBuffer(index, 0, sampleSize, sampleTime, 0);
-                                        // extractor换到下一帧视频，下一次该方法回调时对下一帧视频重复以上步骤
-                                        videoExtractor.advance();
+                                    if (isVideoInputThrottled()) {
+                                        // 待渲染的帧已满, 暂不送入数据, 渲染后再送入
+                                        mPendingVideoInputs.add(index);
+                                        mMetrics.sampleQueue(
+                                                VideoPipelineMetrics.QUEUE_PENDING_VIDEO_INPUT,
+                                                mPendingVideoInputs.size());
+                                        return;
                                     }
+                                    queueVideoInput(codec, index);
                                 }
                             } catch (Exception e) {
                                 Log.e(TAG, "transcode error:", e);
@@ -538,6 +577,10 @@ public class VideoConverter {
                                         return;
                                     }
                                     mVideoDeCodeFrameList.add(new MediaCodecFrame(index, info));
+                                    mMetrics.onFrame(VideoPipelineMetrics.STAGE_VIDEO_DECODE);
+                                    mMetrics.sampleQueue(VideoPipelineMetrics.QUEUE_DECODED_VIDEO,
+                                            mVideoDeCodeFrameList.size());
+                                    signalVideoFrame();
                                 }
                             } catch (Exception e) {
                                 Log.e(TAG, "transcode error:", e);
@@ -648,6 +691,8 @@ public class VideoConverter {
                                         } finally {
                                             mMuxerLock.unlock();
                                         }
+                                        mMuxedVideoPtsUs = info.presentationTimeUs;
+                                        mMetrics.onFrame(VideoPipelineMetrics.STAGE_VIDEO_ENCODE);
                                     }
                                     codec.releaseOutputBuffer(index, false);
                                     mPercentLock.lock();
@@ -807,10 +852,14 @@ public class VideoConverter {
                                                 info.flags);
                                         try {
                                             // 解码后数据放入队列里，之后编码时会从队列里取出
-                                            AUDIO_DATA_QUEUE.put(newFrame);
+                                            mAudioDataQueue.put(newFrame);
                                         } catch (InterruptedException e) {
-                                            Log.d(TAG, "AUDIO_DATA_QUEUE put：" + e.getMessage());
+                                            Log.d(TAG, "mAudioDataQueue put：" + e.getMessage());
                                         }
+                                        mMetrics.onFrame(VideoPipelineMetrics.STAGE_AUDIO_DECODE);
+                                        mMetrics.sampleQueue(
+                                                VideoPipelineMetrics.QUEUE_DECODED_AUDIO,
+                                                mAudioDataQueue.size());
                                     }
                                     if (!isAudioEncoderStarted) {
                                         isAudioEncoderStarted = true;
@@ -916,7 +965,7 @@ public class VideoConverter {
                             try {
                                 localLock.lock();
                                 if (!mAudioEncodeThread.isRelease) {
-                                    dataSources = AUDIO_DATA_QUEUE.poll();
+                                    dataSources = mAudioDataQueue.poll();
                                     int length = 0;
                                     if (dataSources != null && dataSources.size > 0) {
                                         ByteBuffer inputBuffer = mediaCodec.getInputBuffer(index);
@@ -1011,6 +1060,7 @@ public class VideoConverter {
                                             mMuxerLock.unlock();
                                         }
                                         codec.releaseOutputBuffer(index, false);
+                                        mMetrics.onFrame(VideoPipelineMetrics.STAGE_AUDIO_ENCODE);
                                     }
                                     try {
                                         mPercentLock.lock();
@@ -1101,6 +1151,181 @@ public class VideoConverter {
         }
     }
 
+    // 从原视频读取一帧送入视频解码器，需在视频解码线程中持有锁调用
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private void queueVideoInput(MediaCodec codec, int index) {
+        // 获得输入缓存区
+        ByteBuffer inputBuffer = codec.getInputBuffer(index);
+        // 获得原视频数据填充到缓冲区
+        int sampleSize = mVideoExtractor.readSampleData(inputBuffer, 0);
+        if (sampleSize < 0) {
+            codec.queueInputBuffer(index, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+        } else {
+            long sampleTime = mVideoExtractor.getSampleTime();
+            codec.queueInputBuffer(index, 0, sampleSize, sampleTime, 0);
+            // extractor换到下一帧视频，下一次该方法回调时对下一帧视频重复以上步骤
+            mVideoExtractor.advance();
+        }
+    }
+
+    // 流水线模式下，待渲染的帧数达到上限时暂停送入数据。上限至少为2，保证选帧时总能做出决定
+    private boolean isVideoInputThrottled() {
+        return mPipelineDepth > 0 && mVideoDeCodeFrameList.size() >= mPipelineDepth;
+    }
+
+    // 在视频解码线程中把暂缓的输入缓冲区送入解码器
+    private void feedPendingVideoInputs() {
+        Lock localLock = mVideoDecodeThread.mCodecLock;
+        try {
+            localLock.lock();
+            while (!mVideoDecodeThread.isRelease
+                    && !mPendingVideoInputs.isEmpty()
+                    && !isVideoInputThrottled()) {
+                queueVideoInput(mVideoDecoder, mPendingVideoInputs.poll());
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "transcode error:", e);
+            Request request = mVideoCompressTask.getCompressRequest();
+            request.getCallback()
+                    .callback(new Response(Response.CODE_GENERIC_ERROR, "transcode error"));
+            if (mVideoCompressCallback != null) {
+                mVideoCompressCallback.notifyAbort(mVideoCompressTask);
+            }
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    private void signalVideoFrame() {
+        if (mPipelineDepth > 0) {
+            synchronized (mVideoFrameSignal) {
+                mVideoFrameSignal.notifyAll();
+            }
+        }
+    }
+
+    // 没有可用的帧时等待解码器输出，避免渲染线程空转
+    private void awaitVideoFrame() {
+        synchronized (mVideoFrameSignal) {
+            try {
+                mVideoFrameSignal.wait(VIDEO_FRAME_WAIT_MS);
+            } catch (InterruptedException e) {
+                Log.e(TAG, "InterruptedException: ", e);
+            }
+        }
+    }
+
+    // 音频已是目标格式且码率、采样率不超过目标值时，重新编码不会带来收益
+    private static boolean canPassthroughAudio(MediaFormat format) {
+        return AUDIO_MIME_TYPE.equalsIgnoreCase(format.getString(MediaFormat.KEY_MIME))
+                && format.containsKey(KEY_CSD_0)
+                && format.containsKey(MediaFormat.KEY_SAMPLE_RATE)
+                && format.getInteger(MediaFormat.KEY_SAMPLE_RATE) <= OUTPUT_AUDIO_SAMPLE_RATE_HZ
+                && format.containsKey(MediaFormat.KEY_BIT_RATE)
+                && format.getInteger(MediaFormat.KEY_BIT_RATE) <= OUTPUT_AUDIO_BIT_RATE;
+    }
+
+    private void startAudioPassthrough(Request request) {
+        try {
+            mMuxerLock.lock();
+            if (!isReleaseMuxer) {
+                mOutputAudioTrack = mMuxer.addTrack(mAudioInputFormat);
+                startMuxer();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "add audio track error:", e);
+            request.getCallback()
+                    .callback(new Response(Response.CODE_GENERIC_ERROR,
+                            "failed to start audio transcoding "));
+            RuntimeLogManager.getDefault()
+                    .logVideoFeature(
+                            request, Integer.toString(Response.CODE_GENERIC_ERROR),
+                            "audio passthrough fail");
+            if (mVideoCompressCallback != null) {
+                mVideoCompressCallback.notifyAbort(mVideoCompressTask);
+            }
+            return;
+        } finally {
+            mMuxerLock.unlock();
+        }
+        mAudioCopyHandler = new Handler(mAudioDecodeThread.getLooper());
+        mAudioCopyHandler.post(this::copyAudioSamples);
+        Log.i(TAG, "audio passthrough start ");
+    }
+
+    // 在音频解码线程中把音频数据直接写入mp4。音频领先已写入的视频过多时稍后再继续，使两路数据交错写入
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private void copyAudioSamples() {
+        if (mAudioCopyBuffer == null) {
+            int bufferSize =
+                    mAudioInputFormat.containsKey(MediaFormat.KEY_MAX_INPUT_SIZE)
+                            ? mAudioInputFormat.getInteger(MediaFormat.KEY_MAX_INPUT_SIZE)
+                            : AUDIO_PASSTHROUGH_BUFFER_SIZE;
+            mAudioCopyBuffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+        ByteBuffer buffer = mAudioCopyBuffer;
+        MediaCodec.BufferInfo info = mAudioCopyInfo;
+        Lock localLock = mAudioDecodeThread.mCodecLock;
+        try {
+            localLock.lock();
+            while (!mAudioDecodeThread.isRelease) {
+                if (!isMuxerStart
+                        || (isVideoExist && !isVideoEnd
+                        && mAudioExtractor.getSampleTime()
+                        > mMuxedVideoPtsUs + AUDIO_PASSTHROUGH_LEAD_US)) {
+                    mAudioCopyHandler.postDelayed(this::copyAudioSamples,
+                            AUDIO_PASSTHROUGH_WAIT_MS);
+                    return;
+                }
+                int sampleSize = mAudioExtractor.readSampleData(buffer, 0);
+                boolean isEnd = sampleSize < 0;
+                if (!isEnd) {
+                    int flags = (mAudioExtractor.getSampleFlags()
+                            & MediaExtractor.SAMPLE_FLAG_SYNC) != 0
+                            ? MediaCodec.BUFFER_FLAG_KEY_FRAME : 0;
+                    info.set(0, sampleSize, mAudioExtractor.getSampleTime(), flags);
+                    nLastAudioPts = info.presentationTimeUs;
+                    try {
+                        mMuxerLock.lock();
+                        if (!isReleaseMuxer) {
+                            mMuxer.writeSampleData(mOutputAudioTrack, buffer, info);
+                        }
+                    } finally {
+                        mMuxerLock.unlock();
+                    }
+                    mAudioExtractor.advance();
+                    mMetrics.onFrame(VideoPipelineMetrics.STAGE_AUDIO_COPY);
+                }
+                try {
+                    mPercentLock.lock();
+                    if (isEnd) {
+                        isAudioEnd = true;
+                        markFrameEnd();
+                    }
+                    updateProgress();
+                    if (isEnd && isAllFrameEnd && mVideoCompressCallback != null) {
+                        mVideoCompressCallback.notifyAbort(mVideoCompressTask);
+                    }
+                } finally {
+                    mPercentLock.unlock();
+                }
+                if (isEnd) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "transcode error:", e);
+            Request request = mVideoCompressTask.getCompressRequest();
+            request.getCallback()
+                    .callback(new Response(Response.CODE_GENERIC_ERROR, "transcode error"));
+            if (mVideoCompressCallback != null) {
+                mVideoCompressCallback.notifyAbort(mVideoCompressTask);
+            }
+        } finally {
+            localLock.unlock();
+        }
+    }
+
     // 选择待编码的帧，实现丢帧或重复帧操作以满足所设置的帧率
     boolean onPrepareVideoFrame(int ptsMs) throws Exception {
         Log.d(
@@ -1287,7 +1512,7 @@ public class VideoConverter {
         String audioDecoderType = "";
         String videoDecoderType = "";
 
-        if (isAudioExist) {
+        if (isAudioExist && !isAudioPassthrough) {
             audioDecoderType = mAudioInputFormat.getString(MediaFormat.KEY_MIME);
             mAudioDecoder = MediaCodec.createDecoderByType(audioDecoderType);
             mAudioEncoder = MediaCodec.createEncoderByType(AUDIO_MIME_TYPE);
@@ -1398,9 +1623,11 @@ public class VideoConverter {
             mVideoEncodeThread.stopAndRelease();
         }
         if (isAudioExist) {
-            AUDIO_DATA_QUEUE.clear();
+            mAudioDataQueue.clear();
             mAudioDecodeThread.stopAndRelease();
-            mAudioEncodeThread.stopAndRelease();
+            if (mAudioEncodeThread != null) {
+                mAudioEncodeThread.stopAndRelease();
+            }
         }
         try {
             if (mVideoExtractor != null) {
@@ -1440,6 +1667,10 @@ public class VideoConverter {
         mAudioExtractor = null;
         mOutputSurface = null;
         mInputSurface = null;
+        Log.i(TAG, "pipeline metrics: " + mMetrics);
+        if (mPipelineDepth > 0) {
+            mVideoCompressTask.setMetrics(mMetrics.toJSONObject());
+        }
         if (mVideoCompressCallback != null) {
             mVideoCompressCallback.notifyComplete(mVideoCompressTask, isAllFrameEnd);
         }
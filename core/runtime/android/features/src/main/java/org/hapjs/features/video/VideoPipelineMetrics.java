@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features.video;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * 视频压缩各阶段的统计. 每个阶段记录输出帧数和相邻两帧的输出间隔, 同步执行的阶段(渲染)另外记录每帧的耗时;
+ * 每个阶段间的队列记录采样到的深度. 间隔最大的阶段即为瓶颈, 瓶颈上游的队列通常是满的, 下游的队列通常是空的.
+ */
+class VideoPipelineMetrics {
+    static final int STAGE_VIDEO_DECODE = 0;
+    static final int STAGE_VIDEO_RENDER = 1;
+    static final int STAGE_VIDEO_ENCODE = 2;
+    static final int STAGE_AUDIO_DECODE = 3;
+    static final int STAGE_AUDIO_ENCODE = 4;
+    static final int STAGE_AUDIO_COPY = 5;
+
+    // 解码后等待渲染的视频帧
+    static final int QUEUE_DECODED_VIDEO = 0;
+    // 因待渲染帧已满而暂缓送入解码器的输入缓冲区
+    static final int QUEUE_PENDING_VIDEO_INPUT = 1;
+    // 解码后等待编码的音频数据
+    static final int QUEUE_DECODED_AUDIO = 2;
+
+    private static final String[] STAGE_NAMES = {
+            "videoDecode", "videoRender", "videoEncode", "audioDecode", "audioEncode", "audioCopy"
+    };
+    private static final String[] QUEUE_NAMES = {
+            "decodedVideo", "pendingVideoInput", "decodedAudio"
+    };
+    private static final double NANOS_PER_MS = 1000000d;
+
+    private final long[] mFrameCounts = new long[STAGE_NAMES.length];
+    private final long[] mLastFrameNs = new long[STAGE_NAMES.length];
+    private final long[] mTotalIntervalNs = new long[STAGE_NAMES.length];
+    private final long[] mMaxIntervalNs = new long[STAGE_NAMES.length];
+    private final long[] mTotalBusyNs = new long[STAGE_NAMES.length];
+    private final long[] mMaxBusyNs = new long[STAGE_NAMES.length];
+    private final long[] mQueueSamples = new long[QUEUE_NAMES.length];
+    private final long[] mTotalQueueDepth = new long[QUEUE_NAMES.length];
+    private final int[] mMaxQueueDepth = new int[QUEUE_NAMES.length];
+
+    synchronized void onFrame(int stage) {
+        long now = System.nanoTime();
+        if (mFrameCounts[stage] > 0) {
+            long interval = now - mLastFrameNs[stage];
+            mTotalIntervalNs[stage] += interval;
+            mMaxIntervalNs[stage] = Math.max(mMaxIntervalNs[stage], interval);
+        }
+        mLastFrameNs[stage] = now;
+        mFrameCounts[stage]++;
+    }
+
+    synchronized void onFrame(int stage, long busyNs) {
+        onFrame(stage);
+        mTotalBusyNs[stage] += busyNs;
+        mMaxBusyNs[stage] = Math.max(mMaxBusyNs[stage], busyNs);
+    }
+
+    synchronized void sampleQueue(int queue, int depth) {
+        mQueueSamples[queue]++;
+        mTotalQueueDepth[queue] += depth;
+        mMaxQueueDepth[queue] = Math.max(mMaxQueueDepth[queue], depth);
+    }
+
+    synchronized JSONObject toJSONObject() {
+        JSONObject result = new JSONObject();
+        try {
+            for (int i = 0; i < STAGE_NAMES.length; i++) {
+                long count = mFrameCounts[i];
+                if (count == 0) {
+                    continue;
+                }
+                JSONObject stage = new JSONObject();
+                stage.put("frames", count);
+                if (count > 1) {
+                    stage.put("avgIntervalMs", mTotalIntervalNs[i] / (count - 1) / NANOS_PER_MS);
+                    stage.put("maxIntervalMs", mMaxIntervalNs[i] / NANOS_PER_MS);
+                }
+                if (mTotalBusyNs[i] > 0) {
+                    stage.put("avgBusyMs", mTotalBusyNs[i] / count / NANOS_PER_MS);
+                    stage.put("maxBusyMs", mMaxBusyNs[i] / NANOS_PER_MS);
+                }
+                result.put(STAGE_NAMES[i], stage);
+            }
+            for (int i = 0; i < QUEUE_NAMES.length; i++) {
+                long samples = mQueueSamples[i];
+                if (samples == 0) {
+                    continue;
+                }
+                JSONObject queue = new JSONObject();
+                queue.put("avgDepth", (double) mTotalQueueDepth[i] / samples);
+                queue.put("maxDepth", mMaxQueueDepth[i]);
+                result.put(QUEUE_NAMES[i], queue);
+            }
+        } catch (JSONException e) {
+            // 键和值都不为 null, 不会发生
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toJSONObject().toString();
+    }
+}
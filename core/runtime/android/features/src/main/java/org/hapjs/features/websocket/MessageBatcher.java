@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.features.websocket;
+
+import android.util.Log;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import org.hapjs.common.executors.Executors;
+
+/**
+ * 将一个时间窗口内收到的 websocket 消息合并为一次 js 回调.
+ *
+ * <p>接收队列有上限，队列满时按策略处理: 丢弃最旧的消息、丢弃新消息，或阻塞 okhttp 的读线程
+ * (由 tcp 流控对服务端形成背压). 批次按出队顺序依次投递.
+ */
+class MessageBatcher {
+    static final String POLICY_DROP_OLDEST = "dropOldest";
+    static final String POLICY_DROP_NEWEST = "dropNewest";
+    static final String POLICY_BLOCK = "block";
+
+    static final int DEFAULT_MAX_QUEUE_SIZE = 256;
+
+    private static final String TAG = "MessageBatcher";
+
+    interface Sink {
+        void onBatch(List<Object> messages, int dropped);
+    }
+
+    private final long mInterval;
+    private final int mMaxQueueSize;
+    private final String mPolicy;
+    private final Sink mSink;
+    private final ArrayDeque<Object> mQueue = new ArrayDeque<>();
+    // 出队和投递都在该锁内完成, 定时任务和 flush() 并发时批次不会乱序
+    private final Object mDeliverLock = new Object();
+    private final Runnable mFlushTask = this::flush;
+
+    private boolean mScheduled;
+    private boolean mClosed;
+    private int mPendingDropped;
+    private long mReceivedCount;
+    private long mDeliveredCount;
+    private long mDroppedCount;
+    private long mBatchCount;
+
+    MessageBatcher(long interval, int maxQueueSize, String policy, Sink sink) {
+        if (!isValidPolicy(policy)) {
+            throw new IllegalArgumentException("unknown overflow policy: " + policy);
+        }
+        mInterval = interval;
+        mMaxQueueSize = maxQueueSize > 0 ? maxQueueSize : DEFAULT_MAX_QUEUE_SIZE;
+        mPolicy = policy;
+        mSink = sink;
+    }
+
+    static boolean isValidPolicy(String policy) {
+        return POLICY_DROP_OLDEST.equals(policy)
+                || POLICY_DROP_NEWEST.equals(policy)
+                || POLICY_BLOCK.equals(policy);
+    }
+
+    /**
+     * @param message String 或 ArrayBuffer
+     */
+    synchronized void offer(Object message) {
+        if (mClosed) {
+            return;
+        }
+        mReceivedCount++;
+        while (mQueue.size() >= mMaxQueueSize) {
+            if (POLICY_BLOCK.equals(mPolicy)) {
+                scheduleFlush();
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Log.w(TAG, "interrupted while waiting for queue", e);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (mClosed) {
+                    return;
+                }
+            } else if (POLICY_DROP_NEWEST.equals(mPolicy)) {
+                onDropped();
+                return;
+            } else {
+                mQueue.pollFirst();
+                onDropped();
+            }
+        }
+        mQueue.addLast(message);
+        scheduleFlush();
+    }
+
+    /**
+     * 立即投递队列中剩余的消息, 在连接关闭前调用.
+     */
+    void flush() {
+        synchronized (mDeliverLock) {
+            List<Object> messages;
+            int dropped;
+            synchronized (this) {
+                mScheduled = false;
+                if (mQueue.isEmpty() && mPendingDropped == 0) {
+                    return;
+                }
+                messages = new ArrayList<>(mQueue);
+                mQueue.clear();
+                dropped = mPendingDropped;
+                mPendingDropped = 0;
+                mDeliveredCount += messages.size();
+                mBatchCount++;
+                notifyAll();
+            }
+            // 不持有 this 锁投递, 读线程可以继续入队
+            mSink.onBatch(messages, dropped);
+        }
+    }
+
+    synchronized void close() {
+        mClosed = true;
+        mQueue.clear();
+        notifyAll();
+    }
+
+    synchronized long getReceivedCount() {
+        return mReceivedCount;
+    }
+
+    synchronized long getDeliveredCount() {
+        return mDeliveredCount;
+    }
+
+    synchronized long getDroppedCount() {
+        return mDroppedCount;
+    }
+
+    synchronized long getBatchCount() {
+        return mBatchCount;
+    }
+
+    private void onDropped() {
+        mDroppedCount++;
+        mPendingDropped++;
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (!mScheduled) {
+            mScheduled = true;
+            Executors.scheduled().executeWithDelay(mFlushTask, mInterval);
+        }
+    }
+}
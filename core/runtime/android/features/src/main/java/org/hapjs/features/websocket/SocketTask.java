@@ -7,8 +7,10 @@ package org.hapjs.features.websocket;
 
 import android.util.Log;
 import com.eclipsesource.v8.utils.typedarrays.ArrayBuffer;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import okhttp3.Headers;
 import okhttp3.WebSocketListener;
@@ -18,6 +20,7 @@ import org.hapjs.bridge.Request;
 import org.hapjs.bridge.Response;
 import org.hapjs.common.net.HttpConfig;
 import org.hapjs.common.net.NetworkReportManager;
+import org.hapjs.render.jsruntime.serialize.JavaSerializeArray;
 import org.hapjs.render.jsruntime.serialize.JavaSerializeObject;
 import org.hapjs.render.jsruntime.serialize.SerializeObject;
 import org.hapjs.runtime.RuntimeActivity;
@@ -39,6 +42,7 @@ public class SocketTask implements InstanceManager.IInstance {
     private okhttp3.Request mOkhttpRequest;
     private okhttp3.WebSocket mWebSocket;
     private Map<String, Request> mRequestMap = new HashMap<>();
+    private MessageBatcher mMessageBatcher;
 
     public SocketTask(String url, JSONObject jsonHeader, JSONArray protocols) {
         String debugEnabled = System.getProperty(RuntimeActivity.PROP_DEBUG, "false");
@@ -49,6 +53,18 @@ public class SocketTask implements InstanceManager.IInstance {
         createRequest(url, jsonHeader, protocols);
     }
 
+    /**
+     * 开启消息合并，需要在 {@link #connectSocket()} 之前调用.
+     *
+     * @param interval 合并窗口，单位毫秒
+     * @param maxQueueSize 接收队列上限
+     * @param overflowPolicy 队列满时的处理策略, 见 {@link MessageBatcher}
+     */
+    public void setMessageBatching(long interval, int maxQueueSize, String overflowPolicy) {
+        mMessageBatcher = new MessageBatcher(interval, maxQueueSize, overflowPolicy,
+                this::onSocketMessages);
+    }
+
     public void connectSocket() {
         if (mWebSocketFactory == null || mOkhttpRequest == null) {
             throw new IllegalStateException("websocket: init connect error");
@@ -120,6 +136,9 @@ public class SocketTask implements InstanceManager.IInstance {
     }
 
     public boolean release(int code, String reason) {
+        if (mMessageBatcher != null) {
+            mMessageBatcher.close();
+        }
         if (mWebSocket != null && mWebSocket.close(code, reason)) {
             releaseResource();
             mWebSocket = null;
@@ -162,6 +181,10 @@ public class SocketTask implements InstanceManager.IInstance {
     }
 
     private void onSocketMessage(String data) {
+        if (mMessageBatcher != null) {
+            mMessageBatcher.offer(data);
+            return;
+        }
         Request request = mRequestMap.get(WebSocket.EVENT_MESSAGE);
         if (request != null) {
             JSONObject jsonObject = new JSONObject();
@@ -175,16 +198,48 @@ public class SocketTask implements InstanceManager.IInstance {
     }
 
     private void onSocketMessage(ByteString byteString) {
+        if (mMessageBatcher != null) {
+            mMessageBatcher.offer(toArrayBuffer(byteString));
+            return;
+        }
+        Request request = mRequestMap.get(WebSocket.EVENT_MESSAGE);
+        if (request != null) {
+            SerializeObject serializeObject = new JavaSerializeObject();
+            serializeObject.put(WebSocket.RESULT_DATA, toArrayBuffer(byteString));
+            request.getCallback().callback(new Response(serializeObject));
+        }
+    }
+
+    // 直接拷贝到 direct buffer, V8ArrayBuffer 可直接使用，不再经过中间的 byte[]
+    private ArrayBuffer toArrayBuffer(ByteString byteString) {
+        int size = byteString != null ? byteString.size() : 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        if (size > 0) {
+            buffer.put(byteString.asByteBuffer());
+            buffer.flip();
+        }
+        return new ArrayBuffer(buffer);
+    }
+
+    private void onSocketMessages(List<Object> messages, int dropped) {
         Request request = mRequestMap.get(WebSocket.EVENT_MESSAGE);
         if (request != null) {
-            byte[] bytes = byteString != null ? byteString.toByteArray() : new byte[0];
             SerializeObject serializeObject = new JavaSerializeObject();
-            serializeObject.put(WebSocket.RESULT_DATA, new ArrayBuffer(bytes));
+            serializeObject.put(WebSocket.RESULT_DATA, new JavaSerializeArray(messages));
+            serializeObject.put(WebSocket.RESULT_DROPPED, dropped);
             request.getCallback().callback(new Response(serializeObject));
         }
     }
 
     private void onSocketClose(int code, String reason, boolean wasClean) {
+        if (mMessageBatcher != null) {
+            mMessageBatcher.flush();
+            mMessageBatcher.close();
+            Log.i(TAG, "message batching stats: received=" + mMessageBatcher.getReceivedCount()
+                    + ", delivered=" + mMessageBatcher.getDeliveredCount()
+                    + ", dropped=" + mMessageBatcher.getDroppedCount()
+                    + ", batches=" + mMessageBatcher.getBatchCount());
+        }
         Request request = mRequestMap.get(WebSocket.EVENT_CLOSE);
         if (request != null) {
             JSONObject jsonObject = new JSONObject();
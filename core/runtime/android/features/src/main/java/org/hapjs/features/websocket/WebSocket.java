@@ -72,6 +72,7 @@ public class WebSocket extends FeatureExtension {
     protected static final String RESULT_CODE = "code";
     protected static final String RESULT_WAS_CLEAN = "wasClean";
     protected static final String RESULT_REASON = "reason";
+    protected static final String RESULT_DROPPED = "dropped";
     private static final String TAG = "WebSocket";
 
     @Override
@@ -30,6 +30,9 @@ public class WebSocketFactory extends FeatureExtension {
     private static final String PARAMS_KEY_URL = "url";
     private static final String PARAMS_KEY_HEADER = "header";
     private static final String PARAMS_KEY_PROTOCOLS = "protocols";
+    private static final String PARAMS_KEY_BATCH_INTERVAL = "batchInterval";
+    private static final String PARAMS_KEY_MAX_QUEUE_SIZE = "maxQueueSize";
+    private static final String PARAMS_KEY_OVERFLOW_POLICY = "overflowPolicy";
 
     @Override
     public String getName() {
@@ -50,7 +53,21 @@ public class WebSocketFactory extends FeatureExtension {
         String url = jsonParams.getString(PARAMS_KEY_URL);
         JSONObject jsonHeader = jsonParams.optJSONObject(PARAMS_KEY_HEADER);
         JSONArray protocols = jsonParams.optJSONArray(PARAMS_KEY_PROTOCOLS);
+        long batchInterval = jsonParams.optLong(PARAMS_KEY_BATCH_INTERVAL, 0);
+        String overflowPolicy = jsonParams.optString(PARAMS_KEY_OVERFLOW_POLICY,
+                MessageBatcher.POLICY_DROP_OLDEST);
+        if (batchInterval > 0 && !MessageBatcher.isValidPolicy(overflowPolicy)) {
+            return new Response(Response.CODE_ILLEGAL_ARGUMENT,
+                    "Invalid " + PARAMS_KEY_OVERFLOW_POLICY + ": " + overflowPolicy);
+        }
         SocketTask socketTask = new SocketTask(url, jsonHeader, protocols);
+        if (batchInterval > 0) {
+            socketTask.setMessageBatching(
+                    batchInterval,
+                    jsonParams.optInt(PARAMS_KEY_MAX_QUEUE_SIZE,
+                            MessageBatcher.DEFAULT_MAX_QUEUE_SIZE),
+                    overflowPolicy);
+        }
         socketTask.connectSocket();
         HybridManager hybridManager = request.getView().getHybridManager();
         return new Response(
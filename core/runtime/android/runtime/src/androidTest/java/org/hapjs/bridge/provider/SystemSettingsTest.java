@@ -6,6 +6,9 @@
 package org.hapjs.bridge.provider;
 
 import android.content.Context;
+import android.database.Cursor;
+import android.os.SystemClock;
+import android.util.Log;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import androidx.test.platform.app.InstrumentationRegistry;
 import org.junit.Assert;
@@ -15,11 +18,16 @@ import org.junit.runner.RunWith;
 
 @RunWith(AndroidJUnit4.class)
 public class SystemSettingsTest {
+    private static final String TAG = "SystemSettingsTest";
+    private static final int KEY_COUNT = 50;
+
     @Before
     public void setup() {
         Context appContext = InstrumentationRegistry.getTargetContext();
         appContext.getContentResolver()
                 .delete(SettingsProvider.getSystemUri(appContext), null, null);
+        // 删除的通知是异步的, 直接使内存镜像失效
+        SystemSettings.getInstance().invalidate();
     }
 
     @Test
@@ -79,4 +87,39 @@ public class SystemSettingsTest {
         value = SystemSettings.getInstance().getString("String", "text");
         Assert.assertEquals("text", value);
     }
+
+    /**
+     * 对比逐项查询 ContentProvider 与读取内存镜像的耗时, 模拟启动时读取若干设置的场景.
+     */
+    @Test
+    public void benchmarkRead() throws Exception {
+        Context appContext = InstrumentationRegistry.getTargetContext();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            SystemSettings.getInstance().putInt("Key" + i, i);
+        }
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            Cursor cursor = appContext.getContentResolver().query(
+                    SettingsProvider.getSystemUri(appContext),
+                    new String[] {SettingsDatabaseHelper.SettingsColumns.VALUE},
+                    SettingsDatabaseHelper.SettingsColumns.NAME + "=?",
+                    new String[] {"Key" + i},
+                    null);
+            Assert.assertNotNull(cursor);
+            Assert.assertTrue(cursor.moveToNext());
+            Assert.assertEquals(i, Integer.parseInt(cursor.getString(0)));
+            cursor.close();
+        }
+        long queryCost = SystemClock.elapsedRealtimeNanos() - start;
+
+        SystemSettings.getInstance().invalidate();
+        start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            Assert.assertEquals(i, SystemSettings.getInstance().getInt("Key" + i, -1));
+        }
+        long cachedCost = SystemClock.elapsedRealtimeNanos() - start;
+        Log.i(TAG, "read " + KEY_COUNT + " settings, query cost " + (queryCost / 1000)
+                + "us, cached cost " + (cachedCost / 1000) + "us");
+    }
 }
@@ -28,6 +28,7 @@ public class ApplicationSettingsTest {
                 new ApplicationSettingsDatabaseHelper(mApplicationContext).getWritableDatabase();
         db.delete(ApplicationSettingsDatabaseHelper.TABLE_SETTINGS, null, null);
         db.close();
+        ApplicationSettings.getInstance(mApplicationContext).invalidate();
     }
 
     @Test
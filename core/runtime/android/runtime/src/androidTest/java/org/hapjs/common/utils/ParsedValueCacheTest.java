@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.common.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Color;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import org.hapjs.component.constants.Attributes;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class ParsedValueCacheTest {
+    private static final String TAG = "ParsedValueCacheTest";
+    private static final int DISTINCT_VALUES = 300;
+    private static final int ROUNDS = 1000;
+
+    @Test
+    public void testEviction() {
+        ParsedValueCache<Integer> cache = new ParsedValueCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        cache.put("c", 3);
+        assertTrue(cache.size() <= 2);
+        assertEquals(Integer.valueOf(3), cache.get("c"));
+    }
+
+    @Test
+    public void testColorCache() {
+        assertEquals(0xFFFF0000, ColorUtil.getColor("#ff0000"));
+        assertEquals(0xFFFF0000, ColorUtil.getColor("#ff0000"));
+        // 解析失败时的结果取决于默认值, 不能被缓存
+        assertEquals(Color.RED, ColorUtil.getColor("not-a-color", Color.RED));
+        assertEquals(Color.BLUE, ColorUtil.getColor("not-a-color", Color.BLUE));
+    }
+
+    /**
+     * 模拟长列表中反复解析几百个不同样式值的场景, 输出耗时供对比.
+     */
+    @Test
+    public void benchmarkParse() {
+        String[] colors = new String[DISTINCT_VALUES];
+        String[] lengths = new String[DISTINCT_VALUES];
+        for (int i = 0; i < DISTINCT_VALUES; i++) {
+            colors[i] = String.format("rgba(%d, %d, %d, 0.5)", i % 256, (i * 7) % 256, 128);
+            lengths[i] = i + ".5";
+        }
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < DISTINCT_VALUES; i++) {
+                ColorUtil.getColor(colors[i]);
+                Attributes.getFloat(null, lengths[i]);
+            }
+        }
+        long cost = SystemClock.elapsedRealtimeNanos() - start;
+        Log.i(TAG, "parse " + (DISTINCT_VALUES * ROUNDS * 2) + " values cost "
+                + (cost / 1000000) + "ms");
+        assertEquals(DISTINCT_VALUES + 0.5f, Attributes.getFloat(null, DISTINCT_VALUES + ".5"),
+                0.0001f);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.component;
+
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import org.hapjs.component.constants.Attributes;
+import org.hapjs.component.view.YogaLayout;
+import org.hapjs.component.view.state.State;
+import org.hapjs.render.css.value.CSSValueFactory;
+import org.hapjs.render.css.value.CSSValues;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class PaintStyleLayoutTest {
+    private static final int SIZE = 500;
+
+    /**
+     * 内容变化请求布局后紧接着只更新绘制样式, 仍需重新计算布局.
+     */
+    @Test
+    public void testPaintOnlyUpdateAfterSizeChange() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+                YogaLayout root = new YogaLayout(context);
+                TextView text = new TextView(context);
+                text.setText("a");
+                root.addView(text, new YogaLayout.LayoutParams(
+                        ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+                TestComponent component = new TestComponent(context, text);
+                layout(root);
+                int height = text.getHeight();
+
+                text.setText("a\nb\nc\nd");
+                Map<String, CSSValues> styles = new HashMap<>();
+                styles.put(Attributes.Style.OPACITY,
+                        CSSValueFactory.createCSSValues(State.NORMAL, "0.5"));
+                component.applyStyles(styles, true);
+                layout(root);
+
+                assertTrue(text.getHeight() > height);
+            }
+        });
+    }
+
+    private static void layout(View root) {
+        int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        root.measure(spec, spec);
+        root.layout(0, 0, root.getMeasuredWidth(), root.getMeasuredHeight());
+    }
+
+    private static class TestComponent extends Component<TextView> {
+        TestComponent(Context context, TextView host) {
+            super(null, context, null, -1, null, null);
+            mHost = host;
+        }
+
+        @Override
+        protected TextView createViewImpl() {
+            return mHost;
+        }
+    }
+}
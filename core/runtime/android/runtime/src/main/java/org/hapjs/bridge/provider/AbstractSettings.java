@@ -5,50 +5,87 @@
 
 package org.hapjs.bridge.provider;
 
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 设置的读写. 首次读取时一次加载所有设置到内存, 之后的读取直接使用内存中的镜像, 解析后的数值同样被缓存;
+ * 写入先写到存储, 成功后更新镜像. 绕过本类修改了存储的数据时, 需要调用 {@link #invalidate} 使镜像失效.
+ */
 public abstract class AbstractSettings implements Settings {
+    // 内存中的设置镜像, 为 null 时表示尚未加载
+    private Map<String, String> mValues;
+    private final Map<String, Object> mParsedValues = new HashMap<>();
+    // 每次失效或写入时递增, 加载期间发生变化时丢弃加载结果
+    private int mGeneration;
+
     @Override
     public boolean getBoolean(String name, boolean def) {
-        String value = getValue(name);
+        Object parsed = getParsedValue(name);
+        if (parsed instanceof Boolean) {
+            return (Boolean) parsed;
+        }
+        String value = getCachedValue(name);
         if (value == null) {
             return def;
         } else {
-            return Boolean.parseBoolean(value);
+            boolean result = Boolean.parseBoolean(value);
+            putParsedValue(name, value, result);
+            return result;
         }
     }
 
     @Override
     public float getFloat(String name, float def) {
-        String value = getValue(name);
+        Object parsed = getParsedValue(name);
+        if (parsed instanceof Float) {
+            return (Float) parsed;
+        }
+        String value = getCachedValue(name);
         if (value == null) {
             return def;
         } else {
-            return Float.parseFloat(value);
+            float result = Float.parseFloat(value);
+            putParsedValue(name, value, result);
+            return result;
         }
     }
 
     @Override
     public int getInt(String name, int def) {
-        String value = getValue(name);
+        Object parsed = getParsedValue(name);
+        if (parsed instanceof Integer) {
+            return (Integer) parsed;
+        }
+        String value = getCachedValue(name);
         if (value == null) {
             return def;
         } else {
-            return Integer.parseInt(value);
+            int result = Integer.parseInt(value);
+            putParsedValue(name, value, result);
+            return result;
         }
     }
 
     @Override
     public long getLong(String name, long def) {
-        String value = getValue(name);
+        Object parsed = getParsedValue(name);
+        if (parsed instanceof Long) {
+            return (Long) parsed;
+        }
+        String value = getCachedValue(name);
         if (value == null) {
             return def;
         } else {
-            return Long.parseLong(value);
+            long result = Long.parseLong(value);
+            putParsedValue(name, value, result);
+            return result;
         }
     }
 
     @Override
     public String getString(String name, String def) {
-        String value = getValue(name);
+        String value = getCachedValue(name);
         if (value == null) {
             value = def;
         }
@@ -57,30 +94,117 @@ public abstract class AbstractSettings implements Settings {
 
     @Override
     public boolean putBoolean(String name, boolean value) {
-        return putValue(name, String.valueOf(value));
+        return putCachedValue(name, String.valueOf(value));
     }
 
     @Override
     public boolean putFloat(String name, float value) {
-        return putValue(name, String.valueOf(value));
+        return putCachedValue(name, String.valueOf(value));
     }
 
     @Override
     public boolean putInt(String name, int value) {
-        return putValue(name, String.valueOf(value));
+        return putCachedValue(name, String.valueOf(value));
     }
 
     @Override
     public boolean putLong(String name, long value) {
-        return putValue(name, String.valueOf(value));
+        return putCachedValue(name, String.valueOf(value));
     }
 
     @Override
     public boolean putString(String name, String value) {
-        return putValue(name, value);
+        return putCachedValue(name, value);
+    }
+
+    /**
+     * 丢弃内存中的镜像, 下次读取时重新加载.
+     */
+    public synchronized void invalidate() {
+        mGeneration++;
+        mValues = null;
+        mParsedValues.clear();
+    }
+
+    /**
+     * 存储中 name 对应的值被其它进程修改, 重新读取该值.
+     */
+    protected void refresh(String name) {
+        int generation;
+        synchronized (this) {
+            if (mValues == null) {
+                return;
+            }
+            generation = mGeneration;
+        }
+        String value = getValue(name);
+        synchronized (this) {
+            if (generation == mGeneration) {
+                updateCachedValue(name, value);
+            }
+        }
+    }
+
+    private String getCachedValue(String name) {
+        int generation;
+        synchronized (this) {
+            if (mValues != null) {
+                return mValues.get(name);
+            }
+            generation = mGeneration;
+        }
+        Map<String, String> values = loadValues();
+        if (values == null) {
+            // 加载失败时退回逐项读取
+            return getValue(name);
+        }
+        synchronized (this) {
+            if (generation == mGeneration) {
+                mValues = values;
+            }
+        }
+        return values.get(name);
+    }
+
+    private boolean putCachedValue(String name, String value) {
+        boolean result = putValue(name, value);
+        if (result) {
+            synchronized (this) {
+                // 写入前开始的加载或刷新可能读到旧值, 需要丢弃
+                mGeneration++;
+                if (mValues != null) {
+                    updateCachedValue(name, value);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void updateCachedValue(String name, String value) {
+        if (value == null) {
+            mValues.remove(name);
+        } else {
+            mValues.put(name, value);
+        }
+        mParsedValues.remove(name);
+    }
+
+    private synchronized Object getParsedValue(String name) {
+        return mParsedValues.get(name);
+    }
+
+    private synchronized void putParsedValue(String name, String value, Object parsed) {
+        if (mValues != null && value.equals(mValues.get(name))) {
+            mParsedValues.put(name, parsed);
+        }
     }
 
     protected abstract String getValue(String name);
 
     protected abstract boolean putValue(String name, String value);
+
+    /**
+     * 读取所有设置, 失败时返回 null.
+     */
+    protected abstract Map<String, String> loadValues();
 }
@@ -15,6 +15,7 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.net.Uri;
 import android.os.Binder;
+import android.text.TextUtils;
 import android.util.Log;
 import androidx.annotation.Nullable;
 import org.hapjs.AbstractContentProvider;
@@ -91,7 +92,9 @@ public class SettingsProvider extends AbstractContentProvider {
         int code = mMatcher.match(uri);
         switch (code) {
             case MATCH_SYSTEM_SETTINGS:
-                return insert(uri, SettingsDatabaseHelper.TABLE_SYSTEM, values);
+                Uri result = insert(uri, SettingsDatabaseHelper.TABLE_SYSTEM, values);
+                notifyChange(uri, values.getAsString(SettingsDatabaseHelper.SettingsColumns.NAME));
+                return result;
             default:
                 break;
         }
@@ -106,8 +109,12 @@ public class SettingsProvider extends AbstractContentProvider {
         int code = mMatcher.match(uri);
         switch (code) {
             case MATCH_SYSTEM_SETTINGS:
-                return update(SettingsDatabaseHelper.TABLE_SYSTEM, values, selection,
+                int row = update(SettingsDatabaseHelper.TABLE_SYSTEM, values, selection,
                         selectionArgs);
+                if (row > 0) {
+                    notifyChange(uri, null);
+                }
+                return row;
             default:
                 break;
         }
@@ -122,13 +129,25 @@ public class SettingsProvider extends AbstractContentProvider {
         int code = mMatcher.match(uri);
         switch (code) {
             case MATCH_SYSTEM_SETTINGS:
-                return delete(SettingsDatabaseHelper.TABLE_SYSTEM, selection, selectionArgs);
+                int row = delete(SettingsDatabaseHelper.TABLE_SYSTEM, selection, selectionArgs);
+                if (row > 0) {
+                    notifyChange(uri, null);
+                }
+                return row;
             default:
                 break;
         }
         return 0;
     }
 
+    /**
+     * 通知各进程中 SystemSettings 的内存镜像, name 为空时表示多项设置可能发生了变化.
+     */
+    private void notifyChange(Uri uri, String name) {
+        Uri changedUri = TextUtils.isEmpty(name) ? uri : uri.buildUpon().appendPath(name).build();
+        getContext().getContentResolver().notifyChange(changedUri, null);
+    }
+
     private Cursor query(
             String table,
             String[] projection,
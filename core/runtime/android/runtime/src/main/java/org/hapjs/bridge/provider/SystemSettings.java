@@ -7,9 +7,13 @@ package org.hapjs.bridge.provider;
 
 import android.content.ContentValues;
 import android.content.Context;
+import android.database.ContentObserver;
 import android.database.Cursor;
 import android.net.Uri;
 import android.util.Log;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.hapjs.runtime.Runtime;
 
 public class SystemSettings extends AbstractSettings {
@@ -20,6 +24,29 @@ public class SystemSettings extends AbstractSettings {
     private SystemSettings(Context context) {
         mContext = context;
         mUri = SettingsProvider.getSystemUri(context);
+        ContentObserver observer =
+                new ContentObserver(null) {
+                    @Override
+                    public void onChange(boolean selfChange) {
+                        onChange(selfChange, null);
+                    }
+
+                    @Override
+                    public void onChange(boolean selfChange, Uri uri) {
+                        // content://authority/system/name
+                        List<String> segments = uri == null ? null : uri.getPathSegments();
+                        if (segments != null && segments.size() == 2) {
+                            refresh(segments.get(1));
+                        } else {
+                            invalidate();
+                        }
+                    }
+                };
+        try {
+            mContext.getContentResolver().registerContentObserver(mUri, true, observer);
+        } catch (SecurityException e) {
+            Log.e(TAG, "Fail to register observer for " + mUri, e);
+        }
     }
 
     public static SystemSettings getInstance() {
@@ -46,6 +73,31 @@ public class SystemSettings extends AbstractSettings {
         return null;
     }
 
+    @Override
+    protected Map<String, String> loadValues() {
+        String[] projections =
+                new String[] {
+                        SettingsDatabaseHelper.SettingsColumns.NAME,
+                        SettingsDatabaseHelper.SettingsColumns.VALUE
+                };
+        Cursor cursor = mContext.getContentResolver().query(mUri, projections, null, null, null);
+        if (cursor == null) {
+            return null;
+        }
+        Map<String, String> values = new HashMap<>();
+        try {
+            while (cursor.moveToNext()) {
+                String value = cursor.getString(1);
+                if (value != null) {
+                    values.put(cursor.getString(0), value);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        return values;
+    }
+
     @Override
     protected boolean putValue(String name, String value) {
         ContentValues values = new ContentValues();
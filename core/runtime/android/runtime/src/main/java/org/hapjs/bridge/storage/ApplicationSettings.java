@@ -10,6 +10,8 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.util.Log;
 import androidx.collection.LruCache;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.hapjs.bridge.ApplicationContext;
 import org.hapjs.bridge.provider.AbstractSettings;
@@ -98,6 +100,35 @@ public class ApplicationSettings extends AbstractSettings implements AutoCloseab
         return null;
     }
 
+    @Override
+    protected Map<String, String> loadValues() {
+        String[] projections =
+                new String[] {
+                        ApplicationSettingsDatabaseHelper.SettingsColumns.NAME,
+                        ApplicationSettingsDatabaseHelper.SettingsColumns.VALUE
+                };
+        Cursor cursor = null;
+        try {
+            cursor = query(projections, null, null);
+            if (cursor == null) {
+                return null;
+            }
+            Map<String, String> values = new HashMap<>();
+            while (cursor.moveToNext()) {
+                String value = cursor.getString(1);
+                if (value != null) {
+                    values.put(cursor.getString(0), value);
+                }
+            }
+            return values;
+        } catch (Exception e) {
+            Log.e(TAG, "loadValues: ", e);
+            return null;
+        } finally {
+            FileUtils.closeQuietly(cursor);
+        }
+    }
+
     @Override
     protected boolean putValue(String name, String value) {
         ContentValues values = new ContentValues();
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.cache.utils;
+
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.util.Log;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.hapjs.common.executors.Executors;
+import org.hapjs.common.utils.FileUtils;
+
+/**
+ * 并行解压. 先读取中央目录得到所有条目, 再由固定数量的任务在 io 线程池中并行解压, 每个任务使用从缓冲池
+ * 取得的缓冲区. 可以用 glob 只解压部分文件, 并在解压过程中回调进度.
+ *
+ * <p>路径穿越的防护与 {@link org.hapjs.cache.ZipExtractor} 相同: 跳过名字中包含 "../" 的条目;
+ * 另外与 {@link ZipUtils#unzip} 相同, 目标路径不在解压目录内时整体失败.
+ */
+public class ParallelUnzipper {
+    private static final String TAG = "ParallelUnzipper";
+
+    private static final int MAX_PARALLELISM = 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 100;
+    private static final BlockingQueue<byte[]> sBufferPool =
+            new ArrayBlockingQueue<>(MAX_PARALLELISM);
+
+    private final File mZipFile;
+    private final File mTargetDirectory;
+    private List<Pattern> mFilters;
+    private ProgressListener mProgressListener;
+
+    private final AtomicLong mExtractedBytes = new AtomicLong();
+    private final AtomicInteger mExtractedEntries = new AtomicInteger();
+    private long mTotalBytes;
+    private int mTotalEntries;
+    private long mLastProgressTime;
+
+    public ParallelUnzipper(File zipFile, File targetDirectory) {
+        mZipFile = zipFile;
+        mTargetDirectory = targetDirectory;
+    }
+
+    /**
+     * 只解压路径匹配任意一个 glob 的文件. "*" 和 "?" 不匹配 "/", "**" 匹配任意路径.
+     */
+    public ParallelUnzipper setFilters(List<String> globs) {
+        if (globs == null || globs.isEmpty()) {
+            mFilters = null;
+            return this;
+        }
+        mFilters = new ArrayList<>(globs.size());
+        for (String glob : globs) {
+            mFilters.add(Pattern.compile(globToRegex(glob)));
+        }
+        return this;
+    }
+
+    public ParallelUnzipper setProgressListener(ProgressListener listener) {
+        mProgressListener = listener;
+        return this;
+    }
+
+    public boolean unzip() {
+        long start = SystemClock.elapsedRealtime();
+        ZipFile zipFile = null;
+        try {
+            zipFile = new ZipFile(mZipFile);
+            List<ZipEntry> entries = collectEntries(zipFile);
+            if (entries == null) {
+                return false;
+            }
+            // 先解压大文件, 使各任务的负载更均衡
+            Collections.sort(entries, (a, b) -> Long.compare(b.getSize(), a.getSize()));
+            for (ZipEntry entry : entries) {
+                mTotalBytes += Math.max(entry.getSize(), 0);
+            }
+            mTotalEntries = entries.size();
+
+            boolean success = extractEntries(zipFile, entries);
+            notifyProgress(true);
+            Log.d(TAG, "unzip " + mZipFile.getName() + ", entries: " + mTotalEntries
+                    + ", bytes: " + mExtractedBytes.get() + ", success: " + success
+                    + ", cost: " + (SystemClock.elapsedRealtime() - start));
+            return success;
+        } catch (IOException e) {
+            Log.e(TAG, "IO exception.", e);
+            return false;
+        } finally {
+            FileUtils.closeQuietly(zipFile);
+        }
+    }
+
+    private List<ZipEntry> collectEntries(ZipFile zipFile) throws IOException {
+        String targetPath = mTargetDirectory.getCanonicalPath();
+        // 以目标路径去重, 同名条目只保留最后一个, 与顺序解压时后写入的覆盖先写入的结果一致,
+        // 也避免多个任务同时写同一个文件
+        Map<String, ZipEntry> entries = new LinkedHashMap<>();
+        Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+        while (enumeration.hasMoreElements()) {
+            ZipEntry entry = enumeration.nextElement();
+            String name = entry.getName();
+            // fix ZipperDown issue
+            if (!TextUtils.isEmpty(name) && name.contains("../")) {
+                continue;
+            }
+            if (!matches(name)) {
+                continue;
+            }
+            File targetFile = new File(mTargetDirectory, name);
+            String canonicalPath = targetFile.getCanonicalPath();
+            if (!canonicalPath.startsWith(targetPath)) {
+                Log.e(TAG, "seems a Zip Path Traversal attack! filename=" + name);
+                return null;
+            }
+            if (entry.isDirectory()) {
+                targetFile.mkdirs();
+            } else {
+                entries.put(canonicalPath, entry);
+            }
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    private boolean extractEntries(ZipFile zipFile, List<ZipEntry> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+        int parallelism = Math.min(entries.size(),
+                Math.min(MAX_PARALLELISM, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<Boolean>> futures = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            futures.add(Executors.io().submit(() -> {
+                byte[] buffer = obtainBuffer();
+                try {
+                    int index;
+                    while (!failed.get() && (index = nextIndex.getAndIncrement()) < entries.size()) {
+                        if (!extractEntry(zipFile, entries.get(index), buffer)) {
+                            failed.set(true);
+                        }
+                    }
+                } finally {
+                    recycleBuffer(buffer);
+                }
+                return !failed.get();
+            }));
+        }
+        try {
+            for (Future<Boolean> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            Log.e(TAG, "extract failed", e);
+            failed.set(true);
+        }
+        return !failed.get();
+    }
+
+    private boolean extractEntry(ZipFile zipFile, ZipEntry entry, byte[] buffer) {
+        File targetFile = new File(mTargetDirectory, entry.getName());
+        File parent = targetFile.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        InputStream in = null;
+        OutputStream out = null;
+        try {
+            in = zipFile.getInputStream(entry);
+            out = new FileOutputStream(targetFile);
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+                mExtractedBytes.addAndGet(count);
+                notifyProgress(false);
+            }
+            mExtractedEntries.incrementAndGet();
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "fail to extract " + entry.getName(), e);
+            return false;
+        } finally {
+            FileUtils.closeQuietly(in, out);
+        }
+    }
+
+    private void notifyProgress(boolean force) {
+        ProgressListener listener = mProgressListener;
+        if (listener == null) {
+            return;
+        }
+        synchronized (this) {
+            long now = SystemClock.elapsedRealtime();
+            if (!force && now - mLastProgressTime < PROGRESS_INTERVAL) {
+                return;
+            }
+            mLastProgressTime = now;
+        }
+        listener.onProgress(
+                mExtractedBytes.get(), mTotalBytes, mExtractedEntries.get(), mTotalEntries);
+    }
+
+    private boolean matches(String name) {
+        if (mFilters == null) {
+            return true;
+        }
+        for (Pattern filter : mFilters) {
+            if (filter.matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int length = glob.length();
+        for (int i = 0; i < length; i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                if (i + 1 < length && glob.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else if ("\\.[]{}()+-^$|".indexOf(c) >= 0) {
+                regex.append('\\').append(c);
+            } else {
+                regex.append(c);
+            }
+        }
+        return regex.toString();
+    }
+
+    private static byte[] obtainBuffer() {
+        byte[] buffer = sBufferPool.poll();
+        return buffer != null ? buffer : new byte[BUFFER_SIZE];
+    }
+
+    private static void recycleBuffer(byte[] buffer) {
+        sBufferPool.offer(buffer);
+    }
+
+    public interface ProgressListener {
+        /**
+         * 在解压线程中回调. 条目的原始大小未知时 totalBytes 可能小于 extractedBytes.
+         */
+        void onProgress(long extractedBytes, long totalBytes, int extractedEntries,
+                        int totalEntries);
+    }
+}
@@ -24,6 +24,12 @@ public abstract class AbstractLocationClient implements ILocationClient {
 
     protected abstract void stop();
 
+    /**
+     * 调整定位间隔和精度, 不支持的实现忽略. highAccuracy 为 false 时可以只使用网络定位以降低功耗.
+     */
+    public void setUpdateOptions(long interval, boolean highAccuracy) {
+    }
+
     @Override
     public void subscribe(boolean useCache, LocationChangedListener listener) {
         mListener = listener;
@@ -17,9 +17,15 @@ import java.util.List;
 
 public class DefaultLocationClient extends AbstractLocationClient {
 
+    private static final long DEFAULT_INTERVAL = 200;
+
     private LocationManager mLocationManager;
     private LocationListenerImpl mRealListener = new LocationListenerImpl();
     private Handler mMainHandler = new Handler(Looper.getMainLooper());
+    // 以下字段只在主线程访问
+    private long mInterval = DEFAULT_INTERVAL;
+    private boolean mHighAccuracy = true;
+    private boolean mStarted;
 
     public DefaultLocationClient(Context context) {
         super(context);
@@ -51,9 +57,40 @@ public class DefaultLocationClient extends AbstractLocationClient {
                 new Runnable() {
                     @Override
                     public void run() {
-                        for (String provider : LocationUtils.getEnabledProviders(mContext)) {
-                            mLocationManager
-                                    .requestLocationUpdates(provider, 200, 0, mRealListener);
+                        mStarted = true;
+                        requestLocationUpdates();
+                    }
+                });
+    }
+
+    @SuppressLint("MissingPermission")
+    private void requestLocationUpdates() {
+        List<String> providers = LocationUtils.getEnabledProviders(mContext);
+        // 低精度时有网络定位就不开 gps
+        boolean skipGps = !mHighAccuracy
+                && providers.contains(LocationManager.NETWORK_PROVIDER);
+        for (String provider : providers) {
+            if (skipGps && LocationManager.GPS_PROVIDER.equals(provider)) {
+                continue;
+            }
+            mLocationManager.requestLocationUpdates(provider, mInterval, 0, mRealListener);
+        }
+    }
+
+    @Override
+    public void setUpdateOptions(final long interval, final boolean highAccuracy) {
+        mMainHandler.post(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        if (mInterval == interval && mHighAccuracy == highAccuracy) {
+                            return;
+                        }
+                        mInterval = interval;
+                        mHighAccuracy = highAccuracy;
+                        if (mStarted) {
+                            mLocationManager.removeUpdates(mRealListener);
+                            requestLocationUpdates();
                         }
                     }
                 });
@@ -65,6 +102,7 @@ public class DefaultLocationClient extends AbstractLocationClient {
                 new Runnable() {
                     @Override
                     public void run() {
+                        mStarted = false;
                         mLocationManager.removeUpdates(mRealListener);
                     }
                 });
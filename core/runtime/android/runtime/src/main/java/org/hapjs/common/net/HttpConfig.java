@@ -24,6 +24,7 @@ public class HttpConfig {
     private static volatile boolean sIsAssertionErrorPreAvoid = false;
     private volatile OkHttpClient mOkHttpClient;
     private NetworkInterceptorProxy mNetworkInterceptorProxy;
+    private final PackageHttpClients mPackageClients = new PackageHttpClients();
 
     private HttpConfig() {
         mNetworkInterceptorProxy = new NetworkInterceptorProxy();
@@ -64,6 +65,33 @@ public class HttpConfig {
         return mOkHttpClient;
     }
 
+    /**
+     * 获取应用专用的 OkHttpClient, 与 {@link #getOkHttpClient()} 共享连接池，
+     * 但使用独立的 Dispatcher 并发配额和 http 缓存.
+     */
+    public OkHttpClient getOkHttpClient(String pkg) {
+        if (TextUtils.isEmpty(pkg)) {
+            return getOkHttpClient();
+        }
+        return mPackageClients.get(Runtime.getInstance().getContext(), getOkHttpClient(), pkg);
+    }
+
+    /**
+     * 应用退出时释放应用专用的 OkHttpClient: 取消未完成的请求并关闭其 http 缓存.
+     */
+    public void disposeOkHttpClient(String pkg) {
+        if (!TextUtils.isEmpty(pkg)) {
+            mPackageClients.remove(pkg);
+        }
+    }
+
+    /**
+     * 获取应用的请求排队时间和网络时间统计，应用未发起过请求时返回 null.
+     */
+    public HttpMetrics getHttpMetrics(String pkg) {
+        return mPackageClients.getMetrics(pkg);
+    }
+
     public void setNetworkInterceptor(Interceptor interceptor) {
         mNetworkInterceptorProxy.setBase(interceptor);
     }
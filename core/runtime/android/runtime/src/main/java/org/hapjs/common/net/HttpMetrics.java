@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.common.net;
+
+import android.os.SystemClock;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+
+/**
+ * 统计单个应用的网络请求耗时，区分在 Dispatcher 中排队等待的时间和实际的网络时间.
+ *
+ * <p>排队时间: 请求入队(callStart)到开始建立或获取连接; 网络时间: 开始建立或获取连接到请求结束.
+ * 命中缓存等没有发生网络连接的请求只计入 {@link #getLocalCallCount()}.
+ */
+public class HttpMetrics implements EventListener.Factory {
+    private final AtomicLong mCallCount = new AtomicLong();
+    private final AtomicLong mLocalCallCount = new AtomicLong();
+    private final AtomicLong mQueueWaitMillis = new AtomicLong();
+    private final AtomicLong mMaxQueueWaitMillis = new AtomicLong();
+    private final AtomicLong mNetworkMillis = new AtomicLong();
+    private final Runnable mCallStartListener;
+
+    public HttpMetrics() {
+        this(null);
+    }
+
+    /**
+     * @param callStartListener 请求发起(入队或同步执行)时在调用线程回调
+     */
+    HttpMetrics(Runnable callStartListener) {
+        mCallStartListener = callStartListener;
+    }
+
+    @Override
+    public EventListener create(Call call) {
+        return new CallMetrics();
+    }
+
+    public long getCallCount() {
+        return mCallCount.get();
+    }
+
+    public long getLocalCallCount() {
+        return mLocalCallCount.get();
+    }
+
+    public long getTotalQueueWaitMillis() {
+        return mQueueWaitMillis.get();
+    }
+
+    public long getMaxQueueWaitMillis() {
+        return mMaxQueueWaitMillis.get();
+    }
+
+    public long getTotalNetworkMillis() {
+        return mNetworkMillis.get();
+    }
+
+    @Override
+    public String toString() {
+        return "HttpMetrics { calls=" + getCallCount()
+                + " localCalls=" + getLocalCallCount()
+                + " queueWait=" + getTotalQueueWaitMillis()
+                + "ms maxQueueWait=" + getMaxQueueWaitMillis()
+                + "ms network=" + getTotalNetworkMillis() + "ms }";
+    }
+
+    private void record(long startMillis, long executeMillis, long endMillis) {
+        if (executeMillis < 0) {
+            mLocalCallCount.incrementAndGet();
+            return;
+        }
+        long queueWait = executeMillis - startMillis;
+        mCallCount.incrementAndGet();
+        mQueueWaitMillis.addAndGet(queueWait);
+        mNetworkMillis.addAndGet(endMillis - executeMillis);
+        long max;
+        do {
+            max = mMaxQueueWaitMillis.get();
+        } while (queueWait > max && !mMaxQueueWaitMillis.compareAndSet(max, queueWait));
+    }
+
+    private class CallMetrics extends EventListener {
+        private long mStartMillis;
+        private long mExecuteMillis = -1;
+
+        private void onExecute() {
+            if (mExecuteMillis < 0) {
+                mExecuteMillis = SystemClock.elapsedRealtime();
+            }
+        }
+
+        @Override
+        public void callStart(Call call) {
+            mStartMillis = SystemClock.elapsedRealtime();
+            if (mCallStartListener != null) {
+                mCallStartListener.run();
+            }
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            onExecute();
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            onExecute();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            onExecute();
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            record(mStartMillis, mExecuteMillis, SystemClock.elapsedRealtime());
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            record(mStartMillis, mExecuteMillis, SystemClock.elapsedRealtime());
+        }
+    }
+}
@@ -33,6 +33,8 @@ public class OkHttpClientBuilderFactory {
 
     private static final String CACHE_DIR = "http";
     private static final int MAX_CACHE_SIZE = 5 * 1024 * 1024; // 5M
+    private static final String PACKAGE_CACHE_DIR = "http_pkg";
+    private static final int MAX_PACKAGE_CACHE_SIZE = 2 * 1024 * 1024; // 2M
 
     private static final CipherSuite[] SECURE_CIPHER_SUITES;
     private static final TlsVersion[] SECURE_TLS_VERSIONS;
@@ -76,6 +78,14 @@ public class OkHttpClientBuilderFactory {
         return builder;
     }
 
+    /**
+     * 每个应用独立的 http 缓存，大小超过配额后按 LRU 淘汰.
+     */
+    public static Cache createPackageCache(Context context, String pkg) {
+        File cacheFile = new File(new File(context.getCacheDir(), PACKAGE_CACHE_DIR), pkg);
+        return new Cache(cacheFile, MAX_PACKAGE_CACHE_SIZE);
+    }
+
     private static void setSslConfiguration (OkHttpClient.Builder builder) {
         if (Build.VERSION.SDK_INT <= Build.VERSION_CODES.KITKAT) {
             setSslSocketFactoryIfNeed(builder);
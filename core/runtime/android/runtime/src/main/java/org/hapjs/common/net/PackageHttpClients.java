@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.common.net;
+
+import android.content.Context;
+import android.util.Log;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import okhttp3.Cache;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * 为每个应用提供独立的 OkHttpClient, 与共享的 client 使用同一个连接池，但各自拥有独立的
+ * Dispatcher 和 http 磁盘缓存.
+ *
+ * <p>全局的并发请求数在有请求的应用之间平均分配，避免单个应用占满所有请求槽位, 应用发起请求时
+ * 才计为有请求, Dispatcher 空闲后不再计入; 每个应用的 http 缓存有独立的配额，超出后由 okhttp 的
+ * Cache 按 LRU 淘汰, 应用退出时关闭.
+ */
+class PackageHttpClients {
+    private static final String TAG = "PackageHttpClients";
+    private static final int MAX_REQUESTS = 64;
+    private static final int MIN_REQUESTS_PER_PACKAGE = 8;
+    private static final int MAX_REQUESTS_PER_HOST = 5;
+
+    private final Map<String, Entry> mEntries = new HashMap<>();
+
+    synchronized OkHttpClient get(Context context, OkHttpClient base, String pkg) {
+        Entry entry = mEntries.get(pkg);
+        if (entry == null) {
+            entry = new Entry(pkg, OkHttpClientBuilderFactory.createPackageCache(context, pkg));
+            mEntries.put(pkg, entry);
+        }
+        if (entry.mClient == null || entry.mBase != base) {
+            entry.mBase = base;
+            entry.mClient = base.newBuilder()
+                    .dispatcher(entry.mDispatcher)
+                    .cache(entry.mCache)
+                    .eventListenerFactory(entry.mMetrics)
+                    .build();
+        }
+        return entry.mClient;
+    }
+
+    synchronized HttpMetrics getMetrics(String pkg) {
+        Entry entry = mEntries.get(pkg);
+        return entry == null ? null : entry.mMetrics;
+    }
+
+    /**
+     * 应用退出时调用, 取消应用的请求并关闭其 http 缓存.
+     */
+    void remove(String pkg) {
+        Entry entry;
+        synchronized (this) {
+            entry = mEntries.remove(pkg);
+            if (entry == null) {
+                return;
+            }
+            if (entry.mActive) {
+                rebalance();
+            }
+        }
+        entry.mDispatcher.cancelAll();
+        try {
+            entry.mCache.close();
+        } catch (IOException e) {
+            Log.w(TAG, "close cache failed: " + pkg, e);
+        }
+    }
+
+    private synchronized void onCallStart(Entry entry) {
+        if (!entry.mActive && mEntries.get(entry.mPackage) == entry) {
+            entry.mActive = true;
+            rebalance();
+        }
+    }
+
+    private synchronized void onIdle(Entry entry) {
+        if (entry.mActive && entry.mDispatcher.runningCallsCount() == 0
+                && entry.mDispatcher.queuedCallsCount() == 0) {
+            entry.mActive = false;
+            rebalance();
+        }
+    }
+
+    private void rebalance() {
+        int activeCount = 0;
+        for (Entry entry : mEntries.values()) {
+            if (entry.mActive) {
+                activeCount++;
+            }
+        }
+        int maxRequests = Math.max(MIN_REQUESTS_PER_PACKAGE,
+                MAX_REQUESTS / Math.max(1, activeCount));
+        for (Entry entry : mEntries.values()) {
+            if (entry.mDispatcher.getMaxRequests() != maxRequests) {
+                entry.mDispatcher.setMaxRequests(maxRequests);
+            }
+        }
+    }
+
+    private class Entry {
+        private final Dispatcher mDispatcher = new Dispatcher();
+        private final HttpMetrics mMetrics;
+        private final String mPackage;
+        private final Cache mCache;
+        private OkHttpClient mBase;
+        private OkHttpClient mClient;
+        private boolean mActive;
+
+        Entry(String pkg, Cache cache) {
+            mPackage = pkg;
+            mCache = cache;
+            mMetrics = new HttpMetrics(() -> onCallStart(this));
+            mDispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+            mDispatcher.setIdleCallback(() -> onIdle(this));
+        }
+    }
+}
@@ -19,6 +19,8 @@ public class ColorUtil {
 
     private static final String TAG = "ColorUtil";
     private static final Map<String, Integer> colorMap = new HashMap<>();
+    // 已解析的颜色值, 解析失败的不缓存(结果取决于调用方传入的默认值)
+    private static final ParsedValueCache<Integer> sParsedColors = new ParsedValueCache<>(512);
     private static final Pattern RGB_PATTERN = Pattern.compile("^#[0-9a-fA-F]{3,9}$");
     private static final Pattern FUNCTION_RGBA_PATTERN =
             Pattern.compile(
@@ -200,32 +202,42 @@ public class ColorUtil {
         if (TextUtils.isEmpty(color)) {
             return defaultColor;
         }
+        Integer cachedColor = sParsedColors.get(color);
+        if (cachedColor != null) {
+            return cachedColor;
+        }
+        String rawColor = color;
         color = color.trim(); // remove non visible codes
 
-        int resultColor = defaultColor;
+        Integer resultColor = null;
         if (!TextUtils.isEmpty(color) && (color.startsWith("hsla(") || color.startsWith("hsl("))) {
-            resultColor = getHslValues(color, defaultColor);
-            return resultColor;
-        }
-        try {
-            ColorConvertHandler[] handlers = ColorConvertHandler.values();
-            Integer convertedColor;
-            for (ColorConvertHandler handler : handlers) {
-                convertedColor = handler.handle(color);
-                if (convertedColor != null) {
-                    resultColor = convertedColor;
-                    break;
+            resultColor = getHslValues(color);
+        } else {
+            try {
+                ColorConvertHandler[] handlers = ColorConvertHandler.values();
+                for (ColorConvertHandler handler : handlers) {
+                    resultColor = handler.handle(color);
+                    if (resultColor != null) {
+                        break;
+                    }
                 }
+            } catch (Exception e) {
+                Log.e(TAG, "get color error", e);
             }
-        } catch (Exception e) {
-            Log.e(TAG, "get color error", e);
         }
+        if (resultColor == null) {
+            return defaultColor;
+        }
+        sParsedColors.put(rawColor, resultColor);
         return resultColor;
     }
 
-    private static int getHslValues(String hsla, int defaultColor) {
+    /**
+     * @return 解析失败时返回 null
+     */
+    private static Integer getHslValues(String hsla) {
         if (TextUtils.isEmpty(hsla)) {
-            return defaultColor;
+            return null;
         }
         float[] hslValues = null;
         String hslaRealString = "";
@@ -293,7 +305,7 @@ public class ColorUtil {
         if (!isRightValue) {
             Log.e(TAG, "color string is not right : " + hsla);
         }
-        int color = defaultColor;
+        Integer color = null;
         if (null != hslValues) {
             int[] rgb = hslToRgb(hslValues[0], hslValues[1], hslValues[2]);
             if (null != rgb && rgb.length == 3) {
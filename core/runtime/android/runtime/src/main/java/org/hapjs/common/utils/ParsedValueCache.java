@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.common.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * css 值字符串到解析结果的缓存, 所有组件共享, 可在任意线程使用.
+ *
+ * <p>页面中出现的不同样式值通常只有几百个, 超过上限时直接清空重新累积, 不维护 LRU 顺序, 读取无锁.
+ * 缓存的值必须是不可变的, 或者调用方保证不会修改.
+ */
+public class ParsedValueCache<V> {
+
+    private final ConcurrentHashMap<String, V> mValues = new ConcurrentHashMap<>();
+    private final int mMaxSize;
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+
+    public ParsedValueCache(int maxSize) {
+        mMaxSize = maxSize;
+    }
+
+    public V get(String key) {
+        V value = mValues.get(key);
+        if (value != null) {
+            mHitCount.incrementAndGet();
+        } else {
+            mMissCount.incrementAndGet();
+        }
+        return value;
+    }
+
+    public void put(String key, V value) {
+        if (key == null || value == null) {
+            return;
+        }
+        if (mValues.size() >= mMaxSize) {
+            mValues.clear();
+        }
+        mValues.put(key, value);
+    }
+
+    public void clear() {
+        mValues.clear();
+    }
+
+    public int size() {
+        return mValues.size();
+    }
+
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+}
@@ -22,6 +22,7 @@ import org.hapjs.model.AppInfo;
 import org.hapjs.render.Page;
 import org.hapjs.render.PageManager;
 import org.hapjs.render.PageNotFoundException;
+import org.hapjs.render.PagePreloader;
 import org.hapjs.render.RootView;
 import org.hapjs.runtime.HapEngine;
 
@@ -145,7 +146,10 @@ public class RouterUtils {
                 // TODO: call page's onNewIntent callback
                 return false;
             } else {
+                Page fromPage = pageManager.getCurrPage();
                 pageManager.push(page);
+                PagePreloader.onRoute(pageManager.getAppInfo().getPackage(),
+                        fromPage == null ? null : fromPage.getPath(), page.getPath());
                 return true;
             }
         }
@@ -225,7 +229,12 @@ public class RouterUtils {
                     pageManager.buildErrorPage(request,
                             currentPage != null && currentPage.isPageNotFound());
         }
+        Page fromPage = pageManager.getCurrPage();
         pageManager.replace(page);
+        if (page != null && !page.isPageNotFound()) {
+            PagePreloader.onRoute(pageManager.getAppInfo().getPackage(),
+                    fromPage == null ? null : fromPage.getPath(), page.getPath());
+        }
     }
 
     public static void replaceLeftPage(PageManager pageManager, HybridRequest request) {
@@ -134,7 +134,28 @@ public abstract class Component<T extends View>
     private static final String CALLBACK_KEY_FAIL = "fail";
     private static final String CALLBACK_KEY_COMPLETE = "complete";
     private static final int MIN_DISPLAY_SHOW_PLATFORM_VERSION = 1080;
+    // 只影响绘制, 不影响尺寸和位置的样式, 仅包含这些样式的更新无需重新布局
+    private static final Set<String> PAINT_ONLY_STYLES = new HashSet<>();
     private static SysOpProvider sSysOpProvider = ProviderManager.getDefault().getProvider(SysOpProvider.NAME);
+
+    static {
+        PAINT_ONLY_STYLES.add(Attributes.Style.COLOR);
+        PAINT_ONLY_STYLES.add(Attributes.Style.OPACITY);
+        PAINT_ONLY_STYLES.add(Attributes.Style.BACKGROUND_COLOR);
+        PAINT_ONLY_STYLES.add(Attributes.Style.BACKGROUND_SIZE);
+        PAINT_ONLY_STYLES.add(Attributes.Style.BACKGROUND_REPEAT);
+        PAINT_ONLY_STYLES.add(Attributes.Style.BACKGROUND_POSITION);
+        PAINT_ONLY_STYLES.add(Attributes.Style.BORDER_COLOR);
+        PAINT_ONLY_STYLES.add(Attributes.Style.BORDER_LEFT_COLOR);
+        PAINT_ONLY_STYLES.add(Attributes.Style.BORDER_TOP_COLOR);
+        PAINT_ONLY_STYLES.add(Attributes.Style.BORDER_RIGHT_COLOR);
+        PAINT_ONLY_STYLES.add(Attributes.Style.BORDER_BOTTOM_COLOR);
+        PAINT_ONLY_STYLES.add(Attributes.Style.BORDER_STYLE);
+        PAINT_ONLY_STYLES.add(Attributes.Style.FILTER);
+        PAINT_ONLY_STYLES.add(Attributes.Style.TRANSFORM);
+        PAINT_ONLY_STYLES.add(Attributes.Style.TRANSFORM_ORIGIN);
+    }
+
     protected Context mContext;
     protected Container mParent;
     protected int mRef;
@@ -530,10 +551,19 @@ public abstract class Component<T extends View>
             return;
         }
 
-        handleStyles();
+        handleStyles(affectsLayout(attrs.keySet()));
+    }
+
+    private static boolean affectsLayout(Set<String> styleKeys) {
+        for (String key : styleKeys) {
+            if (!PAINT_ONLY_STYLES.contains(key)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private void handleStyles() {
+    private void handleStyles(boolean layoutAffected) {
         if (mPosition != null) {
             mPosition.applyPosition();
         }
@@ -573,7 +603,10 @@ public abstract class Component<T extends View>
             removeGlobalLayoutListener();
         }
 
-        invalidateYogaLayout();
+        // host 已请求重新布局(如文本内容变化)时, 即使本次只更新了绘制样式也要标记 yoga 节点, 否则布局被跳过
+        if (layoutAffected || mHost.isLayoutRequested()) {
+            invalidateYogaLayout();
+        }
     }
 
     public boolean isApplyedPseudoStyle() {
@@ -658,7 +691,7 @@ public abstract class Component<T extends View>
             return;
         }
 
-        handleStyles();
+        handleStyles(affectsLayout(attrs.keySet()));
 
         setApplyedPseudoStyle(true);
         mCachedAttrsSet.clear();
@@ -685,6 +685,7 @@ public abstract class Container<T extends View> extends Component<T> {
         }
 
         public void onChildAdded(RecyclerDataItem child, int index) {
+            mChildren.onItemInserted(index);
             child.assignParent(this);
 
             if (isUseWithTemplate()) {
@@ -721,6 +722,7 @@ public abstract class Container<T extends View> extends Component<T> {
         }
 
         public void onChildRemoved(RecyclerDataItem child, int index) {
+            mChildren.onItemRemoved(child, index);
             child.assignParent(null);
 
             if (isUseWithTemplate()) {
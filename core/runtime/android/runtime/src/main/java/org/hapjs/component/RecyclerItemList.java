@@ -6,14 +6,38 @@
 package org.hapjs.component;
 
 import androidx.annotation.NonNull;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 public class RecyclerItemList implements Iterable<RecyclerDataItem> {
     private List<? extends RecyclerDataItem.Holder> mHolders;
 
+    /**
+     * item 到位置的索引. 只有 [0, mIndexedCount) 区间内的位置是准确的, 插入或删除时把该区间截断到变更位置,
+     * 查询时再从截断处补齐. 列表尾部追加(分页加载)时已有的索引保持有效, indexOf 为 O(1).
+     */
+    private final Map<RecyclerDataItem, Integer> mIndexes = new IdentityHashMap<>();
+    private int mIndexedCount;
+
     void setRecyclerItemHolders(List<? extends RecyclerDataItem.Holder> holders) {
         mHolders = holders;
+        mIndexes.clear();
+        mIndexedCount = 0;
+    }
+
+    void onItemInserted(int index) {
+        if (index >= 0 && index < mIndexedCount) {
+            mIndexedCount = index;
+        }
+    }
+
+    void onItemRemoved(RecyclerDataItem item, int index) {
+        mIndexes.remove(item);
+        if (index >= 0 && index < mIndexedCount) {
+            mIndexedCount = index;
+        }
     }
 
     public int size() {
@@ -25,12 +49,20 @@ public class RecyclerItemList implements Iterable<RecyclerDataItem> {
     }
 
     public int indexOf(Object o) {
-        for (int i = 0; i < size(); i++) {
-            if (get(i).equals(o)) {
-                return i;
-            }
+        Integer index = mIndexes.get(o);
+        if (index != null && index < mIndexedCount) {
+            return index;
+        }
+        int size = size();
+        if (mIndexedCount > size) {
+            mIndexedCount = size;
+        }
+        for (int i = mIndexedCount; i < size; i++) {
+            mIndexes.put(get(i), i);
         }
-        return -1;
+        mIndexedCount = size;
+        index = mIndexes.get(o);
+        return index == null ? -1 : index;
     }
 
     @NonNull
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 主线程上执行一个 RenderActionPackage 期间的批处理范围. 组件可以在批处理期间暂存变更通知,
+ * 在该批 action 全部执行完后统一提交, 例如将逐个的 item 插入合并为一次范围插入.
+ *
+ * <p>仅在主线程使用.
+ */
+public final class UpdateBatch {
+
+    private static final Set<Flusher> sPendingFlushers = new LinkedHashSet<>();
+    private static int sDepth;
+
+    private UpdateBatch() {
+    }
+
+    public static void begin() {
+        sDepth++;
+    }
+
+    public static void end() {
+        if (sDepth == 0) {
+            return;
+        }
+        if (--sDepth == 0) {
+            flushAll();
+        }
+    }
+
+    public static boolean isBatching() {
+        return sDepth > 0;
+    }
+
+    /**
+     * 登记在批处理结束时需要提交的组件, 不在批处理中时立即提交.
+     */
+    public static void schedule(Flusher flusher) {
+        if (sDepth > 0) {
+            sPendingFlushers.add(flusher);
+        } else {
+            flusher.flush();
+        }
+    }
+
+    public static void cancel(Flusher flusher) {
+        sPendingFlushers.remove(flusher);
+    }
+
+    private static void flushAll() {
+        while (!sPendingFlushers.isEmpty()) {
+            List<Flusher> flushers = new ArrayList<>(sPendingFlushers);
+            sPendingFlushers.clear();
+            for (Flusher flusher : flushers) {
+                flusher.flush();
+            }
+        }
+    }
+
+    public interface Flusher {
+        void flush();
+    }
+}
@@ -13,7 +13,6 @@ import android.animation.ObjectAnimator;
 import android.animation.PropertyValuesHolder;
 import android.animation.TimeInterpolator;
 import android.animation.ValueAnimator;
-import android.graphics.Color;
 import android.os.Build;
 import android.text.TextUtils;
 import android.util.ArrayMap;
@@ -25,7 +24,6 @@ import com.facebook.yoga.YogaNode;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import org.hapjs.common.utils.ColorUtil;
 import org.hapjs.common.utils.FloatUtil;
 import org.hapjs.component.Component;
 import org.hapjs.component.ComponentBackgroundComposer;
@@ -34,9 +32,7 @@ import org.hapjs.component.utils.YogaUtil;
 import org.hapjs.component.view.YogaLayout;
 import org.hapjs.component.view.drawable.SizeBackgroundDrawable.Position;
 import org.hapjs.runtime.HapEngine;
-import org.json.JSONArray;
 import org.json.JSONException;
-import org.json.JSONObject;
 
 /**
  * 解析动画的工具类，待解析 JSONArray 关键帧序列如下：
@@ -78,11 +74,8 @@ public class AnimationParser {
     static final String PROPERTY_PIVOT_Y = "pivotY";
     static final String PROPERTY_TRANSLATION_Z = "translationZ";
     private static final String TAG = "AnimationParser";
-    private static final String TAG_TIME = "time";
-    private static final String TAG_TRANSFORM = "transform";
     private static final String TAG_TIME_MILLISECOND = "ms";
     private static final String TAG_TIME_SECOND = "s";
-    private static final String TAG_TRANSFORM_ORIGIN = "transform-origin";
 
     private AnimationParser() {
     }
@@ -102,8 +95,8 @@ public class AnimationParser {
         }
 
         try {
-            JSONArray keyframes = new JSONArray(keyframesStr);
-            if (keyframes.length() == 0) {
+            KeyframeProgram program = KeyframeProgram.get(keyframesStr);
+            if (program.frames.length == 0) {
                 return null;
             }
 
@@ -123,20 +116,18 @@ public class AnimationParser {
             // 动画name属性集合，用于保存各属性动画帧
             Map<String, List<Keyframe>> keyframeMap = new ArrayMap<>(1);
             TimeInterpolator interpolator = animatorSet.getKeyFrameInterpolator();
-            int len = keyframes.length();
+            int len = program.frames.length;
             for (int i = 0; i < len; i++) {
-                JSONObject keyframe = keyframes.getJSONObject(i);
+                KeyframeProgram.Frame keyframe = program.frames[i];
                 // 标志某个动画帧结束的哨兵帧
-                String animationName = keyframe.optString(TAG_ANIMATION_NAME, "");
-                boolean shouldCreateAnimators = !TextUtils.isEmpty(animationName);
+                String animationName = keyframe.animationName;
+                boolean shouldCreateAnimators = keyframe.isEndOfAnimation();
 
                 if (!shouldCreateAnimators) {
 
-                    int time = keyframe.getInt(TAG_TIME);
-                    float fraction = ((float) time) / 100;
+                    float fraction = keyframe.fraction;
 
-                    double opacity =
-                            Attributes.getDouble(keyframe.optString(TAG_OPACITY), Double.NaN);
+                    double opacity = keyframe.opacity;
                     if (!Double.isNaN(opacity)) {
                         getKeyframeList(PROPERTY_ALPHA, keyframeMap)
                                 .add(
@@ -145,19 +136,15 @@ public class AnimationParser {
                                                 interpolator));
                     }
 
-                    String backgroundColorStr = keyframe.optString(TAG_BACKGROUND_COLOR);
-                    if (!TextUtils.isEmpty(backgroundColorStr)) {
+                    if (keyframe.hasBackgroundColor) {
                         getKeyframeList(PROPERTY_BACKGROUND_COLOR, keyframeMap)
                                 .add(
                                         keyframeWithInterpolator(
-                                                Keyframe.ofInt(
-                                                        fraction, ColorUtil
-                                                                .getColor(backgroundColorStr,
-                                                                        Color.TRANSPARENT)),
+                                                Keyframe.ofInt(fraction, keyframe.backgroundColor),
                                                 interpolator));
                     }
 
-                    String backgroundPositionStr = keyframe.optString(TAG_BACKGROUND_POSITION);
+                    String backgroundPositionStr = keyframe.backgroundPosition;
                     if (!TextUtils.isEmpty(backgroundPositionStr)) {
                         ComponentBackgroundComposer backgroundComposer =
                                 component.getOrCreateBackgroundComposer();
@@ -179,26 +166,22 @@ public class AnimationParser {
                                                 interpolator));
                     }
 
-                    int width = Attributes.getInt(hapEngine, keyframe.optString(TAG_WIDTH), -1);
+                    int width = Attributes.getInt(hapEngine, keyframe.width, -1);
                     if (width >= 0) {
                         getKeyframeList(PROPERTY_WIDTH, keyframeMap)
                                 .add(keyframeWithInterpolator(Keyframe.ofInt(fraction, width),
                                         interpolator));
                     }
 
-                    int height = Attributes.getInt(hapEngine, keyframe.optString(TAG_HEIGHT), -1);
+                    int height = Attributes.getInt(hapEngine, keyframe.height, -1);
                     if (height >= 0) {
                         getKeyframeList(PROPERTY_HEIGHT, keyframeMap)
                                 .add(keyframeWithInterpolator(Keyframe.ofInt(fraction, height),
                                         interpolator));
                     }
 
-                    JSONObject transformObject = keyframe.optJSONObject(TAG_TRANSFORM);
-                    if (transformObject == null) {
-                        transformObject = Transform.toJsonObject(keyframe.opt(TAG_TRANSFORM));
-                    }
-                    if (transformObject != null) {
-                        double rotate = getRotate(transformObject.optString(TAG_ROTATE));
+                    if (keyframe.hasTransform) {
+                        double rotate = keyframe.rotate;
                         if (!Double.isNaN(rotate)) {
                             getKeyframeList(PROPERTY_ROTATION, keyframeMap)
                                     .add(
@@ -207,7 +190,7 @@ public class AnimationParser {
                                                     interpolator));
                         }
 
-                        double rotateX = getRotate(transformObject.optString(TAG_ROTATE_X));
+                        double rotateX = keyframe.rotateX;
                         if (!Double.isNaN(rotateX)) {
                             getKeyframeList(PROPERTY_ROTATION_X, keyframeMap)
                                     .add(
@@ -216,7 +199,7 @@ public class AnimationParser {
                                                     interpolator));
                         }
 
-                        double rotateY = getRotate(transformObject.optString(TAG_ROTATE_Y));
+                        double rotateY = keyframe.rotateY;
                         if (!Double.isNaN(rotateY)) {
                             getKeyframeList(PROPERTY_ROTATION_Y, keyframeMap)
                                     .add(
@@ -225,9 +208,7 @@ public class AnimationParser {
                                                     interpolator));
                         }
 
-                        double scaleX =
-                                Attributes.getDouble(transformObject.optString(TAG_SCALE_X),
-                                        Double.NaN);
+                        double scaleX = keyframe.scaleX;
                         if (!Double.isNaN(scaleX)) {
                             List<Keyframe> keyframeList =
                                     getKeyframeList(PROPERTY_SCALE_X, keyframeMap);
@@ -238,9 +219,7 @@ public class AnimationParser {
                             resolveDuplicate(hapEngine, interpolatorKeyframe, keyframeList);
                         }
 
-                        double scaleY =
-                                Attributes.getDouble(transformObject.optString(TAG_SCALE_Y),
-                                        Double.NaN);
+                        double scaleY = keyframe.scaleY;
                         if (!Double.isNaN(scaleY)) {
                             List<Keyframe> keyframeList =
                                     getKeyframeList(PROPERTY_SCALE_Y, keyframeMap);
@@ -251,7 +230,7 @@ public class AnimationParser {
                             resolveDuplicate(hapEngine, interpolatorKeyframe, keyframeList);
                         }
 
-                        String strX = transformObject.optString(TAG_TRANSLATE_X);
+                        String strX = keyframe.translateX;
                         float translateX = FloatUtil.UNDEFINED;
                         if (!TextUtils.isEmpty(strX)) {
                             if (strX.endsWith(Attributes.Unit.PERCENT)) {
@@ -281,7 +260,7 @@ public class AnimationParser {
                                                     interpolator));
                         }
 
-                        String strY = transformObject.optString(TAG_TRANSLATE_Y);
+                        String strY = keyframe.translateY;
                         float translateY = FloatUtil.UNDEFINED;
                         if (!TextUtils.isEmpty(strY)) {
                             if (strY.endsWith(Attributes.Unit.PERCENT)) {
@@ -311,7 +290,7 @@ public class AnimationParser {
                                                     interpolator));
                         }
 
-                        String strZ = transformObject.optString(TAG_TRANSLATE_Z);
+                        String strZ = keyframe.translateZ;
                         float translateZ = FloatUtil.UNDEFINED;
                         if (!TextUtils.isEmpty(strZ)) {
                             if (strZ.endsWith(Attributes.Unit.PERCENT)) {
@@ -334,11 +313,7 @@ public class AnimationParser {
                     }
 
                     // support transform origin
-                    String transformOriginStr =
-                            keyframe.optString(Attributes.Style.TRANSFORM_ORIGIN);
-                    if (TextUtils.isEmpty(transformOriginStr)) {
-                        transformOriginStr = keyframe.optString(TAG_TRANSFORM_ORIGIN);
-                    }
+                    String transformOriginStr = keyframe.transformOrigin;
                     float pivotX = FloatUtil.UNDEFINED;
                     float pivotY = FloatUtil.UNDEFINED;
                     if (!TextUtils.isEmpty(transformOriginStr)) {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.component.animation;
+
+import android.graphics.Color;
+import android.text.TextUtils;
+import android.util.Log;
+import android.util.LruCache;
+import org.hapjs.common.utils.ColorUtil;
+import org.hapjs.component.constants.Attributes;
+import org.hapjs.runtime.BuildConfig;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * 预编译的关键帧序列. 与组件无关的部分(json 解析, 颜色, 透明度, 旋转, 缩放)只在编译时计算一次;
+ * 依赖 HapEngine 或组件尺寸的值(长度, 百分比, transform-origin)保留原始字符串, 在实例化时计算.
+ *
+ * <p>编译结果不可变, 按关键帧字符串缓存, 列表中大量 item 使用同一个动画时可直接复用.
+ */
+final class KeyframeProgram {
+
+    private static final String TAG = "KeyframeProgram";
+    private static final int MAX_CACHE_SIZE = 32;
+    private static final int LOG_INTERVAL = 100;
+
+    private static final String TAG_TIME = "time";
+    private static final String TAG_TRANSFORM = "transform";
+    private static final String TAG_TRANSFORM_ORIGIN = "transform-origin";
+
+    private static final LruCache<String, KeyframeProgram> sCache =
+            new LruCache<>(MAX_CACHE_SIZE);
+
+    final Frame[] frames;
+
+    private KeyframeProgram(Frame[] frames) {
+        this.frames = frames;
+    }
+
+    static KeyframeProgram get(String keyframesStr) throws JSONException {
+        KeyframeProgram program = sCache.get(keyframesStr);
+        if (program == null) {
+            program = compile(keyframesStr);
+            sCache.put(keyframesStr, program);
+        }
+        if (BuildConfig.DEBUG) {
+            int requestCount = sCache.hitCount() + sCache.missCount();
+            if (requestCount % LOG_INTERVAL == 0) {
+                Log.d(TAG, "keyframe cache hit rate: " + getHitRate()
+                        + ", requests: " + requestCount);
+            }
+        }
+        return program;
+    }
+
+    /**
+     * @return 缓存命中率, 取值 [0, 1]
+     */
+    static float getHitRate() {
+        int hit = sCache.hitCount();
+        int total = hit + sCache.missCount();
+        return total == 0 ? 0 : (float) hit / total;
+    }
+
+    private static KeyframeProgram compile(String keyframesStr) throws JSONException {
+        JSONArray keyframes = new JSONArray(keyframesStr);
+        int len = keyframes.length();
+        Frame[] frames = new Frame[len];
+        for (int i = 0; i < len; i++) {
+            frames[i] = compileFrame(keyframes.getJSONObject(i));
+        }
+        return new KeyframeProgram(frames);
+    }
+
+    private static Frame compileFrame(JSONObject keyframe) throws JSONException {
+        Frame frame = new Frame();
+        // 标志某个动画帧结束的哨兵帧
+        frame.animationName = keyframe.optString(AnimationParser.TAG_ANIMATION_NAME, "");
+        if (!TextUtils.isEmpty(frame.animationName)) {
+            return frame;
+        }
+
+        frame.fraction = ((float) keyframe.getInt(TAG_TIME)) / 100;
+        frame.opacity =
+                Attributes.getDouble(keyframe.optString(AnimationParser.TAG_OPACITY), Double.NaN);
+
+        String backgroundColorStr = keyframe.optString(AnimationParser.TAG_BACKGROUND_COLOR);
+        if (!TextUtils.isEmpty(backgroundColorStr)) {
+            frame.hasBackgroundColor = true;
+            frame.backgroundColor = ColorUtil.getColor(backgroundColorStr, Color.TRANSPARENT);
+        }
+        frame.backgroundPosition = keyframe.optString(AnimationParser.TAG_BACKGROUND_POSITION);
+        frame.width = keyframe.optString(AnimationParser.TAG_WIDTH);
+        frame.height = keyframe.optString(AnimationParser.TAG_HEIGHT);
+
+        JSONObject transformObject = keyframe.optJSONObject(TAG_TRANSFORM);
+        if (transformObject == null) {
+            transformObject = Transform.toJsonObject(keyframe.opt(TAG_TRANSFORM));
+        }
+        if (transformObject != null) {
+            frame.hasTransform = true;
+            frame.rotate = AnimationParser.getRotate(
+                    transformObject.optString(AnimationParser.TAG_ROTATE));
+            frame.rotateX = AnimationParser.getRotate(
+                    transformObject.optString(AnimationParser.TAG_ROTATE_X));
+            frame.rotateY = AnimationParser.getRotate(
+                    transformObject.optString(AnimationParser.TAG_ROTATE_Y));
+            frame.scaleX = Attributes.getDouble(
+                    transformObject.optString(AnimationParser.TAG_SCALE_X), Double.NaN);
+            frame.scaleY = Attributes.getDouble(
+                    transformObject.optString(AnimationParser.TAG_SCALE_Y), Double.NaN);
+            frame.translateX = transformObject.optString(AnimationParser.TAG_TRANSLATE_X);
+            frame.translateY = transformObject.optString(AnimationParser.TAG_TRANSLATE_Y);
+            frame.translateZ = transformObject.optString(AnimationParser.TAG_TRANSLATE_Z);
+        }
+
+        String transformOriginStr = keyframe.optString(Attributes.Style.TRANSFORM_ORIGIN);
+        if (TextUtils.isEmpty(transformOriginStr)) {
+            transformOriginStr = keyframe.optString(TAG_TRANSFORM_ORIGIN);
+        }
+        frame.transformOrigin = transformOriginStr;
+        return frame;
+    }
+
+    static final class Frame {
+        String animationName;
+        float fraction;
+        double opacity = Double.NaN;
+        boolean hasBackgroundColor;
+        int backgroundColor;
+        String backgroundPosition;
+        String width;
+        String height;
+        boolean hasTransform;
+        double rotate = Double.NaN;
+        double rotateX = Double.NaN;
+        double rotateY = Double.NaN;
+        double scaleX = Double.NaN;
+        double scaleY = Double.NaN;
+        String translateX;
+        String translateY;
+        String translateZ;
+        String transformOrigin;
+
+        boolean isEndOfAnimation() {
+            return !TextUtils.isEmpty(animationName);
+        }
+    }
+}
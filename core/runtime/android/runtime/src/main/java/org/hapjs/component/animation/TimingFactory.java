@@ -5,11 +5,15 @@
 
 package org.hapjs.component.animation;
 
+import android.util.LruCache;
 import android.view.animation.Interpolator;
 import android.view.animation.LinearInterpolator;
 
 public class TimingFactory {
 
+    // cubic-bezier 参数解析结果, 插值器本身带有计算用的可变字段, 因此只缓存参数
+    private static final LruCache<String, float[]> sCubicBezierParams = new LruCache<>(16);
+
     private TimingFactory() {
     }
 
@@ -25,6 +29,10 @@ public class TimingFactory {
         } else if ("ease-in-out".equals(timing)) {
             return new EaseInOutInterpolator();
         } else if (timing != null && timing.startsWith("cubic-bezier")) {
+            float[] params = sCubicBezierParams.get(timing);
+            if (params != null) {
+                return new CubicBezierInterpolator(params[0], params[1], params[2], params[3]);
+            }
             int paramStartIndex = timing.indexOf("(");
             int paramEndIndex = timing.indexOf(")");
             if (paramStartIndex == -1 || paramEndIndex == -1 || paramStartIndex > paramEndIndex) {
@@ -33,11 +41,16 @@ public class TimingFactory {
             String param = timing.substring(paramStartIndex + 1, paramEndIndex);
             String[] paramList = param.split(",");
             if (paramList.length == 4) {
-                return new CubicBezierInterpolator(
+                params = new float[] {
                         Float.parseFloat(paramList[0].trim()),
                         Float.parseFloat(paramList[1].trim()),
                         Float.parseFloat(paramList[2].trim()),
-                        Float.parseFloat(paramList[3].trim()));
+                        Float.parseFloat(paramList[3].trim())
+                };
+                Interpolator interpolator =
+                        new CubicBezierInterpolator(params[0], params[1], params[2], params[3]);
+                sCubicBezierParams.put(timing, params);
+                return interpolator;
             }
         } else if ("step-start".equals(timing)) {
             return new StepStartInterpolator();
@@ -15,6 +15,7 @@ import static org.hapjs.component.animation.AnimationParser.TAG_TRANSLATE_Y;
 import static org.hapjs.component.animation.AnimationParser.TAG_TRANSLATE_Z;
 import android.text.TextUtils;
 import android.view.View;
+import org.hapjs.common.utils.ParsedValueCache;
 import org.hapjs.component.constants.Attributes;
 import org.hapjs.runtime.HapEngine;
 import org.json.JSONException;
@@ -22,6 +23,9 @@ import org.json.JSONObject;
 
 public class Transform {
 
+    private static final ParsedValueCache<JSONObject> sParsedTransforms =
+            new ParsedValueCache<>(256);
+
     private float mRotate = 0.0f;
     private float mRotateX = 0.0f;
     private float mRotateY = 0.0f;
@@ -41,7 +45,7 @@ public class Transform {
     }
 
     public static Transform parse(HapEngine engine, Object attrObj) {
-        JSONObject jsonObj = toJsonObject(attrObj);
+        JSONObject jsonObj = getJsonObject(attrObj);
         if (jsonObj == null) {
             return null;
         }
@@ -174,6 +178,21 @@ public class Transform {
         return transform != null && view != null;
     }
 
+    /**
+     * 字符串形式的 transform 解析结果会被缓存并共享, 调用方只能读取.
+     */
+    private static JSONObject getJsonObject(Object attrObj) {
+        if (!(attrObj instanceof String)) {
+            return toJsonObject(attrObj);
+        }
+        JSONObject jsonObj = sParsedTransforms.get((String) attrObj);
+        if (jsonObj == null) {
+            jsonObj = toJsonObject(attrObj);
+            sParsedTransforms.put((String) attrObj, jsonObj);
+        }
+        return jsonObj;
+    }
+
     public static JSONObject toJsonObject(Object attrObj) {
         if (attrObj == null || "".equals(attrObj)) {
             return null;
@@ -11,6 +11,7 @@ import android.util.Log;
 import org.hapjs.card.sdk.utils.CardThemeUtils;
 import org.hapjs.common.utils.DisplayUtil;
 import org.hapjs.common.utils.FloatUtil;
+import org.hapjs.common.utils.ParsedValueCache;
 import org.hapjs.component.Component;
 import org.hapjs.render.Page;
 import org.hapjs.runtime.HapEngine;
@@ -21,6 +22,9 @@ public class Attributes {
 
     private static final String TAG = "Attributes";
 
+    // 长度值只缓存数值和单位, 换算为像素依赖屏幕宽度, 每次调用时计算
+    private static final ParsedValueCache<Length> sParsedLengths = new ParsedValueCache<>(1024);
+
     private Attributes() {
     }
 
@@ -119,7 +123,19 @@ public class Attributes {
         if (value == null || "".equals(value)) {
             return defValue;
         }
-        String temp = value.toString().trim();
+        String raw = value.toString();
+        Length length = sParsedLengths.get(raw);
+        if (length != null) {
+            return length.toPixel(hapEngine, defValue);
+        }
+        if (!raw.trim().startsWith(CardThemeUtils.KEY_THEME)) {
+            length = Length.parse(raw.trim());
+            if (length != null) {
+                sParsedLengths.put(raw, length);
+                return length.toPixel(hapEngine, defValue);
+            }
+        }
+        String temp = raw.trim();
         if (temp.startsWith(CardThemeUtils.KEY_THEME)) {
             String themeValue = CardThemeUtils.getThemeValue(temp);
             if (!TextUtils.isEmpty(themeValue)) {
@@ -841,4 +857,54 @@ public class Attributes {
             return Math.round(size);
         }
     }
+
+    private static final class Length {
+        static final int UNIT_NONE = 0;
+        static final int UNIT_PX = 1;
+        static final int UNIT_DP = 2;
+
+        final float mValue;
+        final int mUnit;
+
+        private Length(float value, int unit) {
+            mValue = value;
+            mUnit = unit;
+        }
+
+        /**
+         * @return 无法解析时返回 null, 由原有逻辑处理(输出日志并返回默认值)
+         */
+        static Length parse(String temp) {
+            int unit = UNIT_NONE;
+            if (temp.endsWith(Unit.PX)) {
+                temp = temp.substring(0, temp.length() - Unit.PX.length());
+                unit = UNIT_PX;
+            } else if (temp.endsWith(Unit.DP)) {
+                temp = temp.substring(0, temp.length() - Unit.DP.length());
+                unit = UNIT_DP;
+            }
+            try {
+                return new Length(Float.parseFloat(temp), unit);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        float toPixel(HapEngine hapEngine, float defValue) {
+            switch (mUnit) {
+                case UNIT_PX:
+                    if (hapEngine == null) {
+                        return defValue;
+                    }
+                    return DisplayUtil.getRealPxByWidth(mValue, hapEngine.getDesignWidth());
+                case UNIT_DP:
+                    if (hapEngine == null) {
+                        return defValue;
+                    }
+                    return DisplayUtil.dip2Pixel(hapEngine.getContext(), (int) mValue);
+                default:
+                    return mValue;
+            }
+        }
+    }
 }
@@ -11,8 +11,10 @@ import android.graphics.drawable.LayerDrawable;
 import android.text.TextUtils;
 import android.util.Log;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.hapjs.common.utils.ColorUtil;
+import org.hapjs.common.utils.ParsedValueCache;
 import org.hapjs.component.view.drawable.LinearGradientDrawable;
 import org.hapjs.runtime.HapEngine;
 import org.json.JSONArray;
@@ -30,6 +32,10 @@ public class CSSGradientParser {
     static final String TAG_VALUES = "values";
     private static final String TAG = "CSSGradientParser";
 
+    // 已解析的渐变描述, 其中的 ColorStop 由各个 drawable 共享, 只读
+    private static final ParsedValueCache<List<Gradient>> sParsedGradients =
+            new ParsedValueCache<>(128);
+
     private CSSGradientParser() {
     }
 
@@ -37,60 +43,75 @@ public class CSSGradientParser {
         if (TextUtils.isEmpty(bgImageStr)) {
             return null;
         }
-        Drawable drawable = null;
+        List<Gradient> gradients = sParsedGradients.get(bgImageStr);
+        if (gradients == null) {
+            gradients = parseGradients(bgImageStr);
+            if (gradients == null) {
+                return null;
+            }
+            sParsedGradients.put(bgImageStr, gradients);
+        }
+
+        List<Drawable> bgImageList = new ArrayList<>();
+        Drawable childDrawable = null;
+        for (Gradient gradient : gradients) {
+            childDrawable = new LinearGradientDrawable(hapEngine, gradient.mDirections,
+                    gradient.mColorStops);
+            if (gradient.mRepeating) {
+                ((LinearGradientDrawable) childDrawable).setMode(Shader.TileMode.REPEAT);
+            }
+            bgImageList.add(childDrawable);
+        }
+        if (bgImageList.size() == 0 || bgImageList.size() == 1) {
+            return childDrawable;
+        }
+        Drawable[] drawables = new Drawable[bgImageList.size()];
+        for (int index = 0; index < bgImageList.size(); index++) {
+            drawables[index] = bgImageList.get(index);
+        }
+        return new LayerDrawable(drawables);
+    }
+
+    /**
+     * 解析渐变描述, 结果与 HapEngine 无关, 按原始字符串缓存. 长度在创建 drawable 时换算.
+     *
+     * @return json 格式错误时返回 null
+     */
+    private static List<Gradient> parseGradients(String bgImageStr) {
         try {
             JSONObject paramObject = new JSONObject(bgImageStr);
-            if (paramObject == null || paramObject.length() == 0) {
+            if (paramObject.length() == 0) {
                 return null;
             }
             JSONArray paramArray = paramObject.getJSONArray(TAG_VALUES);
             if (paramArray == null || paramArray.length() == 0) {
                 return null;
             }
-            JSONObject bgImageObject;
-            List<Drawable> bgImageList = new ArrayList<>();
-            Drawable childDrawable = null;
+            List<Gradient> gradients = new ArrayList<>(paramArray.length());
             for (int index = 0; index < paramArray.length(); index++) {
-                bgImageObject = paramArray.getJSONObject(index);
+                JSONObject bgImageObject = paramArray.getJSONObject(index);
                 String type = bgImageObject.getString(TAG_TYPE);
+                boolean repeating;
                 switch (type) {
-                    case TYPE_LINEAR_GRADIENT: {
-                        childDrawable =
-                                new LinearGradientDrawable(
-                                        hapEngine,
-                                        parseLinearGradientDirection(bgImageObject),
-                                        parseGradientColorStop(bgImageObject));
+                    case TYPE_LINEAR_GRADIENT:
+                        repeating = false;
                         break;
-                    }
-                    case TYPE_REPEATING_LINEAR_GRADIENT: {
-                        childDrawable =
-                                new LinearGradientDrawable(
-                                        hapEngine,
-                                        parseLinearGradientDirection(bgImageObject),
-                                        parseGradientColorStop(bgImageObject))
-                                        .setMode(Shader.TileMode.REPEAT);
+                    case TYPE_REPEATING_LINEAR_GRADIENT:
+                        repeating = true;
                         break;
-                    }
                     default:
-                        break;
+                        continue;
                 }
-                if (childDrawable != null) {
-                    bgImageList.add(childDrawable);
-                }
-            }
-            if (bgImageList.size() == 0 || bgImageList.size() == 1) {
-                return childDrawable;
+                gradients.add(new Gradient(repeating,
+                        Collections.unmodifiableList(parseLinearGradientDirection(bgImageObject)),
+                        Collections.unmodifiableList(parseGradientColorStop(bgImageObject))));
             }
-            Drawable[] drawables = new Drawable[bgImageList.size()];
-            for (int index = 0; index < bgImageList.size(); index++) {
-                drawables[index] = bgImageList.get(index);
-            }
-            drawable = new LayerDrawable(drawables);
+            return gradients;
         } catch (JSONException e) {
             e.printStackTrace();
             Log.e(TAG, "Error background json");
         }
-        return drawable;
+        return null;
     }
 
     private static List<ColorStop> parseGradientColorStop(JSONObject paramObject)
@@ -138,6 +159,18 @@ public class CSSGradientParser {
         return direcs;
     }
 
+    private static class Gradient {
+        final boolean mRepeating;
+        final List<String> mDirections;
+        final List<ColorStop> mColorStops;
+
+        Gradient(boolean repeating, List<String> directions, List<ColorStop> colorStops) {
+            mRepeating = repeating;
+            mDirections = directions;
+            mColorStops = colorStops;
+        }
+    }
+
     public static class ColorStop {
         public int mColor;
         public String mPosition;
@@ -7,7 +7,9 @@ package org.hapjs.component.view;
 
 import android.content.Context;
 import android.util.AttributeSet;
+import android.util.Log;
 import android.util.SparseArray;
+import android.view.Choreographer;
 import android.view.View;
 import android.view.ViewGroup;
 import com.facebook.yoga.YogaConstants;
@@ -26,8 +28,27 @@ import java.util.Map;
  */
 public class YogaLayout extends ViewGroup {
     private static final String TAG = "YogaLayout";
+
+    // 每帧的布局统计, 仅主线程访问
+    private static int sLayoutPassCount;
+    private static int sSkippedLayoutCount;
+    private static int sVisitedNodeCount;
+    private static boolean sStatsReportScheduled;
+    private static final Choreographer.FrameCallback STATS_REPORTER =
+            frameTimeNanos -> {
+                Log.d(TAG, "layout passes: " + sLayoutPassCount
+                        + ", skipped: " + sSkippedLayoutCount
+                        + ", visited nodes: " + sVisitedNodeCount);
+                sLayoutPassCount = 0;
+                sSkippedLayoutCount = 0;
+                sVisitedNodeCount = 0;
+                sStatsReportScheduled = false;
+            };
+
     private final Map<View, YogaNode> mYogaNodes;
     private final YogaNode mYogaNode;
+    private int mLastWidthMeasureSpec = -1;
+    private int mLastHeightMeasureSpec = -1;
 
     public YogaLayout(Context context) {
         this(context, null, 0);
@@ -297,6 +318,7 @@ public class YogaLayout extends ViewGroup {
     }
 
     protected void applyLayoutRecursive(YogaNode node, float offsetX, float offsetY) {
+        sVisitedNodeCount++;
         View view = (View) node.getData();
 
         if (view != null && view != this) {
@@ -377,7 +399,28 @@ public class YogaLayout extends ViewGroup {
         if (widthMode == MeasureSpec.AT_MOST) {
             mYogaNode.setMaxWidth(widthSize);
         }
+
+        // 子树没有变化且约束相同时, 上次的布局结果仍然有效. 尺寸固定的子树根节点因此成为重新布局的边界,
+        // 兄弟节点的变化不会导致其重新计算
+        if (!mYogaNode.isDirty()
+                && widthMeasureSpec == mLastWidthMeasureSpec
+                && heightMeasureSpec == mLastHeightMeasureSpec) {
+            sSkippedLayoutCount++;
+            scheduleStatsReport();
+            return;
+        }
+        mLastWidthMeasureSpec = widthMeasureSpec;
+        mLastHeightMeasureSpec = heightMeasureSpec;
         mYogaNode.calculateLayout(YogaConstants.UNDEFINED, YogaConstants.UNDEFINED);
+        sLayoutPassCount++;
+        scheduleStatsReport();
+    }
+
+    private static void scheduleStatsReport() {
+        if (!sStatsReportScheduled && Log.isLoggable(TAG, Log.DEBUG)) {
+            sStatsReportScheduled = true;
+            Choreographer.getInstance().postFrameCallback(STATS_REPORTER);
+        }
     }
 
     @Override
@@ -20,10 +20,10 @@ import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.LayerDrawable;
 import android.graphics.drawable.shapes.PathShape;
-import android.graphics.drawable.shapes.Shape;
 import android.os.Build;
 import android.text.TextUtils;
 import android.util.Log;
+import android.util.LruCache;
 import java.util.Arrays;
 import org.hapjs.common.utils.ColorUtil;
 import org.hapjs.common.utils.FloatUtil;
@@ -47,7 +47,10 @@ public class CSSBackgroundDrawable extends Drawable {
     private PathEffect mPathEffectForBorderStyle;
     private Path mPathForBorderRadius;
     private Path mPathForBorderRadiusOutline;
-    private Path mPathForBorder;
+    // 直角边框的路径只在 draw 过程中临时使用, 所有实例共享(均在主线程绘制)
+    private static final Path sPathForBorder = new Path();
+    // 虚线/点线的 PathEffect 不可变, 按样式和宽度在所有实例间共享
+    private static final LruCache<Long, PathEffect> sPathEffects = new LruCache<>(32);
     private RectF mTempRectForBorderRadius;
     private RectF mTempRectForBorderRadiusOutline;
     private boolean mNeedUpdatePathForBorderRadius = false;
@@ -60,6 +63,13 @@ public class CSSBackgroundDrawable extends Drawable {
     private float[] mBorderCornerRadiiPercent;
     private float mCurrentFullBorderWidth = 0f;
     private LayerDrawable mLayerDrawable;
+    // 四个角半径相同时的圆角大小, 可用 Outline.setRoundRect 做硬件裁剪; 否则为 -1
+    private float mUniformOutlineRadius = -1;
+    private PathShape mLayerPathShape;
+    private Path mLayerPathShapePath;
+    private boolean mHasPathEffect;
+    private float mPathEffectWidth = Float.NaN;
+    private BorderStyle mPathEffectStyle;
 
     @Override
     public void draw(Canvas canvas) {
@@ -153,7 +163,12 @@ public class CSSBackgroundDrawable extends Drawable {
         if (isRoundedBorders()) {
             updatePath();
 
-            outline.setConvexPath(mPathForBorderRadiusOutline);
+            if (mUniformOutlineRadius >= 0) {
+                // 圆角矩形轮廓支持 clipToOutline, 比任意凸路径更适合硬件绘制
+                outline.setRoundRect(getBounds(), mUniformOutlineRadius);
+            } else {
+                outline.setConvexPath(mPathForBorderRadiusOutline);
+            }
         } else {
             outline.setRect(getBounds());
         }
@@ -304,6 +319,20 @@ public class CSSBackgroundDrawable extends Drawable {
             extraRadiusForOutline = fullBorderWidth / 2f;
         }
 
+        mLayerPathShape = null;
+        mUniformOutlineRadius = -1;
+        float outlineRadius = radii[0] + extraRadiusForOutline;
+        boolean uniform = true;
+        for (float radius : radii) {
+            if (!FloatUtil.floatsEqual(radius + extraRadiusForOutline, outlineRadius)) {
+                uniform = false;
+                break;
+            }
+        }
+        if (uniform) {
+            mUniformOutlineRadius = outlineRadius;
+        }
+
         mPathForBorderRadiusOutline.addRoundRect(
                 mTempRectForBorderRadiusOutline,
                 new float[] {
@@ -355,6 +384,14 @@ public class CSSBackgroundDrawable extends Drawable {
     }
 
     private void updatePathEffect(float borderWidth) {
+        if (mHasPathEffect
+                && mPathEffectStyle == mBorderStyle
+                && FloatUtil.floatsEqual(mPathEffectWidth, borderWidth)) {
+            return;
+        }
+        mHasPathEffect = true;
+        mPathEffectStyle = mBorderStyle;
+        mPathEffectWidth = borderWidth;
         mPathEffectForBorderStyle =
                 mBorderStyle != null ? mBorderStyle.getPathEffect(borderWidth) : null;
 
@@ -461,8 +498,14 @@ public class CSSBackgroundDrawable extends Drawable {
                     sizeBackgroundDrawable.setAntiAlias(true);
                 } else if (d instanceof LinearGradientDrawable) {
                     LinearGradientDrawable linearGradientDrawable = (LinearGradientDrawable) d;
-                    Shape shape = new PathShape(path, getBounds().width(), getBounds().height());
-                    linearGradientDrawable.setShape(shape);
+                    if (mLayerPathShape == null || mLayerPathShapePath != path) {
+                        mLayerPathShape =
+                                new PathShape(path, getBounds().width(), getBounds().height());
+                        mLayerPathShapePath = path;
+                    }
+                    if (linearGradientDrawable.getShape() != mLayerPathShape) {
+                        linearGradientDrawable.setShape(mLayerPathShape);
+                    }
                 } else {
                     // 少数场景，例如没有设置背景，但设置了圆角
                     canvas.clipPath(mPathForBorderRadiusOutline);
@@ -503,10 +546,6 @@ public class CSSBackgroundDrawable extends Drawable {
         int width = bounds.width();
         int height = bounds.height();
 
-        if (mPathForBorder == null) {
-            mPathForBorder = new Path();
-        }
-
         // border没有相交的部分
 
         if (isBorderNeedDraw(Spacing.LEFT)) {
@@ -514,11 +553,11 @@ public class CSSBackgroundDrawable extends Drawable {
             mPaint.setStrokeWidth(borderLeft);
             mPaint.setStyle(Paint.Style.STROKE);
             updatePathEffect(borderLeft);
-            mPathForBorder.reset();
+            sPathForBorder.reset();
             float pathLeft = left + Math.max(borderLeft / 2, 1);
-            mPathForBorder.moveTo(pathLeft, top + borderTop);
-            mPathForBorder.lineTo(pathLeft, top + height - borderBottom);
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.moveTo(pathLeft, top + borderTop);
+            sPathForBorder.lineTo(pathLeft, top + height - borderBottom);
+            canvas.drawPath(sPathForBorder, mPaint);
         }
 
         if (isBorderNeedDraw(Spacing.TOP)) {
@@ -526,11 +565,11 @@ public class CSSBackgroundDrawable extends Drawable {
             mPaint.setStrokeWidth(borderTop);
             mPaint.setStyle(Paint.Style.STROKE);
             updatePathEffect(borderTop);
-            mPathForBorder.reset();
+            sPathForBorder.reset();
             float pathTop = top + Math.max(borderTop / 2, 1);
-            mPathForBorder.moveTo(left + borderLeft, pathTop);
-            mPathForBorder.lineTo(left + width - borderRight, pathTop);
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.moveTo(left + borderLeft, pathTop);
+            sPathForBorder.lineTo(left + width - borderRight, pathTop);
+            canvas.drawPath(sPathForBorder, mPaint);
         }
 
         if (isBorderNeedDraw(Spacing.RIGHT)) {
@@ -538,11 +577,11 @@ public class CSSBackgroundDrawable extends Drawable {
             mPaint.setStrokeWidth(borderRight);
             mPaint.setStyle(Paint.Style.STROKE);
             updatePathEffect(borderRight);
-            mPathForBorder.reset();
+            sPathForBorder.reset();
             float pathRight = left + width - Math.max(borderRight / 2, 1);
-            mPathForBorder.moveTo(pathRight, top + borderTop);
-            mPathForBorder.lineTo(pathRight, top + height - borderBottom);
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.moveTo(pathRight, top + borderTop);
+            sPathForBorder.lineTo(pathRight, top + height - borderBottom);
+            canvas.drawPath(sPathForBorder, mPaint);
         }
 
         if (isBorderNeedDraw(Spacing.BOTTOM)) {
@@ -550,11 +589,11 @@ public class CSSBackgroundDrawable extends Drawable {
             mPaint.setStrokeWidth(borderBottom);
             mPaint.setStyle(Paint.Style.STROKE);
             updatePathEffect(borderBottom);
-            mPathForBorder.reset();
+            sPathForBorder.reset();
             float pathBottom = top + height - Math.max(borderBottom / 2, 1);
-            mPathForBorder.moveTo(left + borderLeft, pathBottom);
-            mPathForBorder.lineTo(left + width - borderRight, pathBottom);
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.moveTo(left + borderLeft, pathBottom);
+            sPathForBorder.lineTo(left + width - borderRight, pathBottom);
+            canvas.drawPath(sPathForBorder, mPaint);
         }
 
         // border相交的部分，corner部分
@@ -566,108 +605,108 @@ public class CSSBackgroundDrawable extends Drawable {
             mPaint.setColor(colorLeft);
             mPaint.setStyle(Paint.Style.FILL_AND_STROKE);
             mPaint.setStrokeWidth(0);
-            mPathForBorder.reset();
-            mPathForBorder.moveTo(left, top);
-            mPathForBorder.lineTo(left, top + borderTop);
-            mPathForBorder.lineTo(left, top + borderTop + compatibleOffset);
-            mPathForBorder.lineTo(left + borderLeft, top + borderTop + compatibleOffset);
-            mPathForBorder.lineTo(left + borderLeft, top + borderTop);
-            mPathForBorder.close();
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.reset();
+            sPathForBorder.moveTo(left, top);
+            sPathForBorder.lineTo(left, top + borderTop);
+            sPathForBorder.lineTo(left, top + borderTop + compatibleOffset);
+            sPathForBorder.lineTo(left + borderLeft, top + borderTop + compatibleOffset);
+            sPathForBorder.lineTo(left + borderLeft, top + borderTop);
+            sPathForBorder.close();
+            canvas.drawPath(sPathForBorder, mPaint);
 
             mPaint.setColor(colorTop);
             mPaint.setStyle(Paint.Style.FILL_AND_STROKE);
             mPaint.setStrokeWidth(0);
-            mPathForBorder.reset();
-            mPathForBorder.moveTo(left, top);
-            mPathForBorder.lineTo(left + borderLeft, top);
-            mPathForBorder.lineTo(left + borderLeft + compatibleOffset, top);
-            mPathForBorder.lineTo(left + borderLeft + compatibleOffset, top + borderTop);
-            mPathForBorder.lineTo(left + borderLeft, top + borderTop);
-            mPathForBorder.close();
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.reset();
+            sPathForBorder.moveTo(left, top);
+            sPathForBorder.lineTo(left + borderLeft, top);
+            sPathForBorder.lineTo(left + borderLeft + compatibleOffset, top);
+            sPathForBorder.lineTo(left + borderLeft + compatibleOffset, top + borderTop);
+            sPathForBorder.lineTo(left + borderLeft, top + borderTop);
+            sPathForBorder.close();
+            canvas.drawPath(sPathForBorder, mPaint);
         }
 
         if (isBorderNeedDraw(Spacing.TOP) && isBorderNeedDraw(Spacing.RIGHT)) {
             mPaint.setColor(colorTop);
             mPaint.setStyle(Paint.Style.FILL_AND_STROKE);
             mPaint.setStrokeWidth(0);
-            mPathForBorder.reset();
-            mPathForBorder.moveTo(left + width, top);
-            mPathForBorder.lineTo(left + width - borderRight, top);
-            mPathForBorder.lineTo(left + width - borderRight - compatibleOffset, top);
-            mPathForBorder.lineTo(left + width - borderRight - compatibleOffset, top + borderTop);
-            mPathForBorder.lineTo(left + width - borderRight, top + borderTop);
-            mPathForBorder.close();
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.reset();
+            sPathForBorder.moveTo(left + width, top);
+            sPathForBorder.lineTo(left + width - borderRight, top);
+            sPathForBorder.lineTo(left + width - borderRight - compatibleOffset, top);
+            sPathForBorder.lineTo(left + width - borderRight - compatibleOffset, top + borderTop);
+            sPathForBorder.lineTo(left + width - borderRight, top + borderTop);
+            sPathForBorder.close();
+            canvas.drawPath(sPathForBorder, mPaint);
 
             mPaint.setColor(colorRight);
             mPaint.setStyle(Paint.Style.FILL_AND_STROKE);
             mPaint.setStrokeWidth(0);
-            mPathForBorder.reset();
-            mPathForBorder.moveTo(left + width, top);
-            mPathForBorder.lineTo(left + width, top + borderTop);
-            mPathForBorder.lineTo(left + width, top + borderTop + compatibleOffset);
-            mPathForBorder.lineTo(left + width - borderRight, top + borderTop + compatibleOffset);
-            mPathForBorder.lineTo(left + width - borderRight, top + borderTop);
-            mPathForBorder.close();
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.reset();
+            sPathForBorder.moveTo(left + width, top);
+            sPathForBorder.lineTo(left + width, top + borderTop);
+            sPathForBorder.lineTo(left + width, top + borderTop + compatibleOffset);
+            sPathForBorder.lineTo(left + width - borderRight, top + borderTop + compatibleOffset);
+            sPathForBorder.lineTo(left + width - borderRight, top + borderTop);
+            sPathForBorder.close();
+            canvas.drawPath(sPathForBorder, mPaint);
         }
 
         if (isBorderNeedDraw(Spacing.RIGHT) && isBorderNeedDraw(Spacing.BOTTOM)) {
             mPaint.setColor(colorRight);
             mPaint.setStyle(Paint.Style.FILL_AND_STROKE);
             mPaint.setStrokeWidth(0);
-            mPathForBorder.reset();
-            mPathForBorder.moveTo(left + width, top + height);
-            mPathForBorder.lineTo(left + width, top + height - borderBottom);
-            mPathForBorder.lineTo(left + width, top + height - borderBottom - compatibleOffset);
-            mPathForBorder.lineTo(
+            sPathForBorder.reset();
+            sPathForBorder.moveTo(left + width, top + height);
+            sPathForBorder.lineTo(left + width, top + height - borderBottom);
+            sPathForBorder.lineTo(left + width, top + height - borderBottom - compatibleOffset);
+            sPathForBorder.lineTo(
                     left + width - borderRight, top + height - borderBottom - compatibleOffset);
-            mPathForBorder.lineTo(left + width - borderRight, top + height - borderBottom);
-            mPathForBorder.close();
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.lineTo(left + width - borderRight, top + height - borderBottom);
+            sPathForBorder.close();
+            canvas.drawPath(sPathForBorder, mPaint);
 
             mPaint.setColor(colorBottom);
             mPaint.setStyle(Paint.Style.FILL_AND_STROKE);
             mPaint.setStrokeWidth(0);
-            mPathForBorder.reset();
-            mPathForBorder.moveTo(left + width, top + height);
-            mPathForBorder.lineTo(left + width - borderRight, top + height);
-            mPathForBorder.lineTo(left + width - borderRight - compatibleOffset, top + height);
-            mPathForBorder.lineTo(
+            sPathForBorder.reset();
+            sPathForBorder.moveTo(left + width, top + height);
+            sPathForBorder.lineTo(left + width - borderRight, top + height);
+            sPathForBorder.lineTo(left + width - borderRight - compatibleOffset, top + height);
+            sPathForBorder.lineTo(
                     left + width - borderRight - compatibleOffset, top + height - borderBottom);
-            mPathForBorder.lineTo(left + width - borderRight, top + height - borderBottom);
-            mPathForBorder.close();
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.lineTo(left + width - borderRight, top + height - borderBottom);
+            sPathForBorder.close();
+            canvas.drawPath(sPathForBorder, mPaint);
         }
 
         if (isBorderNeedDraw(Spacing.BOTTOM) && isBorderNeedDraw(Spacing.LEFT)) {
             mPaint.setColor(colorBottom);
             mPaint.setStyle(Paint.Style.FILL_AND_STROKE);
             mPaint.setStrokeWidth(0);
-            mPathForBorder.reset();
-            mPathForBorder.moveTo(left, top + height);
-            mPathForBorder.lineTo(left + borderLeft, top + height);
-            mPathForBorder.lineTo(left + borderLeft + compatibleOffset, top + height);
-            mPathForBorder
+            sPathForBorder.reset();
+            sPathForBorder.moveTo(left, top + height);
+            sPathForBorder.lineTo(left + borderLeft, top + height);
+            sPathForBorder.lineTo(left + borderLeft + compatibleOffset, top + height);
+            sPathForBorder
                     .lineTo(left + borderLeft + compatibleOffset, top + height - borderBottom);
-            mPathForBorder.lineTo(left + borderLeft, top + height - borderBottom);
-            mPathForBorder.close();
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.lineTo(left + borderLeft, top + height - borderBottom);
+            sPathForBorder.close();
+            canvas.drawPath(sPathForBorder, mPaint);
 
             mPaint.setColor(colorLeft);
             mPaint.setStyle(Paint.Style.FILL_AND_STROKE);
             mPaint.setStrokeWidth(0);
-            mPathForBorder.reset();
-            mPathForBorder.moveTo(left, top + height);
-            mPathForBorder.lineTo(left, top + height - borderBottom);
-            mPathForBorder.lineTo(left, top + height - borderBottom - compatibleOffset);
-            mPathForBorder
+            sPathForBorder.reset();
+            sPathForBorder.moveTo(left, top + height);
+            sPathForBorder.lineTo(left, top + height - borderBottom);
+            sPathForBorder.lineTo(left, top + height - borderBottom - compatibleOffset);
+            sPathForBorder
                     .lineTo(left + borderLeft, top + height - borderBottom - compatibleOffset);
-            mPathForBorder.lineTo(left + borderLeft, top + height - borderBottom);
-            mPathForBorder.close();
-            canvas.drawPath(mPathForBorder, mPaint);
+            sPathForBorder.lineTo(left + borderLeft, top + height - borderBottom);
+            sPathForBorder.close();
+            canvas.drawPath(sPathForBorder, mPaint);
         }
     }
 
@@ -775,6 +814,21 @@ public class CSSBackgroundDrawable extends Drawable {
         }
 
         public PathEffect getPathEffect(float borderWidth) {
+            if (this == SOLID) {
+                return null;
+            }
+            long key = ((long) ordinal() << 32) | (Float.floatToIntBits(borderWidth) & 0xffffffffL);
+            PathEffect pathEffect = sPathEffects.get(key);
+            if (pathEffect == null) {
+                pathEffect = createPathEffect(borderWidth);
+                if (pathEffect != null) {
+                    sPathEffects.put(key, pathEffect);
+                }
+            }
+            return pathEffect;
+        }
+
+        private PathEffect createPathEffect(float borderWidth) {
             switch (this) {
                 case SOLID:
                     return null;
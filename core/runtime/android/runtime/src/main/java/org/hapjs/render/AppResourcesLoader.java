@@ -160,18 +160,21 @@ public class AppResourcesLoader {
     }
 
     public static String getPageJs(Context context, String pkg, Page page) {
+        return getPageJs(context, pkg, page.getRoutableInfo());
+    }
+
+    public static String getPageJs(Context context, String pkg, RoutableInfo routableInfo) {
         String pageJs;
         AppResources appResources = sAppResources.get(pkg);
-        if (appResources != null && appResources.pageJsMap.containsKey(page.getPath())) {
-            pageJs = appResources.pageJsMap.get(page.getPath());
+        if (appResources != null && appResources.pageJsMap.containsKey(routableInfo.getPath())) {
+            pageJs = appResources.pageJsMap.get(routableInfo.getPath());
         } else {
-            pageJs = loadPageJs(context, pkg, page);
+            pageJs = loadPageJs(context, pkg, routableInfo);
         }
         return pageJs;
     }
 
-    private static String loadPageJs(Context context, String pkg, Page page) {
-        RoutableInfo routableInfo = page.getRoutableInfo();
+    private static String loadPageJs(Context context, String pkg, RoutableInfo routableInfo) {
         String jsuri = routableInfo.getUri();
         Source jssource;
         if (UriUtils.isAssetUri(jsuri)) {
@@ -183,18 +186,21 @@ public class AppResourcesLoader {
     }
 
     public static String getPageCss(Context context, String pkg, Page page) {
+        return getPageCss(context, pkg, page.getRoutableInfo());
+    }
+
+    public static String getPageCss(Context context, String pkg, RoutableInfo routableInfo) {
         String pageCss;
         AppResources appResources = sAppResources.get(pkg);
-        if (appResources != null && appResources.pageCssMap.containsKey(page.getPath())) {
-            pageCss = appResources.pageCssMap.get(page.getPath());
+        if (appResources != null && appResources.pageCssMap.containsKey(routableInfo.getPath())) {
+            pageCss = appResources.pageCssMap.get(routableInfo.getPath());
         } else {
-            pageCss = loadPageCss(context, pkg, page);
+            pageCss = loadPageCss(context, pkg, routableInfo);
         }
         return pageCss;
     }
 
-    private static String loadPageCss(Context context, String pkg, Page page) {
-        RoutableInfo routableInfo = page.getRoutableInfo();
+    private static String loadPageCss(Context context, String pkg, RoutableInfo routableInfo) {
         final String jsuri = routableInfo.getUri();
         final String cssuri = jsuri.replace(".js", ".css.json");
         final Source csssource = new RpkSource(context, pkg, cssuri);
@@ -211,6 +217,7 @@ public class AppResourcesLoader {
 
     public static void clearPreloadedResources(String pkg) {
         sAppResources.remove(pkg);
+        PagePreloader.clear(pkg);
     }
 
     private static class AppResources {
@@ -12,6 +12,7 @@ import android.util.Log;
 import android.view.ViewGroup;
 import android.view.WindowManager;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -101,6 +102,10 @@ public class Page implements IPage {
     private VDocument mCacheDoc;
     private Page mReferrer;
     private Queue<RenderAction> mRenderActions;
+    private RenderSnapshot mRenderSnapshot;
+    // 已应用的标题栏, 状态栏设置, 生成渲染快照时使用
+    private Map<String, Object> mTitleBarState;
+    private Map<String, Object> mStatusBarState;
     private HybridRequest mRequest;
     private HapConfiguration mConfiguration;
     private boolean mShouldReload;
@@ -363,6 +368,47 @@ public class Page implements IPage {
         return mRenderActions != null && mRenderActions.size() > 0;
     }
 
+    /**
+     * 记录已经作用于页面 VDocument 的标题栏和状态栏设置, 在主线程调用.
+     */
+    void recordAppliedAction(RenderAction action) {
+        if (!(action instanceof VDomChangeAction)) {
+            return;
+        }
+        VDomChangeAction changeAction = (VDomChangeAction) action;
+        if (changeAction.action == VDomChangeAction.ACTION_UPDATE_TITLE_BAR) {
+            if (mTitleBarState == null) {
+                mTitleBarState = new HashMap<>();
+            }
+            mTitleBarState.putAll(changeAction.titles);
+        } else if (changeAction.action == VDomChangeAction.ACTION_UPDATE_STATUS_BAR) {
+            if (mStatusBarState == null) {
+                mStatusBarState = new HashMap<>();
+            }
+            mStatusBarState.putAll(changeAction.status);
+        }
+    }
+
+    /**
+     * 释放视图前调用, 保存当前页面内容的快照, 再次进入时先回放快照. 在主线程调用.
+     */
+    void captureRenderSnapshot() {
+        if (mCacheDoc == null) {
+            return;
+        }
+        mRenderSnapshot = RenderSnapshot.capture(mCacheDoc, pageId,
+                mTitleBarState == null ? Collections.<String, Object>emptyMap() : mTitleBarState,
+                mStatusBarState == null ? Collections.<String, Object>emptyMap() : mStatusBarState);
+    }
+
+    RenderSnapshot getRenderSnapshot() {
+        return mRenderSnapshot;
+    }
+
+    void clearRenderSnapshot() {
+        mRenderSnapshot = null;
+    }
+
     public void setExtraTitleBarBackgroundColor(String color) {
         mExtraTitleBarBackgroundColor = color;
     }
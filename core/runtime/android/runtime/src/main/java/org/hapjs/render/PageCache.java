@@ -5,31 +5,232 @@
 
 package org.hapjs.render;
 
+import android.content.ComponentCallbacks2;
+import android.util.Log;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.hapjs.common.utils.ThreadUtils;
-import org.hapjs.common.utils.lrucache.LruCache;
+import org.hapjs.render.vdom.VDocument;
 
-public class PageCache extends LruCache<String, Page> {
+/**
+ * 子页面缓存. 新放入的页面处于新生代, 再次被使用后晋升到老年代; 淘汰时先按放入顺序淘汰新生代,
+ * 再按访问顺序淘汰老年代.
+ *
+ * <p>除页面数量外, 还以页面保留的组件数近似衡量缓存占用的内存, 超过上限时同样淘汰. 内存紧张时先释放
+ * 缓存页面的视图, 保留 js 状态, 再次进入时由 js 重新生成渲染指令恢复; 内存严重不足时再释放 js 状态.
+ */
+public class PageCache {
     public static final String TAG = "PageCache";
-    private PageManager.PageChangedListener mPageChangedListener;
 
-    public PageCache(PageManager.PageChangedListener pageChangedListener) {
-        super();
-        this.mPageChangedListener = pageChangedListener;
+    private static final int DEFAULT_CAPACITY = 10;
+    // 所有缓存页面保留的组件总数上限
+    private static final int DEFAULT_MAX_WEIGHT = 5000;
+
+    private final Map<String, Page> mYoungPages = new LinkedHashMap<>();
+    private final Map<String, Page> mOldPages = new LinkedHashMap<>(16, 0.75f, true);
+    // 页面放入或最近一次访问时的组件数, 及其总和
+    private final Map<Page, Integer> mWeights = new HashMap<>();
+    private int mTotalWeight;
+    private final int mCapacity;
+    private final int mMaxWeight;
+    private final PageManager mPageManager;
+
+    public PageCache(PageManager pageManager) {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_WEIGHT, pageManager);
+    }
+
+    public PageCache(int capacity, int maxWeight, PageManager pageManager) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity <= 0");
+        }
+        mCapacity = capacity;
+        mMaxWeight = maxWeight;
+        mPageManager = pageManager;
+    }
+
+    public synchronized Page get(String key) {
+        Page page = mYoungPages.remove(key);
+        if (page != null) {
+            mOldPages.put(key, page);
+        } else {
+            page = mOldPages.get(key);
+        }
+        if (page != null) {
+            updateWeight(page);
+        }
+        return page;
+    }
+
+    public void put(String key, Page page) {
+        List<Page> evicted = new ArrayList<>();
+        synchronized (this) {
+            removeWeight(mOldPages.remove(key));
+            removeWeight(mYoungPages.put(key, page));
+            updateWeight(page);
+            trimToSize(evicted);
+        }
+        for (Page evictedPage : evicted) {
+            release(evictedPage);
+        }
+    }
+
+    public Page remove(String key) {
+        Page page;
+        synchronized (this) {
+            page = mYoungPages.remove(key);
+            if (page == null) {
+                page = mOldPages.remove(key);
+            }
+            removeWeight(page);
+        }
+        if (page != null) {
+            release(page);
+        }
+        return page;
+    }
+
+    public void clear() {
+        List<Page> pages;
+        synchronized (this) {
+            pages = new ArrayList<>(mYoungPages.size() + mOldPages.size());
+            pages.addAll(mYoungPages.values());
+            pages.addAll(mOldPages.values());
+            mYoungPages.clear();
+            mOldPages.clear();
+            mWeights.clear();
+            mTotalWeight = 0;
+        }
+        for (Page page : pages) {
+            notifyPageRemoved(page);
+        }
+    }
+
+    public synchronized int size() {
+        return mYoungPages.size() + mOldPages.size();
+    }
+
+    /**
+     * 在主线程调用.
+     */
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            List<Page> pages;
+            synchronized (this) {
+                pages = new ArrayList<>(mYoungPages.size() + mOldPages.size());
+                collectIdlePages(mYoungPages, pages, true);
+                collectIdlePages(mOldPages, pages, true);
+            }
+            Log.i(TAG, "onTrimMemory: level=" + level + ", release " + pages.size() + " pages");
+            for (Page page : pages) {
+                releaseViews(page);
+                release(page);
+            }
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            List<Page> pages;
+            synchronized (this) {
+                pages = new ArrayList<>(mYoungPages.size() + mOldPages.size());
+                collectIdlePages(mYoungPages, pages, false);
+                collectIdlePages(mOldPages, pages, false);
+            }
+            int count = 0;
+            for (Page page : pages) {
+                if (releaseViews(page)) {
+                    count++;
+                }
+            }
+            synchronized (this) {
+                for (Page page : pages) {
+                    if (mWeights.containsKey(page)) {
+                        updateWeight(page);
+                    }
+                }
+            }
+            Log.i(TAG, "onTrimMemory: level=" + level + ", release views of " + count + " pages");
+        }
+    }
+
+    private void collectIdlePages(Map<String, Page> pages, List<Page> out, boolean remove) {
+        Page currPage = mPageManager.getCurrPage();
+        Iterator<Page> iterator = pages.values().iterator();
+        while (iterator.hasNext()) {
+            Page page = iterator.next();
+            if (page == currPage || page.getIsMultiWindowLeftPage()) {
+                continue;
+            }
+            out.add(page);
+            if (remove) {
+                iterator.remove();
+                removeWeight(page);
+            }
+        }
+    }
+
+    private void trimToSize(List<Page> evicted) {
+        while (mYoungPages.size() + mOldPages.size() > mCapacity || mTotalWeight > mMaxWeight) {
+            Map<String, Page> generation = mYoungPages.isEmpty() ? mOldPages : mYoungPages;
+            Iterator<Page> iterator = generation.values().iterator();
+            if (!iterator.hasNext()) {
+                break;
+            }
+            Page page = iterator.next();
+            iterator.remove();
+            removeWeight(page);
+            evicted.add(page);
+        }
+    }
+
+    private void updateWeight(Page page) {
+        removeWeight(page);
+        int weight = getWeight(page);
+        mWeights.put(page, weight);
+        mTotalWeight += weight;
+    }
+
+    private void removeWeight(Page page) {
+        Integer weight = page == null ? null : mWeights.remove(page);
+        if (weight != null) {
+            mTotalWeight -= weight;
+        }
     }
 
-    public PageCache(int capacity, PageManager.PageChangedListener pageChangedListener) {
-        super(capacity);
-        this.mPageChangedListener = pageChangedListener;
+    private static int getWeight(Page page) {
+        VDocument doc = page.getCacheDoc();
+        // 视图已释放的页面只保留 js 状态, 按一个组件计算
+        return doc == null ? 1 : doc.getElementCount();
+    }
+
+    private static boolean releaseViews(Page page) {
+        if (page.getCacheDoc() == null) {
+            return false;
+        }
+        page.clearCache();
+        page.setState(Page.STATE_CREATED);
+        return true;
+    }
+
+    /**
+     * 页面不再被缓存. 不在页面栈中的页面立即销毁; 仍在页面栈中的页面在出栈时按未缓存的页面销毁.
+     */
+    private void release(Page page) {
+        page.cleanCache();
+        if (mPageManager.getPageById(page.pageId) != page) {
+            notifyPageRemoved(page);
+        }
     }
 
-    @Override
-    public void onRemoved(String key, Page value) {
-        if (value != null && mPageChangedListener != null) {
+    private void notifyPageRemoved(Page page) {
+        PageManager.PageChangedListener listener = mPageManager.getPageChangedListener();
+        if (listener != null) {
             ThreadUtils.runOnUiThread(
                     new Runnable() {
                         @Override
                         public void run() {
-                            mPageChangedListener.onPageRemoved(-1, value);
+                            listener.onPageRemoved(-1, page);
                         }
                     });
         }
@@ -53,7 +53,7 @@ public class PageManager {
         mPageChangedListener = pageChangeListener;
         mAppInfo = appInfo;
         mHandler = new HandlerImpl();
-        mPageCache = new PageCache(mPageChangedListener);
+        mPageCache = new PageCache(this);
     }
 
     public void setPageChangedListener(PageChangedListener pageChangedListener) {
@@ -230,7 +230,6 @@ public class PageManager {
                 if (page.getCacheExpiredTime() > 0
                         && System.currentTimeMillis() - page.getPageLastUsedTime()
                         > page.getCacheExpiredTime()) {
-                    page.cleanCache();
                     mPageCache.remove(request.getUri());
                     page = buildPageByUri(hapRequest, mAppInfo, getCurrIndex());
                     if (mPageInfos.size() != 0 && page.shouldCache()) {
@@ -271,6 +270,19 @@ public class PageManager {
         }
     }
 
+    /**
+     * 在主线程调用.
+     */
+    public void onTrimMemory(int level) {
+        if (mPageCache != null) {
+            mPageCache.onTrimMemory(level);
+        }
+        // 内存紧张时不保留渲染快照, 返回这些页面时等待 js 重新生成
+        for (Page page : mPageInfos) {
+            page.clearRenderSnapshot();
+        }
+    }
+
     public Page buildAboutPage() {
         PageInfo pageInfo =
                 new PageInfo(
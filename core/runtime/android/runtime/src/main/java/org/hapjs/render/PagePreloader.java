@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.render;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.text.TextUtils;
+import android.util.Log;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hapjs.bridge.ApplicationContext;
+import org.hapjs.common.executors.Executors;
+import org.hapjs.common.utils.ThreadUtils;
+import org.hapjs.model.AppInfo;
+import org.hapjs.model.RoutableInfo;
+import org.hapjs.model.RouterInfo;
+import org.hapjs.render.css.CSSParser;
+import org.hapjs.render.css.CSSStyleSheet;
+import org.hapjs.runtime.BuildConfig;
+import org.hapjs.runtime.HapEngine;
+import org.hapjs.runtime.Runtime;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * 根据路由历史预测下一个页面, 在主线程空闲时预先读取页面的 js, css 并解析样式表.
+ *
+ * <p>每个应用分别统计页面间的跳转次数并持久化. 进入页面后, 跳转概率足够高的后继页面会被预加载,
+ * 预加载的内容只能被 {@link #take} 取走一次, 因为解析出的样式表会注册到页面的 RenderActionDocument 中,
+ * 不能被多个页面共享. 预加载内容的总大小受内存预算限制.
+ */
+public class PagePreloader {
+    private static final String TAG = "PagePreloader";
+
+    private static final String PREFS_NAME = "page_transitions";
+    // 每个页面最多预加载的后继页面数
+    private static final int MAX_PREDICTIONS = 2;
+    private static final float MIN_PROBABILITY = 0.2f;
+    private static final int MIN_TRANSITION_COUNT = 2;
+    // 单个页面的跳转总次数超过该值后衰减, 使统计跟随用户习惯的变化
+    private static final int DECAY_THRESHOLD = 200;
+    // 预加载内容的总大小上限, 以字符数计
+    private static final int MAX_PRELOAD_CHARS = 512 * 1024;
+    // 解析后的样式表中每条规则或声明(含选择器, CSSValues 等对象)折算的字符数
+    private static final int CHARS_PER_STYLE_ENTRY = 64;
+
+    // pkg -> (from path -> (to path -> count))
+    private static final Map<String, Map<String, Map<String, Integer>>> sTransitions =
+            new HashMap<>();
+    private static final Map<String, PreloadedPage> sPreloadedPages =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private static int sPreloadedChars;
+    private static int sHitCount;
+    private static int sMissCount;
+
+    private PagePreloader() {
+    }
+
+    /**
+     * 记录一次从当前页面到 targetPath 的跳转, 并在主线程空闲时预加载 targetPath 之后可能进入的页面.
+     */
+    public static void onRoute(String pkg, String fromPath, String targetPath) {
+        if (TextUtils.isEmpty(pkg) || TextUtils.isEmpty(targetPath)) {
+            return;
+        }
+        Context appContext = Runtime.getInstance().getContext();
+        Executors.io().execute(() -> {
+            if (!TextUtils.isEmpty(fromPath)) {
+                recordTransition(appContext, pkg, fromPath, targetPath);
+            }
+        });
+        ThreadUtils.runOnUiThread(() -> Looper.myQueue().addIdleHandler(
+                new MessageQueue.IdleHandler() {
+                    @Override
+                    public boolean queueIdle() {
+                        Executors.io().execute(() -> preloadSuccessors(appContext, pkg, targetPath));
+                        return false;
+                    }
+                }));
+    }
+
+    /**
+     * 取走页面的预加载内容, 没有时返回 null.
+     */
+    public static PreloadedPage take(String pkg, String path) {
+        PreloadedPage page;
+        synchronized (PagePreloader.class) {
+            page = sPreloadedPages.remove(getKey(pkg, path));
+            if (page != null) {
+                sPreloadedChars -= page.size;
+                sHitCount++;
+            } else {
+                sMissCount++;
+            }
+            if (BuildConfig.DEBUG) {
+                Log.d(TAG, "take " + path + ", hit=" + (page != null)
+                        + ", hit count: " + sHitCount + ", miss count: " + sMissCount);
+            }
+        }
+        return page;
+    }
+
+    public static synchronized void clear(String pkg) {
+        sTransitions.remove(pkg);
+        String prefix = pkg + ":";
+        Iterator<Map.Entry<String, PreloadedPage>> iterator =
+                sPreloadedPages.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, PreloadedPage> entry = iterator.next();
+            if (entry.getKey().startsWith(prefix)) {
+                sPreloadedChars -= entry.getValue().size;
+                iterator.remove();
+            }
+        }
+    }
+
+    private static void recordTransition(
+            Context context, String pkg, String fromPath, String targetPath) {
+        String json;
+        synchronized (PagePreloader.class) {
+            Map<String, Map<String, Integer>> transitions = getTransitions(context, pkg);
+            Map<String, Integer> targets = transitions.get(fromPath);
+            if (targets == null) {
+                targets = new HashMap<>();
+                transitions.put(fromPath, targets);
+            }
+            Integer count = targets.get(targetPath);
+            targets.put(targetPath, count == null ? 1 : count + 1);
+            if (sum(targets) > DECAY_THRESHOLD) {
+                Iterator<Map.Entry<String, Integer>> iterator = targets.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, Integer> entry = iterator.next();
+                    int decayed = entry.getValue() / 2;
+                    if (decayed == 0) {
+                        iterator.remove();
+                    } else {
+                        entry.setValue(decayed);
+                    }
+                }
+            }
+            json = toJson(transitions);
+        }
+        getPreferences(context).edit().putString(pkg, json).apply();
+    }
+
+    private static void preloadSuccessors(Context context, String pkg, String path) {
+        List<String> predictions = predict(context, pkg, path);
+        if (predictions.isEmpty()) {
+            return;
+        }
+        HapEngine hapEngine = HapEngine.getInstance(pkg);
+        if (hapEngine.isCardMode()) {
+            return;
+        }
+        ApplicationContext applicationContext = hapEngine.getApplicationContext();
+        AppInfo appInfo = applicationContext.getAppInfo(false);
+        RouterInfo routerInfo = appInfo == null ? null : appInfo.getRouterInfo();
+        if (routerInfo == null) {
+            return;
+        }
+        for (String nextPath : predictions) {
+            synchronized (PagePreloader.class) {
+                if (sPreloadedPages.containsKey(getKey(pkg, nextPath))) {
+                    continue;
+                }
+            }
+            // 只查找路由, 不创建 Page: 创建 Page 会分配页面 id, 找不到页面时还会上报错误
+            RoutableInfo routableInfo = routerInfo.getPageInfoByPath(nextPath);
+            if (routableInfo == null) {
+                continue;
+            }
+            String js = AppResourcesLoader.getPageJs(context, pkg, routableInfo);
+            if (TextUtils.isEmpty(js)) {
+                continue;
+            }
+            String css = AppResourcesLoader.getPageCss(context, pkg, routableInfo);
+            PreloadedPage preloaded = new PreloadedPage(js, css, parseStyleSheets(css));
+            put(getKey(pkg, routableInfo.getPath()), preloaded);
+            if (BuildConfig.DEBUG) {
+                Log.d(TAG, "preloaded " + routableInfo.getPath() + ", size: " + preloaded.size);
+            }
+        }
+    }
+
+    private static List<String> predict(Context context, String pkg, String path) {
+        List<String> result = new ArrayList<>(MAX_PREDICTIONS);
+        synchronized (PagePreloader.class) {
+            Map<String, Integer> targets = getTransitions(context, pkg).get(path);
+            if (targets == null || targets.isEmpty()) {
+                return result;
+            }
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>(targets.entrySet());
+            Collections.sort(entries, (a, b) -> b.getValue() - a.getValue());
+            int total = sum(targets);
+            for (Map.Entry<String, Integer> entry : entries) {
+                int count = entry.getValue();
+                if (result.size() >= MAX_PREDICTIONS
+                        || count < MIN_TRANSITION_COUNT
+                        || (float) count / total < MIN_PROBABILITY) {
+                    break;
+                }
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    private static List<CSSStyleSheet> parseStyleSheets(String css) {
+        List<CSSStyleSheet> styleSheets = new ArrayList<>();
+        if (TextUtils.isEmpty(css)) {
+            return styleSheets;
+        }
+        try {
+            org.hapjs.common.json.JSONObject styles = new org.hapjs.common.json.JSONObject(css);
+            org.hapjs.common.json.JSONArray styleList = styles.getJSONArray("list");
+            int n = styleList.length();
+            for (int i = 0; i < n; i++) {
+                styleSheets.add(CSSParser.parseCSSStyleSheet(styleList.getJSONObject(i)));
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "parse css failed: " + e.getMessage());
+        }
+        return styleSheets;
+    }
+
+    private static synchronized void put(String key, PreloadedPage page) {
+        PreloadedPage previous = sPreloadedPages.put(key, page);
+        if (previous != null) {
+            sPreloadedChars -= previous.size;
+        }
+        sPreloadedChars += page.size;
+        Iterator<PreloadedPage> iterator = sPreloadedPages.values().iterator();
+        while (sPreloadedChars > MAX_PRELOAD_CHARS && iterator.hasNext()) {
+            sPreloadedChars -= iterator.next().size;
+            iterator.remove();
+        }
+    }
+
+    private static Map<String, Map<String, Integer>> getTransitions(Context context, String pkg) {
+        Map<String, Map<String, Integer>> transitions = sTransitions.get(pkg);
+        if (transitions == null) {
+            transitions = fromJson(getPreferences(context).getString(pkg, null));
+            sTransitions.put(pkg, transitions);
+        }
+        return transitions;
+    }
+
+    private static SharedPreferences getPreferences(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private static String toJson(Map<String, Map<String, Integer>> transitions) {
+        JSONObject json = new JSONObject();
+        try {
+            for (Map.Entry<String, Map<String, Integer>> entry : transitions.entrySet()) {
+                json.put(entry.getKey(), new JSONObject(entry.getValue()));
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "failed to serialize transitions", e);
+        }
+        return json.toString();
+    }
+
+    private static Map<String, Map<String, Integer>> fromJson(String str) {
+        Map<String, Map<String, Integer>> transitions = new HashMap<>();
+        if (TextUtils.isEmpty(str)) {
+            return transitions;
+        }
+        try {
+            JSONObject json = new JSONObject(str);
+            Iterator<String> froms = json.keys();
+            while (froms.hasNext()) {
+                String from = froms.next();
+                JSONObject targetsJson = json.getJSONObject(from);
+                Map<String, Integer> targets = new HashMap<>();
+                Iterator<String> tos = targetsJson.keys();
+                while (tos.hasNext()) {
+                    String to = tos.next();
+                    targets.put(to, targetsJson.getInt(to));
+                }
+                transitions.put(from, targets);
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "failed to parse transitions", e);
+        }
+        return transitions;
+    }
+
+    private static int sum(Map<String, Integer> targets) {
+        int total = 0;
+        for (int count : targets.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static String getKey(String pkg, String path) {
+        return pkg + ":" + path;
+    }
+
+    public static class PreloadedPage {
+        public final String js;
+        public final String css;
+        public final List<CSSStyleSheet> styleSheets;
+        final int size;
+
+        PreloadedPage(String js, String css, List<CSSStyleSheet> styleSheets) {
+            this.js = js;
+            this.css = css;
+            this.styleSheets = styleSheets;
+            this.size = js.length() + (css == null ? 0 : css.length())
+                    + getStyleSheetsSize(styleSheets);
+        }
+
+        private static int getStyleSheetsSize(List<CSSStyleSheet> styleSheets) {
+            int count = 0;
+            for (CSSStyleSheet styleSheet : styleSheets) {
+                count += styleSheet.getRuleAndDeclarationCount();
+            }
+            return count * CHARS_PER_STYLE_ENTRY;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.render;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.hapjs.component.ComponentDataHolder;
+import org.hapjs.render.vdom.VDocument;
+import org.hapjs.render.vdom.VElement;
+import org.hapjs.render.vdom.VGroup;
+
+/**
+ * 页面的渲染快照: 页面视图被释放前, 把 VDocument 当前的 dom 结构, 样式, 属性和事件压缩为一条
+ * ACTION_CREATE_BODY 指令, 连同标题栏, 状态栏的状态一起保存. 再次进入页面时回放快照即可立即显示页面,
+ * 不必等待 js 重新生成渲染指令. 回放后即丢弃, 仅在主线程使用.
+ *
+ * <p>快照是数据的副本, 不引用组件和 css 节点: 回放生成的组件不绑定 css 节点, 由 js 重新生成的内容替换.
+ */
+final class RenderSnapshot {
+
+    private final List<VDomChangeAction> mActions;
+
+    private RenderSnapshot(List<VDomChangeAction> actions) {
+        mActions = actions;
+    }
+
+    /**
+     * @return 页面还没有内容时返回 null
+     */
+    static RenderSnapshot capture(VDocument doc, int pageId, Map<String, Object> titles,
+                                  Map<String, Object> status) {
+        VElement body = doc.getElementById(VElement.ID_BODY);
+        if (!(body instanceof VGroup) || ((VGroup) body).getChildren().isEmpty()) {
+            return null;
+        }
+        List<VDomChangeAction> actions = new ArrayList<>(3);
+        VDomChangeAction createBody = capture(((VGroup) body).getChildren().get(0), pageId);
+        createBody.action = VDomChangeAction.ACTION_CREATE_BODY;
+        createBody.parentVId = VElement.ID_BODY;
+        actions.add(createBody);
+        if (!titles.isEmpty()) {
+            VDomChangeAction action = new VDomChangeAction();
+            action.action = VDomChangeAction.ACTION_UPDATE_TITLE_BAR;
+            action.pageId = pageId;
+            action.titles.putAll(titles);
+            actions.add(action);
+        }
+        if (!status.isEmpty()) {
+            VDomChangeAction action = new VDomChangeAction();
+            action.action = VDomChangeAction.ACTION_UPDATE_STATUS_BAR;
+            action.pageId = pageId;
+            action.status.putAll(status);
+            actions.add(action);
+        }
+        return new RenderSnapshot(actions);
+    }
+
+    private static VDomChangeAction capture(VElement element, int pageId) {
+        ComponentDataHolder holder = element.getComponentDataHolder();
+        VDomChangeAction action = new VDomChangeAction();
+        action.action = VDomChangeAction.ACTION_ADD;
+        action.pageId = pageId;
+        action.vId = element.getVId();
+        action.parentVId = element.getParent() == null ? -1 : element.getParent().getVId();
+        action.tagName = element.getTagName();
+        action.attributes.putAll(holder.getAttrsDomData());
+        action.styles.putAll(holder.getStyleDomData());
+        action.events.addAll(holder.getDomEvents());
+        if (element instanceof VGroup) {
+            for (VElement child : ((VGroup) element).getChildren()) {
+                action.children.add(capture(child, pageId));
+            }
+        }
+        return action;
+    }
+
+    List<VDomChangeAction> getActions() {
+        return Collections.unmodifiableList(mActions);
+    }
+}
@@ -8,7 +8,9 @@ package org.hapjs.render;
 import static org.hapjs.logging.RuntimeLogManager.VALUE_ROUTER_APP_FROM_WEB;
 
 import android.app.Activity;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.graphics.Color;
 import android.graphics.Rect;
 import android.hardware.display.DisplayManager;
@@ -71,6 +73,7 @@ import org.hapjs.common.utils.UriUtils;
 import org.hapjs.component.Component;
 import org.hapjs.component.Container;
 import org.hapjs.component.ResizeEventDispatcher;
+import org.hapjs.component.UpdateBatch;
 import org.hapjs.component.bridge.ActivityStateListener;
 import org.hapjs.component.bridge.RenderEventCallback;
 import org.hapjs.component.constants.Attributes;
@@ -166,6 +169,25 @@ public class RootView extends FrameLayout
     // add for orientation listener
     private DisplayManager mDisplayManager;
     private DisplayManager.DisplayListener mDisplayListener;
+    private final ComponentCallbacks2 mTrimMemoryCallbacks =
+            new ComponentCallbacks2() {
+                @Override
+                public void onTrimMemory(int level) {
+                    if (!mIsDestroyed && mPageManager != null) {
+                        mPageManager.onTrimMemory(level);
+                    }
+                }
+
+                @Override
+                public void onConfigurationChanged(Configuration newConfig) {
+                    // ignore
+                }
+
+                @Override
+                public void onLowMemory() {
+                    onTrimMemory(TRIM_MEMORY_COMPLETE);
+                }
+            };
     private Page.LoadPageJsListener mLoadPageJsListener;
     private boolean mIsInMultiWindowMode = false;
     private FitWindowsViewGroup.OnFitSystemWindowsListener mListener;
@@ -648,6 +670,7 @@ public class RootView extends FrameLayout
                     };
         }
         mDisplayManager.registerDisplayListener(mDisplayListener, null);
+        getContext().registerComponentCallbacks(mTrimMemoryCallbacks);
 
         if (Build.VERSION.SDK_INT <= Build.VERSION_CODES.LOLLIPOP_MR1) {
             onVisibilityChanged(this, getVisibility());
@@ -658,6 +681,7 @@ public class RootView extends FrameLayout
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         mDisplayManager.unregisterDisplayListener(mDisplayListener);
+        getContext().unregisterComponentCallbacks(mTrimMemoryCallbacks);
         if (mOnDetachedListener != null) {
             mOnDetachedListener.onDetached();
         }
@@ -1326,14 +1350,41 @@ public class RootView extends FrameLayout
         }
 
         RuntimeLogManager.getDefault().logUIThreadTaskStart(mPackage, "applyActions");
-        RenderAction action = page.pollRenderAction();
-        while (action != null) {
-            applyAction(document, action);
-            action = page.pollRenderAction();
+        UpdateBatch.begin();
+        try {
+            RenderAction action = page.pollRenderAction();
+            while (action != null) {
+                applyAction(document, action);
+                page.recordAppliedAction(action);
+                action = page.pollRenderAction();
+            }
+        } finally {
+            UpdateBatch.end();
         }
         RuntimeLogManager.getDefault().logUIThreadTaskEnd(mPackage, "applyActions");
     }
 
+    private void replayRenderSnapshot(VDocument document, Page page) {
+        RenderSnapshot snapshot = page.getRenderSnapshot();
+        if (snapshot == null) {
+            return;
+        }
+        // 快照只用于这一次回放, 之后页面内容由新的 VDocument 持有
+        page.clearRenderSnapshot();
+        try {
+            mVdomActionApplier.replaySnapshot(
+                    HapEngine.getInstance(mPackage),
+                    getThemeContext(),
+                    mJsThread,
+                    snapshot.getActions(),
+                    document,
+                    mRenderEventCallback);
+        } catch (Exception e) {
+            // 快照内容会被 js 重新生成的内容替换, 回放失败不影响页面
+            Log.w(TAG, "replay render snapshot failed", e);
+        }
+    }
+
     public void applyAction(VDocument document, RenderAction action) {
         try {
 
@@ -1723,6 +1774,7 @@ public class RootView extends FrameLayout
             RuntimeLogManager.getDefault()
                     .logPageRecreateRenderStart(mAppInfo.getPackage(), currPage.getName());
             mDocument = new VDocument(createDocComponent(currPage.pageId));
+            replayRenderSnapshot(mDocument, currPage);
             InnerPageEnterListener pageEnterListener = new InnerPageEnterListener(mDocument, currPage, false);
             mDocument.attachChildren(false,
                     currPage.getPageAnimation(Attributes.PageAnimation.ACTION_CLOSE_ENTER, DocAnimator.TYPE_PAGE_CLOSE_ENTER),
@@ -1741,6 +1793,19 @@ public class RootView extends FrameLayout
                             : currPage.getPageAnimation(Attributes.PageAnimation.ACTION_OPEN_ENTER, DocAnimator.TYPE_PAGE_OPEN_ENTER),
                     pageEnterListener);
             mJsThread.postChangeVisiblePage(currPage, true);
+        } else if (currPage.getState() >= Page.STATE_CREATED) {
+            // 缓存页面的视图在内存紧张时已被释放, js 状态仍在, 由 js 重新生成渲染指令
+            mJsThread.postRecreatePage(currPage);
+            RuntimeLogManager.getDefault()
+                    .logPageRecreateRenderStart(mAppInfo.getPackage(), currPage.getName());
+            mDocument = new VDocument(createDocComponent(currPage.pageId));
+            replayRenderSnapshot(mDocument, currPage);
+            InnerPageEnterListener pageEnterListener = new InnerPageEnterListener(mDocument, currPage, false);
+            mDocument.attachChildren(true, (newIndex == 0 || isReloadOldPage(oldIndex, newIndex, oldPage))
+                            ? DocAnimator.TYPE_UNDEFINED
+                            : currPage.getPageAnimation(Attributes.PageAnimation.ACTION_OPEN_ENTER, DocAnimator.TYPE_PAGE_OPEN_ENTER),
+                    pageEnterListener);
+            currPage.setDisplayInfo(mDocument);
         } else {
             mJsThread.loadPage(currPage);
             RuntimeLogManager.getDefault()
@@ -1940,6 +2005,7 @@ public class RootView extends FrameLayout
             RuntimeLogManager.getDefault().logPageRecreateRenderStart(
                     mAppInfo.getPackage(), backwardTargetPage.getName());
             newDoc = new VDocument(createDocComponent(backwardTargetPage.pageId));
+            replayRenderSnapshot(newDoc, backwardTargetPage);
             newDoc.attachChildren(false, backwardAnimType, extraInfo,
                     new InnerPageEnterListener(newDoc, backwardTargetPage, isMultiWindowShoppingMode));
             if (isMultiWindowShoppingMode) {
@@ -1964,6 +2030,14 @@ public class RootView extends FrameLayout
             newDoc = currPage.getCacheDoc();
             newDoc.attachChildren(true, forwardAnimType, extraInfo, new InnerPageEnterListener(newDoc, currPage, isReplaceLeftPage));
             mJsThread.postChangeVisiblePage(currPage, true);
+        } else if (currPage.getState() >= Page.STATE_CREATED) {
+            mJsThread.postRecreatePage(currPage);
+            RuntimeLogManager.getDefault().logPageRecreateRenderStart(
+                    mAppInfo.getPackage(), currPage.getName());
+            newDoc = new VDocument(createDocComponent(currPage.pageId));
+            replayRenderSnapshot(newDoc, currPage);
+            newDoc.attachChildren(true, forwardAnimType, extraInfo, new InnerPageEnterListener(newDoc, currPage, isReplaceLeftPage));
+            currPage.setDisplayInfo(newDoc);
         } else {
             mJsThread.loadPage(currPage);
             RuntimeLogManager.getDefault().logPageCreateRenderStart(
@@ -2435,6 +2509,7 @@ public class RootView extends FrameLayout
                     Page page = mPageManager
                             .getPage(mPageManager.getPageCount() - PAGE_CACHE_NUM_MAX - 1);
                     if (page != null && !page.shouldCache() && !isMultiWindowLeftPage(page)) {
+                        page.captureRenderSnapshot();
                         page.clearCache();
                         page.setState(Page.STATE_CREATED);
                     }
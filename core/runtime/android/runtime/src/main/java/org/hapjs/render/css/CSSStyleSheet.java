@@ -95,6 +95,36 @@ public class CSSStyleSheet {
         return cssMediaRules;
     }
 
+    /**
+     * 样式规则及其声明的总数(含 media 规则中的), 用于估算解析后的样式表占用的内存.
+     */
+    public int getRuleAndDeclarationCount() {
+        int count = countRulesAndDeclarations(mCSSRules);
+        if (mCssMediaRules != null) {
+            for (CSSMediaRule mediaRule : mCssMediaRules) {
+                count += countRulesAndDeclarations(mediaRule.getCssRuleList());
+            }
+        }
+        return count;
+    }
+
+    private static int countRulesAndDeclarations(CSSRuleList rules) {
+        if (rules == null) {
+            return 0;
+        }
+        int count = 0;
+        for (CSSRule rule : rules.getCssRules()) {
+            count++;
+            if (rule instanceof CSSStyleRule) {
+                CSSStyleDeclaration declaration = ((CSSStyleRule) rule).getDeclaration();
+                if (declaration != null) {
+                    count += declaration.getLength();
+                }
+            }
+        }
+        return count;
+    }
+
     public int getStyleObjectId() {
         return mStyleObjectId;
     }
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.render.jsruntime;
+
+import com.eclipsesource.v8.V8;
+import com.eclipsesource.v8.V8Array;
+import com.eclipsesource.v8.V8ArrayBuffer;
+import com.eclipsesource.v8.V8Object;
+import com.eclipsesource.v8.utils.typedarrays.ArrayBuffer;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONObject;
+
+/**
+ * 将 Java 的 Map/List 结构转换为 V8 对象.
+ *
+ * <p>节点较少时逐个创建 V8 句柄; 节点较多时先在 Java 侧序列化为 json 字符串, 再调用一次 JSON.parse,
+ * 避免每个节点一次 jni 调用, 同时由 V8 内部化重复的 key. 包含 ArrayBuffer 或 NaN/Infinity 等
+ * json 无法表示的值时回退到逐个创建.
+ *
+ * <p>数值类型保持不变: Long 在安全整数范围内转换为 number, 超出范围时转换为字符串以免丢失精度.
+ */
+class JsMarshaller {
+
+    // 超过该节点数时使用 JSON.parse 批量转换
+    static final int BULK_THRESHOLD = 64;
+
+    private static final long MAX_SAFE_INTEGER = (1L << 53) - 1;
+
+    private JsMarshaller() {
+    }
+
+    static V8Object toV8Object(V8 v8, Map<?, ?> map) {
+        if (countNodes(map, BULK_THRESHOLD) > BULK_THRESHOLD) {
+            V8Object obj = parseJson(v8, map);
+            if (obj != null) {
+                return obj;
+            }
+        }
+        return buildObject(v8, map);
+    }
+
+    static void push(V8Array array, Object val) {
+        V8 v8 = array.getRuntime();
+        if (val == null) {
+            array.pushNull();
+        } else if (val instanceof String) {
+            array.push((String) val);
+        } else if (val instanceof Integer || val instanceof Short || val instanceof Byte) {
+            array.push(((Number) val).intValue());
+        } else if (val instanceof Long) {
+            long value = (Long) val;
+            if (isSafeInteger(value)) {
+                array.push((double) value);
+            } else {
+                array.push(String.valueOf(value));
+            }
+        } else if (val instanceof Number) {
+            array.push(((Number) val).doubleValue());
+        } else if (val instanceof Boolean) {
+            array.push((boolean) (Boolean) val);
+        } else if (val instanceof Map) {
+            V8Object obj = toV8Object(v8, (Map<?, ?>) val);
+            array.push(obj);
+            JsUtils.release(obj);
+        } else if (val instanceof List) {
+            V8Array child = buildArray(v8, (List<?>) val);
+            array.push(child);
+            JsUtils.release(child);
+        } else if (val instanceof ArrayBuffer) {
+            V8ArrayBuffer buffer = new V8ArrayBuffer(v8, ((ArrayBuffer) val).getByteBuffer());
+            array.push(buffer);
+            JsUtils.release(buffer);
+        } else {
+            array.push(val.toString());
+        }
+    }
+
+    private static V8Object buildObject(V8 v8, Map<?, ?> map) {
+        V8Object obj = new V8Object(v8);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String key = entry.getKey().toString();
+            Object val = entry.getValue();
+            if (val == null) {
+                obj.addNull(key);
+            } else if (val instanceof String) {
+                obj.add(key, (String) val);
+            } else if (val instanceof Integer || val instanceof Short || val instanceof Byte) {
+                obj.add(key, ((Number) val).intValue());
+            } else if (val instanceof Long) {
+                long value = (Long) val;
+                if (isSafeInteger(value)) {
+                    obj.add(key, (double) value);
+                } else {
+                    obj.add(key, String.valueOf(value));
+                }
+            } else if (val instanceof Number) {
+                obj.add(key, ((Number) val).doubleValue());
+            } else if (val instanceof Boolean) {
+                obj.add(key, (boolean) (Boolean) val);
+            } else if (val instanceof Map) {
+                V8Object child = buildObject(v8, (Map<?, ?>) val);
+                obj.add(key, child);
+                JsUtils.release(child);
+            } else if (val instanceof List) {
+                V8Array child = buildArray(v8, (List<?>) val);
+                obj.add(key, child);
+                JsUtils.release(child);
+            } else if (val instanceof ArrayBuffer) {
+                V8ArrayBuffer buffer = new V8ArrayBuffer(v8, ((ArrayBuffer) val).getByteBuffer());
+                obj.add(key, buffer);
+                JsUtils.release(buffer);
+            } else {
+                obj.add(key, val.toString());
+            }
+        }
+        return obj;
+    }
+
+    private static V8Array buildArray(V8 v8, List<?> list) {
+        V8Array array = new V8Array(v8);
+        for (Object o : list) {
+            push(array, o);
+        }
+        return array;
+    }
+
+    private static V8Object parseJson(V8 v8, Map<?, ?> map) {
+        StringBuilder sb = new StringBuilder(BULK_THRESHOLD * 16);
+        if (!writeValue(sb, map)) {
+            return null;
+        }
+        V8Object json = v8.getObject("JSON");
+        V8Array parameters = new V8Array(v8).push(sb.toString());
+        try {
+            Object result = json.executeFunction("parse", parameters);
+            if (result instanceof V8Object) {
+                return (V8Object) result;
+            }
+            return null;
+        } finally {
+            JsUtils.release(parameters, json);
+        }
+    }
+
+    /**
+     * @return false 表示包含 json 无法表示的值
+     */
+    private static boolean writeValue(StringBuilder sb, Object val) {
+        if (val == null) {
+            sb.append("null");
+        } else if (val instanceof String) {
+            sb.append(JSONObject.quote((String) val));
+        } else if (val instanceof Integer || val instanceof Short || val instanceof Byte
+                || val instanceof Boolean) {
+            sb.append(val);
+        } else if (val instanceof Long) {
+            long value = (Long) val;
+            if (isSafeInteger(value)) {
+                sb.append(value);
+            } else {
+                sb.append('"').append(value).append('"');
+            }
+        } else if (val instanceof Number) {
+            double value = ((Number) val).doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                return false;
+            }
+            sb.append(value);
+        } else if (val instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) val).entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                sb.append(JSONObject.quote(entry.getKey().toString())).append(':');
+                if (!writeValue(sb, entry.getValue())) {
+                    return false;
+                }
+            }
+            sb.append('}');
+        } else if (val instanceof List) {
+            sb.append('[');
+            boolean first = true;
+            for (Object o : (List<?>) val) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                if (!writeValue(sb, o)) {
+                    return false;
+                }
+            }
+            sb.append(']');
+        } else if (val instanceof ArrayBuffer) {
+            return false;
+        } else {
+            sb.append(JSONObject.quote(val.toString()));
+        }
+        return true;
+    }
+
+    /**
+     * 统计节点数, 超过 limit 后停止.
+     */
+    private static int countNodes(Object val, int limit) {
+        int count = 1;
+        if (val instanceof Map) {
+            for (Object o : ((Map<?, ?>) val).values()) {
+                count += countNodes(o, limit - count);
+                if (count > limit) {
+                    break;
+                }
+            }
+        } else if (val instanceof List) {
+            for (Object o : (List<?>) val) {
+                count += countNodes(o, limit - count);
+                if (count > limit) {
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean isSafeInteger(long value) {
+        return value <= MAX_SAFE_INTEGER && value >= -MAX_SAFE_INTEGER;
+    }
+}
@@ -16,6 +16,7 @@ import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
 import android.os.Message;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.DisplayMetrics;
 import android.util.Log;
@@ -48,6 +49,7 @@ import org.hapjs.chunk.JsChunksManager;
 import org.hapjs.common.compat.BuildPlatform;
 import org.hapjs.common.executors.AbsTask;
 import org.hapjs.common.executors.Executors;
+import org.hapjs.common.net.HttpConfig;
 import org.hapjs.common.utils.FrescoUtils;
 import org.hapjs.common.utils.LogUtils;
 import org.hapjs.common.utils.RouterUtils;
@@ -70,6 +72,7 @@ import org.hapjs.render.IdGenerator;
 import org.hapjs.render.MultiWindowManager;
 import org.hapjs.render.Page;
 import org.hapjs.render.PageManager;
+import org.hapjs.render.PagePreloader;
 import org.hapjs.render.RenderActionPackage;
 import org.hapjs.render.AppResourcesLoader;
 import org.hapjs.render.RootView;
@@ -83,6 +86,7 @@ import org.hapjs.render.skeleton.DefaultSkeletonProviderImpl;
 import org.hapjs.render.skeleton.SkeletonConfigParser;
 import org.hapjs.render.skeleton.SkeletonDSLParser;
 import org.hapjs.render.skeleton.SkeletonProvider;
+import org.hapjs.runtime.BuildConfig;
 import org.hapjs.runtime.ProviderManager;
 import org.hapjs.runtime.ResourceConfig;
 import org.hapjs.runtime.RuntimeActivity;
@@ -745,12 +749,22 @@ public class JsThread extends HandlerThread {
     public void loadPage(final Page page) {
         RuntimeLogManager.getDefault().logPageLoadStart(mAppInfo.getPackage(), page.getName());
         mMainHandler.obtainMessage(RootView.MSG_LOAD_PAGE_JS_START, page).sendToTarget();
+        final long loadStartTime = SystemClock.elapsedRealtime();
         Executors.io()
                 .execute(
                         new AbsTask<String[]>() {
+                            private boolean mPreloaded;
+
                             @Override
                             protected String[] doInBackground() {
                                 mJsChunksManager.registerPageChunks(page);
+                                PagePreloader.PreloadedPage preloadedPage =
+                                        PagePreloader.take(mAppInfo.getPackage(), page.getPath());
+                                if (preloadedPage != null) {
+                                    mPreloaded = true;
+                                    registerStyleSheets(preloadedPage.styleSheets, page);
+                                    return new String[]{preloadedPage.js, preloadedPage.css};
+                                }
                                 String pageJs = AppResourcesLoader.getPageJs(mContext, mAppInfo.getPackage(), page);
                                 String pageCss = AppResourcesLoader.getPageCss(mContext, mAppInfo.getPackage(), page);
                                 parseStyleSheets(pageCss, page);
@@ -774,10 +788,22 @@ public class JsThread extends HandlerThread {
                                 postCreatePage(page, contents[0], jsUri, contents[1]);
                                 Log.d(TAG, "loadPage onPostExecute uri=" + jsUri + " result="
                                         + result);
+                                if (BuildConfig.DEBUG) {
+                                    Log.d(TAG, "loadPage preloaded=" + mPreloaded + " cost="
+                                            + (SystemClock.elapsedRealtime() - loadStartTime)
+                                            + "ms");
+                                }
                             }
                         });
     }
 
+    private void registerStyleSheets(List<CSSStyleSheet> styleSheets, Page page) {
+        RenderActionDocument document = mRenderActionManager.getOrCreateDocument(page.getPageId());
+        for (CSSStyleSheet styleSheet : styleSheets) {
+            document.registerStyleSheet(styleSheet.getStyleObjectId(), styleSheet);
+        }
+    }
+
     private void parseStyleSheets(String css, Page page) {
         if (TextUtils.isEmpty(css)) {
             return;
@@ -1272,6 +1298,9 @@ public class JsThread extends HandlerThread {
         mRenderActionManager.release();
         JsUtils.release(mJsTimer, mJsBridgeHistory, mProfiler);
         mExtensionManager.dispose();
+        if (mAppInfo != null) {
+            HttpConfig.get().disposeOkHttpClient(mAppInfo.getPackage());
+        }
         mJsContext.dispose();
         quit();
         Log.d(TAG, "shutdown finish: " + this);
@@ -7,14 +7,11 @@ package org.hapjs.render.jsruntime;
 
 import com.eclipsesource.v8.V8;
 import com.eclipsesource.v8.V8Array;
-import com.eclipsesource.v8.V8ArrayBuffer;
 import com.eclipsesource.v8.V8Object;
 import com.eclipsesource.v8.V8Value;
-import com.eclipsesource.v8.utils.typedarrays.ArrayBuffer;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 public class JsUtils {
@@ -76,43 +73,7 @@ public class JsUtils {
         if (map == null) {
             return null;
         }
-
-        V8Object obj = new V8Object(v8);
-        for (Map.Entry<?, ?> entry : map.entrySet()) {
-            String key = entry.getKey().toString();
-            Object val = entry.getValue();
-            if (val instanceof Integer) {
-                obj.add(key, (int) (Integer) val);
-            } else if (val instanceof Double) {
-                obj.add(key, (double) (Double) val);
-            } else if (val instanceof Float) {
-                obj.add(key, (double) (float) (Float) val);
-            } else if (val instanceof Boolean) {
-                obj.add(key, (boolean) (Boolean) val);
-            } else if (val instanceof Map) {
-                V8Object temp = mapToV8Object(v8, (Map<?, ?>) val);
-                obj.add(key, temp);
-                release(temp);
-            } else if (val instanceof List) {
-                List list = (List) val;
-                V8Array array = new V8Array(v8);
-                for (Object o : list) {
-                    push(array, o);
-                }
-                obj.add(key, array);
-                release(array);
-            } else if (val == null) {
-                obj.addNull(key);
-            } else if (val instanceof ArrayBuffer) {
-                V8ArrayBuffer nativeArrayBuffer =
-                        new V8ArrayBuffer(v8, ((ArrayBuffer) val).getByteBuffer());
-                obj.add(key, nativeArrayBuffer);
-                release(nativeArrayBuffer);
-            } else {
-                obj.add(key, val.toString());
-            }
-        }
-        return obj;
+        return JsMarshaller.toV8Object(v8, map);
     }
 
     public static Map<String, String> v8ObjectToMap(V8Object obj, Map<String, String> map) {
@@ -132,21 +93,7 @@ public class JsUtils {
     }
 
     public static void push(V8Array array, Object object) {
-        if (object instanceof Integer) {
-            array.push((Integer) object);
-        } else if (object instanceof Double) {
-            array.push((Double) object);
-        } else if (object instanceof Float) {
-            array.push((Float) object);
-        } else if (object instanceof Boolean) {
-            array.push((Boolean) object);
-        } else if (object instanceof String) {
-            array.push((String) object);
-        } else if (object instanceof Map) {
-            V8Object obj = mapToV8Object(array.getRuntime(), (Map<?, ?>) object);
-            array.push(obj);
-            release(obj);
-        }
+        JsMarshaller.push(array, object);
     }
 
     public static String toJsBoolean(boolean value) {
@@ -20,6 +20,8 @@ public class VDocument extends VGroup {
     // createFinish before the skeleton is rendered.
     private boolean mIsCpHideSkeleton = false;
     private boolean mIsCreateFinish = false;
+    // 当前内容来自渲染快照, js 重新生成的内容到达后被替换
+    private boolean mRenderedFromSnapshot = false;
 
     public VDocument(DocComponent docComponent) {
         super(null, VElement.ID_DOC, null, docComponent);
@@ -32,6 +34,10 @@ public class VDocument extends VGroup {
         return mIdToEles.get(id);
     }
 
+    public int getElementCount() {
+        return mIdToEles.size();
+    }
+
     public void attachChildren(boolean open, int animType, DocComponent.PageEnterListener pageEnterListener) {
         this.attachChildren(open, animType, null, pageEnterListener);
     }
@@ -109,4 +115,12 @@ public class VDocument extends VGroup {
         }
         mIsCreateFinish = flag;
     }
+
+    public boolean isRenderedFromSnapshot() {
+        return mRenderedFromSnapshot;
+    }
+
+    void setRenderedFromSnapshot(boolean renderedFromSnapshot) {
+        mRenderedFromSnapshot = renderedFromSnapshot;
+    }
 }
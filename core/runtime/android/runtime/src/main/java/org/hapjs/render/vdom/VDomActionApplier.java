@@ -8,6 +8,7 @@ package org.hapjs.render.vdom;
 import android.content.Context;
 import android.util.Log;
 import android.view.View;
+import java.util.List;
 import java.util.Map;
 import org.hapjs.bridge.HostCallbackManager;
 import org.hapjs.component.Component;
@@ -35,6 +36,8 @@ public class VDomActionApplier {
     private static final String TAG = "VDomActionApplier";
 
     private RecyclerDataItem.Creator mRecyclerDataItemCreator;
+    // 回放渲染快照期间不回调 js, js 侧的节点没有变化
+    private boolean mReplayingSnapshot;
 
     public VDomActionApplier() {
     }
@@ -93,12 +96,16 @@ public class VDomActionApplier {
                 VElement bodyEle = doc.getElementById(VElement.ID_BODY);
                 if (bodyEle == null) {
                     bodyEle = createBody(hapEngine, context, doc, renderEventCallback);
+                } else if (doc.isRenderedFromSnapshot() && !mReplayingSnapshot) {
+                    // js 重新生成的页面内容到达, 替换快照内容
+                    removeChildren((VGroup) bodyEle);
+                    doc.setRenderedFromSnapshot(false);
                 }
                 // add body
                 addElement(hapEngine, context, action, doc, renderEventCallback, (VGroup) bodyEle);
                 action.inspectorVElementType = InspectorVElementType.VGROUP;
                 if(action.hooks.contains("mounted")){
-                    CallBackJsUtils.getInstance().callBackJs(jsThread,action.pageId,CallBackJsUtils.TYPE_NODE_MOUNTED,action.vId);
+                    callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_NODE_MOUNTED, action.vId);
                 }
                 break;
             }
@@ -110,13 +117,13 @@ public class VDomActionApplier {
                 }
                 addElement(hapEngine, context, action, doc, renderEventCallback, parent);
                 if (action.hooks.contains("mounted")) {
-                    CallBackJsUtils.getInstance().callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_NODE_MOUNTED, action.vId);
+                    callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_NODE_MOUNTED, action.vId);
                 }
                 break;
             }
             case VDomChangeAction.ACTION_UPDATE_FINISH: {
                 if(action.jsCallbacks){
-                    CallBackJsUtils.getInstance().callBackJs(jsThread,action.pageId,CallBackJsUtils.TYPE_PAGE_UPDATE_FINISH,action.vId);
+                    callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_PAGE_UPDATE_FINISH, action.vId);
                 }
                 break;
             }
@@ -127,7 +134,7 @@ public class VDomActionApplier {
                     HostCallbackManager.getInstance().onCardCreate(action.pageId);
                 }
                 if (action.jsCallbacks) {
-                    CallBackJsUtils.getInstance().callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_PAGE_CREATE_FINISH, action.vId);
+                    callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_PAGE_CREATE_FINISH, action.vId);
                 }
                 break;
             }
@@ -179,7 +186,7 @@ public class VDomActionApplier {
                 if (ele.getComponent() != null &&
                         ele.getComponent().getHook() != null &&
                         ele.getComponent().getHook().contains("destroy")) {
-                    CallBackJsUtils.getInstance().callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_NODE_DESTROY, action.vId);
+                    callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_NODE_DESTROY, action.vId);
                 }
                 ele.getParent().removeChild(ele);
                 break;
@@ -199,7 +206,7 @@ public class VDomActionApplier {
                     if (!action.attributes.isEmpty()) {
                         ele.getComponent().getAttrsDomData().putAll(action.attributes);
                     }
-                    CallBackJsUtils.getInstance().callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_NODE_UPDATE, action.vId);
+                    callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_NODE_UPDATE, action.vId);
                 }
                 break;
             }
@@ -257,7 +264,7 @@ public class VDomActionApplier {
                 if (ele.getComponent() != null &&
                         ele.getComponent().getHook() != null &&
                         ele.getComponent().getHook().contains("update")) {
-                    CallBackJsUtils.getInstance().callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_NODE_UPDATE, action.vId);
+                    callBackJs(jsThread, action.pageId, CallBackJsUtils.TYPE_NODE_UPDATE, action.vId);
                 }
                 break;
             }
@@ -298,7 +305,43 @@ public class VDomActionApplier {
             default:
                 throw new IllegalArgumentException("Unsupported action:" + action.action);
         }
-        InspectorManager.getInspector().onAppliedChangeAction(context, jsThread, action);
+        if (!mReplayingSnapshot) {
+            InspectorManager.getInspector().onAppliedChangeAction(context, jsThread, action);
+        }
+    }
+
+    /**
+     * 将记录的渲染快照回放到新的 VDocument 中, 在 js 重新生成页面内容之前先显示页面.
+     */
+    public void replaySnapshot(
+            HapEngine hapEngine,
+            Context context,
+            JsThread jsThread,
+            List<VDomChangeAction> actions,
+            VDocument doc,
+            RenderEventCallback renderEventCallback) {
+        doc.setRenderedFromSnapshot(true);
+        mReplayingSnapshot = true;
+        try {
+            for (VDomChangeAction action : actions) {
+                applyChangeAction(hapEngine, context, jsThread, action, doc, renderEventCallback);
+            }
+        } finally {
+            mReplayingSnapshot = false;
+        }
+    }
+
+    private void callBackJs(JsThread jsThread, int pageId, String type, int vId) {
+        if (!mReplayingSnapshot) {
+            CallBackJsUtils.getInstance().callBackJs(jsThread, pageId, type, vId);
+        }
+    }
+
+    private void removeChildren(VGroup group) {
+        List<VElement> children = group.getChildren();
+        for (int i = children.size() - 1; i >= 0; i--) {
+            group.removeChild(children.get(i));
+        }
     }
 
     private VElement createBody(
@@ -49,24 +49,27 @@ public class VGroup extends VElement {
     }
 
     public void addChild(VElement ele, int index) {
+        int position;
         if (index < 0 || index >= mChildren.size()) {
             mChildren.add(ele);
+            position = mChildren.size() - 1;
         } else {
             mChildren.add(index, ele);
+            position = index;
         }
 
         ele.mParent = this;
 
-        onChildEleAdded(ele, index);
+        onChildEleAdded(ele, index, position);
         mDoc.onAddElement(ele);
     }
 
-    private void onChildEleAdded(VElement ele, int index) {
+    private void onChildEleAdded(VElement ele, int index, int position) {
         if (mDataHolder instanceof Container) {
             ((Container) mDataHolder).addChild(ele.getComponent(), index);
         } else {
             ((Container.RecyclerItem) mDataHolder)
-                    .onChildAdded((RecyclerDataItem) ele.mDataHolder, getChildren().indexOf(ele));
+                    .onChildAdded((RecyclerDataItem) ele.mDataHolder, position);
         }
     }
 
@@ -81,7 +84,9 @@ public class VGroup extends VElement {
 
     public void removeChild(VElement ele) {
         int index = mChildren.indexOf(ele);
-        mChildren.remove(ele);
+        if (index >= 0) {
+            mChildren.remove(index);
+        }
         ele.mParent = null;
 
         onChildEleRemoved(ele, index);
@@ -7,10 +7,13 @@ package org.hapjs.widgets.list;
 
 import android.content.Context;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.os.Parcelable;
 import android.text.TextUtils;
 import android.util.Log;
 import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.view.View;
 import android.view.ViewGroup;
 import androidx.recyclerview.widget.FlexRecyclerView;
@@ -31,6 +34,7 @@ import org.hapjs.component.RecyclerDataItem;
 import org.hapjs.component.RecyclerDataTemplate;
 import org.hapjs.component.RecyclerItemList;
 import org.hapjs.component.SwipeObserver;
+import org.hapjs.component.UpdateBatch;
 import org.hapjs.component.appearance.RecycleAppearanceManager;
 import org.hapjs.component.bridge.RenderEventCallback;
 import org.hapjs.component.constants.Attributes;
@@ -70,6 +74,13 @@ public class List extends AbstractScrollable<RecyclerView> implements Recycler,
     private static final String LIST_LAYOUT_TYPE = "layoutType";
     private static final String LIST_GRID_TYPE = "grid";
     private static final String LIST_STAGGER_TYPE = "stagger";
+    private static final int PENDING_NONE = 0;
+    private static final int PENDING_INSERT = 1;
+    private static final int PENDING_REMOVE = 2;
+    private static final int PENDING_CHANGE = 3;
+    private static final int PREFETCH_ITEM_COUNT = 4;
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+    private static final int MAX_RECYCLED_VIEWS = 20;
     private String mCurrentLayoutType;
     private Adapter mAdapter;
     private RecyclerView mRecyclerView;
@@ -90,6 +101,23 @@ public class List extends AbstractScrollable<RecyclerView> implements Recycler,
     private boolean mIsReverse = false;
     private boolean mIsEnableTalkBack;
 
+    private int mPendingOp = PENDING_NONE;
+    private int mPendingStart;
+    private int mPendingCount;
+    private final UpdateBatch.Flusher mPendingNotificationFlusher = this::flushPendingNotifications;
+    private int mPrefetchFrom;
+    private int mPrefetchTo;
+    private boolean mPrefetchScheduled;
+    private final MessageQueue.IdleHandler mPrefetchIdleHandler =
+            new MessageQueue.IdleHandler() {
+                @Override
+                public boolean queueIdle() {
+                    mPrefetchScheduled = false;
+                    prefetchTemplates();
+                    return false;
+                }
+            };
+
     public List(
             HapEngine hapEngine,
             Context context,
@@ -194,6 +222,7 @@ public class List extends AbstractScrollable<RecyclerView> implements Recycler,
                             mScrollListener.onScroll(dx, dy, mState);
                         }
                         processAppearanceEvent();
+                        schedulePrefetch(dx != 0 ? dx : dy);
                     }
                 });
 
@@ -257,6 +286,7 @@ public class List extends AbstractScrollable<RecyclerView> implements Recycler,
 
     @Override
     public void invokeMethod(String methodName, Map<String, Object> args) {
+        flushPendingNotifications();
         super.invokeMethod(methodName, args);
         if (METHOD_SCROLL_TO.equals(methodName)) {
             int position = 0;
@@ -588,6 +618,10 @@ public class List extends AbstractScrollable<RecyclerView> implements Recycler,
     @Override
     public void destroy() {
         super.destroy();
+        if (mPrefetchScheduled) {
+            mPrefetchScheduled = false;
+            Looper.myQueue().removeIdleHandler(mPrefetchIdleHandler);
+        }
         mChildren.clear();
     }
 
@@ -642,28 +676,132 @@ public class List extends AbstractScrollable<RecyclerView> implements Recycler,
     }
 
     private void notifyItemChanged(int index) {
-        if (mAdapter != null) {
-            mAdapter.notifyItemChanged(index);
+        if (mAdapter == null || index < 0) {
+            return;
+        }
+        if (mPendingOp == PENDING_CHANGE
+                && index >= mPendingStart - 1
+                && index <= mPendingStart + mPendingCount) {
+            if (index == mPendingStart - 1) {
+                mPendingStart--;
+                mPendingCount++;
+            } else if (index == mPendingStart + mPendingCount) {
+                mPendingCount++;
+            }
+            return;
         }
+        setPendingNotification(PENDING_CHANGE, index);
     }
 
     private void notifyItemInserted(int index) {
-        if (mAdapter != null) {
-            mAdapter.notifyItemInserted(index);
-            if (index == 0) {
-                mHost.scrollToPosition(0);
-            }
+        if (mAdapter == null) {
+            return;
+        }
+        if (mPendingOp == PENDING_INSERT
+                && index >= mPendingStart
+                && index <= mPendingStart + mPendingCount) {
+            mPendingCount++;
+            return;
         }
+        setPendingNotification(PENDING_INSERT, index);
     }
 
     private void notifyItemRemoved(int index) {
-        if (mAdapter != null) {
-            mAdapter.notifyItemRemoved(index);
+        if (mAdapter == null || index < 0) {
+            return;
+        }
+        if (mPendingOp == PENDING_REMOVE) {
+            if (index == mPendingStart) {
+                mPendingCount++;
+                return;
+            }
+            if (index == mPendingStart - 1) {
+                mPendingStart--;
+                mPendingCount++;
+                return;
+            }
+        }
+        setPendingNotification(PENDING_REMOVE, index);
+    }
+
+    /**
+     * 同一个 RenderActionPackage 内连续的插入/删除/更新合并为一次范围通知, 在该批 action 执行完后提交.
+     */
+    private void setPendingNotification(int op, int index) {
+        flushPendingNotifications();
+        mPendingOp = op;
+        mPendingStart = index;
+        mPendingCount = 1;
+        UpdateBatch.schedule(mPendingNotificationFlusher);
+    }
+
+    private void flushPendingNotifications() {
+        int op = mPendingOp;
+        mPendingOp = PENDING_NONE;
+        if (mAdapter == null || op == PENDING_NONE) {
+            return;
+        }
+        switch (op) {
+            case PENDING_INSERT:
+                mAdapter.notifyItemRangeInserted(mPendingStart, mPendingCount);
+                if (mPendingStart == 0) {
+                    mHost.scrollToPosition(0);
+                }
+                break;
+            case PENDING_REMOVE:
+                mAdapter.notifyItemRangeRemoved(mPendingStart, mPendingCount);
+                break;
+            case PENDING_CHANGE:
+                mAdapter.notifyItemRangeChanged(mPendingStart, mPendingCount);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 在主线程空闲时为即将滑入屏幕的 list-item 预先挂载模板(设置与模板共享的 attr/style/event map),
+     * 绑定时 onBindViewHolder 中的 attachToTemplate 即可跳过. 属性和样式仍在绑定时应用.
+     */
+    private void schedulePrefetch(int delta) {
+        if (mFlexLayoutManager == null || delta == 0) {
+            return;
+        }
+        if (delta > 0) {
+            int last = mFlexLayoutManager.findFlexLastVisibleItemPosition();
+            mPrefetchFrom = last + 1;
+            mPrefetchTo = last + PREFETCH_ITEM_COUNT;
+        } else {
+            int first = mFlexLayoutManager.findFlexFirstVisibleItemPosition();
+            mPrefetchFrom = first - PREFETCH_ITEM_COUNT;
+            mPrefetchTo = first - 1;
+        }
+        if (!mPrefetchScheduled) {
+            mPrefetchScheduled = true;
+            Looper.myQueue().addIdleHandler(mPrefetchIdleHandler);
+        }
+    }
+
+    private void prefetchTemplates() {
+        RecyclerItem recyclerItem = getRecyclerItem();
+        if (recyclerItem == null || mPendingOp != PENDING_NONE) {
+            return;
+        }
+        RecyclerItemList children = recyclerItem.getChildren();
+        int from = Math.max(0, mPrefetchFrom);
+        int to = Math.min(children.size() - 1, mPrefetchTo);
+        for (int i = from; i <= to; i++) {
+            RecyclerDataItem item = children.get(i);
+            if (item instanceof ListItem.RecyclerItem && item.getBoundComponent() == null) {
+                recyclerItem.attachToTemplate((ListItem.RecyclerItem) item);
+            }
         }
     }
 
     private void setRecyclerData(RecyclerItem recyclerItem) {
         mRecyclerItem = recyclerItem;
+        mPendingOp = PENDING_NONE;
+        UpdateBatch.cancel(mPendingNotificationFlusher);
         if (mAdapter != null) {
             mAdapter.setData(recyclerItem);
         }
@@ -817,6 +955,9 @@ public class List extends AbstractScrollable<RecyclerView> implements Recycler,
         private RecyclerItemList mData;
         private List.RecyclerItem mRecyclerItem;
         private int mCreateViewPosition = 0;
+        // 各 type 当前同时显示的 item 数, 用于调整缓存池大小: 快速滑动时一屏的同类 item 可能同时被回收
+        private SparseIntArray mAttachedCounts = new SparseIntArray();
+        private SparseIntArray mMaxRecycledViews = new SparseIntArray();
 
         Adapter() {
             setHasStableIds(true);
@@ -901,10 +1042,20 @@ public class List extends AbstractScrollable<RecyclerView> implements Recycler,
         public void onViewAttachedToWindow(Holder holder) {
             Component component = holder.getRecycleComponent();
             component.onHostViewAttached(mHost); // For ListItem setMargin
+            int viewType = holder.getItemViewType();
+            int attached = mAttachedCounts.get(viewType) + 1;
+            mAttachedCounts.put(viewType, attached);
+            int poolSize = Math.min(attached + 1, MAX_RECYCLED_VIEWS);
+            if (poolSize > mMaxRecycledViews.get(viewType, DEFAULT_MAX_RECYCLED_VIEWS)) {
+                mMaxRecycledViews.put(viewType, poolSize);
+                mRecyclerView.getRecycledViewPool().setMaxRecycledViews(viewType, poolSize);
+            }
         }
 
         @Override
         public void onViewDetachedFromWindow(Holder holder) {
+            int viewType = holder.getItemViewType();
+            mAttachedCounts.put(viewType, Math.max(0, mAttachedCounts.get(viewType) - 1));
             processAppearanceEvent();
         }
 
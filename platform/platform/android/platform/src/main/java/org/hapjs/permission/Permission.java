@@ -16,7 +16,7 @@ import org.hapjs.persistence.PermissionTable;
 public class Permission {
 
     public static int[] checkPermissions(Context context, String pkg, String[] permissions) {
-        Map<String, Integer> map = queryPermissions(context, pkg);
+        Map<String, Integer> map = PermissionCache.getInstance(context).getPermissions(pkg);
         int[] modes = new int[permissions.length];
         for (int i = 0; i < permissions.length; i++) {
             Integer mode = map.get(permissions[i]);
@@ -26,7 +26,7 @@ public class Permission {
     }
 
     public static boolean shouldShowForbidden(Context context, String pkg, String permission) {
-        return queryPermissions(context, pkg).containsKey(permission);
+        return PermissionCache.getInstance(context).getPermissions(pkg).containsKey(permission);
     }
 
     public static Map<String, Integer> queryPermissions(Context context, String pkg) {
@@ -73,6 +73,7 @@ public class Permission {
         context
                 .getContentResolver()
                 .delete(PermissionTable.getContentUri(context), selection, selectionArgs);
+        PermissionCache.getInstance(context).invalidate(pkg);
     }
 
     private static void updatePermissionsMode(
@@ -86,5 +87,6 @@ public class Permission {
             valueArray[i] = values;
         }
         context.getContentResolver().bulkInsert(PermissionTable.getContentUri(context), valueArray);
+        PermissionCache.getInstance(context).invalidate(pkg);
     }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026, the hapjs-platform Project Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hapjs.permission;
+
+import android.content.Context;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.util.Log;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hapjs.persistence.PermissionTable;
+
+/**
+ * 进程内的应用权限缓存, 避免每次调用需要权限的接口都经由 ContentProvider 查询数据库.
+ *
+ * <p>PermissionTable 写入或删除时通过 ContentResolver 通知各进程, 收到通知后使对应应用的缓存失效,
+ * 因此多进程下的权限结果与直接查询一致. 本进程内的修改在写入后立即失效, 不等待通知.
+ */
+public class PermissionCache {
+    private static final String TAG = "PermissionCache";
+
+    private static volatile PermissionCache sInstance;
+
+    private final Context mContext;
+    private final Map<String, Map<String, Integer>> mPermissions = new HashMap<>();
+    // 每次失效时递增, 查询期间发生失效时不缓存查询结果
+    private long mGeneration;
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+
+    private PermissionCache(Context context) {
+        mContext = context.getApplicationContext();
+        ContentObserver observer =
+                new ContentObserver(null) {
+                    @Override
+                    public void onChange(boolean selfChange) {
+                        onChange(selfChange, null);
+                    }
+
+                    @Override
+                    public void onChange(boolean selfChange, Uri uri) {
+                        invalidate(getPackage(uri));
+                    }
+                };
+        mContext.getContentResolver()
+                .registerContentObserver(PermissionTable.getContentUri(mContext), true, observer);
+    }
+
+    public static PermissionCache getInstance(Context context) {
+        if (sInstance == null) {
+            synchronized (PermissionCache.class) {
+                if (sInstance == null) {
+                    sInstance = new PermissionCache(context);
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    Map<String, Integer> getPermissions(String pkg) {
+        long generation;
+        synchronized (this) {
+            Map<String, Integer> permissions = mPermissions.get(pkg);
+            if (permissions != null) {
+                mHitCount.incrementAndGet();
+                return permissions;
+            }
+            generation = mGeneration;
+        }
+        long missCount = mMissCount.incrementAndGet();
+        Map<String, Integer> permissions =
+                Collections.unmodifiableMap(Permission.queryPermissions(mContext, pkg));
+        synchronized (this) {
+            if (generation == mGeneration) {
+                mPermissions.put(pkg, permissions);
+            }
+        }
+        Log.d(TAG, "query permissions of " + pkg + ", hit count: " + mHitCount.get()
+                + ", miss count: " + missCount);
+        return permissions;
+    }
+
+    /**
+     * pkg 为 null 时使所有应用的缓存失效.
+     */
+    synchronized void invalidate(String pkg) {
+        mGeneration++;
+        if (pkg == null) {
+            mPermissions.clear();
+        } else {
+            mPermissions.remove(pkg);
+        }
+    }
+
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    private static String getPackage(Uri uri) {
+        if (uri == null) {
+            return null;
+        }
+        // content://authority/permission/pkg
+        List<String> segments = uri.getPathSegments();
+        return segments.size() == 2 ? segments.get(1) : null;
+    }
+}
@@ -12,6 +12,7 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.net.Uri;
 import android.provider.BaseColumns;
+import android.text.TextUtils;
 import org.hapjs.bridge.permission.RuntimePermissionProvider;
 
 public class PermissionTable extends AbstractTable {
@@ -55,6 +56,13 @@ public class PermissionTable extends AbstractTable {
         mDBHelper = dbHelper;
     }
 
+    /**
+     * 应用权限变化时通知的 uri, 监听 {@link #getContentUri} 及其子路径即可收到所有应用的变化.
+     */
+    public static Uri getAppUri(Context context, String pkg) {
+        return getContentUri(context).buildUpon().appendPath(pkg).build();
+    }
+
     public static Uri getContentUri(Context context) {
         if (CONTENT_URI == null) {
             CONTENT_URI =
@@ -123,6 +131,7 @@ public class PermissionTable extends AbstractTable {
                                 .getWritableDatabase()
                                 .insertWithOnConflict(NAME, null, values,
                                         SQLiteDatabase.CONFLICT_REPLACE);
+                notifyChange(values.getAsString(Columns.APP_ID));
                 return ContentUris.withAppendedId(getContentUri(mDBHelper.getContext()), id);
             default:
                 return null;
@@ -131,16 +140,32 @@ public class PermissionTable extends AbstractTable {
 
     @Override
     public int delete(int matchCode, Uri uri, String selection, String[] selectionArgs) {
+        int count;
         switch (matchCode - BASE_MATCH_CODE) {
             case MATCH_ITEM:
                 long id = ContentUris.parseId(uri);
                 selection = appendSelection(selection, Columns._ID + "=" + id);
-                return mDBHelper.getWritableDatabase().delete(NAME, selection, selectionArgs);
+                count = mDBHelper.getWritableDatabase().delete(NAME, selection, selectionArgs);
+                break;
             case MATCH_CONTENT:
-                return mDBHelper.getWritableDatabase().delete(NAME, selection, selectionArgs);
+                count = mDBHelper.getWritableDatabase().delete(NAME, selection, selectionArgs);
+                break;
             default:
                 return 0;
         }
+        if (count > 0) {
+            notifyChange(null);
+        }
+        return count;
+    }
+
+    /**
+     * 通知各进程中缓存的权限失效, pkg 为空时表示所有应用.
+     */
+    private void notifyChange(String pkg) {
+        Context context = mDBHelper.getContext();
+        Uri uri = TextUtils.isEmpty(pkg) ? getContentUri(context) : getAppUri(context, pkg);
+        context.getContentResolver().notifyChange(uri, null);
     }
 
     @Override